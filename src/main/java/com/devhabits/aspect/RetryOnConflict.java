@@ -0,0 +1,27 @@
+package com.devhabits.aspect;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Retry the annotated service method when its transaction fails on an optimistic lock conflict.
+ * The method is re-executed in a fresh transaction, so it must be safe to run again from scratch.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+
+    /**
+     * Total number of attempts, including the first one
+     */
+    int maxAttempts() default 3;
+
+    /**
+     * Base backoff between attempts, multiplied by the attempt number and jittered
+     */
+    long backoffMillis() default 20;
+}
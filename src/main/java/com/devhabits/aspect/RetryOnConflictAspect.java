@@ -0,0 +1,59 @@
+package com.devhabits.aspect;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Re-runs {@link RetryOnConflict} methods after an optimistic lock failure.
+ * Ordered before the transaction interceptor so each attempt gets its own transaction.
+ */
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class RetryOnConflictAspect {
+
+    @Around("@annotation(retryOnConflict)")
+    public Object retry(ProceedingJoinPoint joinPoint, RetryOnConflict retryOnConflict) throws Throwable {
+        // Joined an outer transaction: only the outer unit of work can be retried
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+
+        int attempt = 1;
+        while (true) {
+            try {
+                return joinPoint.proceed();
+            } catch (OptimisticLockingFailureException ex) {
+                if (attempt >= retryOnConflict.maxAttempts()) {
+                    log.warn("Optimistic lock conflict on {} after {} attempts",
+                            joinPoint.getSignature().toShortString(), attempt);
+                    throw ex;
+                }
+
+                log.debug("Optimistic lock conflict on {} (attempt {}), retrying",
+                        joinPoint.getSignature().toShortString(), attempt);
+
+                backoff(retryOnConflict.backoffMillis() * attempt);
+                attempt++;
+            }
+        }
+    }
+
+    private void backoff(long millis) throws InterruptedException {
+        if (millis <= 0) {
+            return;
+        }
+        // Jitter avoids conflicting callers retrying in lockstep
+        Thread.sleep(millis + ThreadLocalRandom.current().nextLong(millis));
+    }
+}
@@ -0,0 +1,32 @@
+package com.devhabits.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    /**
+     * Executor of the slow outbox consumers, keeps them off the relay thread
+     */
+    @Bean
+    public ThreadPoolTaskExecutor outboxConsumerExecutor(
+            @Value("${app.outbox.consumer-threads:2}") int consumerThreads
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(consumerThreads);
+        executor.setMaxPoolSize(consumerThreads);
+        executor.setQueueCapacity(1000);
+        executor.setThreadNamePrefix("outbox-consumer-");
+        // Consumers run in the trace of the relay batch, trace ids included in their logs
+        executor.setTaskDecorator(new ContextPropagatingTaskDecorator());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+}
@@ -0,0 +1,64 @@
+package com.devhabits.config;
+
+import com.devhabits.model.dto.response.HabitResponse;
+import com.devhabits.util.SparseFieldsets;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.lang.NonNull;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Compact binary representations negotiated through the Accept header, for mobile clients:
+ * CBOR (application/cbor) and Smile (application/x-jackson-smile), both omitting null properties.
+ * application/json is unchanged; slim JSON comes from the {@code fields} parameter ({@link SparseFieldsetsAdvice}).
+ */
+@Configuration
+@RequiredArgsConstructor
+public class JacksonConfig implements WebMvcConfigurer {
+
+    // Boot's builder is a prototype bean: one fresh, customized builder per mapper
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder;
+
+    /**
+     * The filtered DTOs get the sparse fieldset filter on the application mappers only, which
+     * know it and write all properties by default. Other mappers never see the filter.
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer sparseFieldsetsCustomizer() {
+        return builder -> builder
+                .mixIn(HabitResponse.class, SparseFieldsets.Filtered.class)
+                .filters(SparseFieldsets.SERIALIZE_ALL);
+    }
+
+    @Override
+    public void extendMessageConverters(@NonNull List<HttpMessageConverter<?>> converters) {
+        // Replace the default binary converters, whose mappers lack Boot's customizations
+        converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+                || converter instanceof MappingJackson2SmileHttpMessageConverter);
+
+        // Appended after application/json so it stays the default for Accept: */*
+        converters.add(new MappingJackson2CborHttpMessageConverter(compactMapper(new CBORFactory())));
+        converters.add(new MappingJackson2SmileHttpMessageConverter(compactMapper(new SmileFactory())));
+    }
+
+    private ObjectMapper compactMapper(JsonFactory factory) {
+        return objectMapperBuilder.getObject()
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .factory(factory)
+                .build();
+    }
+}
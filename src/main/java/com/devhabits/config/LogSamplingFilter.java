@@ -0,0 +1,60 @@
+package com.devhabits.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logback turbo filter keeping 1 of every {@code rate} INFO events per message template, for the
+ * configured logger prefixes. Runs before the event is built, so dropped events cost a counter
+ * increment. WARN and ERROR, and events carrying an exception, always pass.
+ */
+public class LogSamplingFilter extends TurboFilter {
+
+    // Templates are fixed strings in code; past this size (concatenated messages) share one counter
+    private static final int MAX_TEMPLATES = 1000;
+
+    private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+    private final AtomicLong overflowCounter = new AtomicLong();
+
+    private List<String> loggers = List.of();
+    private int rate = 10;
+
+    public void setLoggers(String loggers) {
+        this.loggers = Arrays.stream(loggers.split(",")).map(String::trim).filter(name -> !name.isEmpty()).toList();
+    }
+
+    public void setRate(int rate) {
+        this.rate = Math.max(1, rate);
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // format is null for isXxxEnabled() checks: never sample those
+        if (rate == 1 || level != Level.INFO || format == null || t != null || !isSampled(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+
+        AtomicLong counter = counters.size() < MAX_TEMPLATES
+                ? counters.computeIfAbsent(format, key -> new AtomicLong())
+                : counters.getOrDefault(format, overflowCounter);
+        return counter.getAndIncrement() % rate == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private boolean isSampled(String loggerName) {
+        for (String prefix : loggers) {
+            if (loggerName.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
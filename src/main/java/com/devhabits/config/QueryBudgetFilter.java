@@ -0,0 +1,75 @@
+package com.devhabits.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Counts the SQL statements of each HTTP request (authentication included) and checks them
+ * against the endpoint's budget. Counts are exported as the devhabits.http.queries histogram;
+ * a request over budget is logged, or fails when app.query-budget.fail-on-exceeded is set.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    private final QueryCountInspector queryCountInspector;
+    private final QueryBudgetProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        int statements;
+        queryCountInspector.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            statements = queryCountInspector.stop();
+        }
+
+        // Unmatched requests (404, static resources) have no route to report against
+        Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (route == null) {
+            return;
+        }
+
+        DistributionSummary.builder("devhabits.http.queries")
+                .description("SQL statements per HTTP request")
+                .baseUnit("statements")
+                .tag("method", request.getMethod())
+                .tag("uri", route.toString())
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(statements);
+
+        String endpoint = request.getMethod() + " " + route;
+        int budget = properties.budgetFor(endpoint);
+        if (statements > budget) {
+            String message = endpoint + " ran " + statements + " SQL statements, budget is " + budget;
+            if (properties.isFailOnExceeded()) {
+                throw new IllegalStateException(message);
+            }
+            log.warn(message);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.devhabits.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * SQL statement budgets per endpoint, keyed by method and route ({@code "GET /api/habits/{habitId}"})
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.query-budget")
+public class QueryBudgetProperties {
+
+    /**
+     * Throw instead of logging when a request exceeds its budget (tests)
+     */
+    private boolean failOnExceeded = false;
+
+    private int defaultBudget = 20;
+
+    private Map<String, Integer> budgets = new HashMap<>();
+
+    public int budgetFor(String endpoint) {
+        return budgets.getOrDefault(endpoint, defaultBudget);
+    }
+}
@@ -0,0 +1,81 @@
+package com.devhabits.config;
+
+import com.devhabits.model.dto.response.ApiResponse;
+import com.devhabits.security.JwtAuthenticationFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rejects with 429 and Retry-After the requests over their route's rate limit (RateLimiter).
+ * Runs after Spring Security: buckets are keyed by the user of the JWT, or by the client
+ * address on the endpoints called before logging in. Requests no rule applies to, and
+ * unauthenticated ones on per-user routes, go through uncounted.
+ */
+@Slf4j
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        RateLimiter.Limit limit = rateLimiter.limitFor(request.getMethod(), request.getRequestURI());
+        String key = limit != null ? key(limit, request) : null;
+        if (key == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long waitNanos = rateLimiter.tryAcquire(limit, key);
+        if (waitNanos == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        log.debug("Rate limit {} reached by {}, retry in {}s", limit.getName(), key, retryAfter);
+        meterRegistry.counter("devhabits.http.rate-limited", "rule", limit.getName()).increment();
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                ApiResponse.error("Too many requests, retry in " + retryAfter + " seconds"));
+    }
+
+    private static String key(RateLimiter.Limit limit, HttpServletRequest request) {
+        if (limit.getKey() == RateLimitProperties.Key.IP) {
+            // Client address behind the proxy when server.forward-headers-strategy is set
+            return request.getRemoteAddr();
+        }
+        UUID userId = JwtAuthenticationFilter.currentUserId();
+        return userId != null ? userId.toString() : null;
+    }
+}
@@ -0,0 +1,74 @@
+package com.devhabits.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Token buckets of the API, one rule per route. The first rule matching a request applies.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * How often each node reports what it consumed to Redis and reads the shared buckets back
+     */
+    private Duration syncInterval = Duration.ofSeconds(1);
+
+    /**
+     * Local buckets kept per rule, the least used are dropped first
+     */
+    private long maxBuckets = 100_000;
+
+    private List<Rule> rules = new ArrayList<>();
+
+    @Data
+    public static class Rule {
+
+        /**
+         * Metric tag and part of the Redis key
+         */
+        private String name;
+
+        /**
+         * HTTP method, any when not set
+         */
+        private String method;
+
+        /**
+         * Path pattern ({@code /api/habits/{habitId}/check-in}, {@code /api/auth/**})
+         */
+        private String path;
+
+        private Key key = Key.USER;
+
+        /**
+         * Requests allowed in a burst
+         */
+        private int capacity;
+
+        /**
+         * Time to refill an empty bucket
+         */
+        private Duration period;
+    }
+
+    public enum Key {
+        /**
+         * Authenticated user, requests without a valid JWT are not counted
+         */
+        USER,
+        /**
+         * Client address, for the endpoints called before logging in
+         */
+        IP
+    }
+}
@@ -0,0 +1,264 @@
+package com.devhabits.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Token buckets of the rate limit rules. Each node decides from its local bucket, so a request
+ * costs a path match, a cache lookup and an uncontended lock. Every sync interval, the buckets used since the
+ * last one report what they consumed to a shared bucket in Redis and take its level back: a key
+ * can go over its quota by what other nodes let through during one interval at most. A bucket
+ * created on a node starts full without calling Redis, so a new key never waits on the network: it is
+ * aligned on the shared level at the next sync, its first request queuing it for one. Without Redis,
+ * buckets only limit locally.
+ */
+@Slf4j
+@Component
+public class RateLimiter {
+
+    private static final String KEY_PREFIX = "ratelimit:";
+    private static final int SYNC_BATCH_SIZE = 500;
+
+    // Refill and debit each shared bucket (capacity, period in ms, consumed), return the levels.
+    // The debt is capped at one bucket: a burst let through by several nodes is paid back within a period.
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> SYNC_SCRIPT = RedisScript.of("""
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local levels = {}
+            for i, key in ipairs(KEYS) do
+                local capacity = tonumber(ARGV[3 * i - 2])
+                local period = tonumber(ARGV[3 * i - 1])
+                local consumed = tonumber(ARGV[3 * i])
+                local bucket = redis.call('HMGET', key, 'tokens', 'at')
+                local tokens = capacity
+                if bucket[1] then
+                    tokens = math.min(capacity, tonumber(bucket[1]) + (now - tonumber(bucket[2])) * capacity / period)
+                end
+                tokens = math.max(tokens - consumed, -capacity)
+                redis.call('HSET', key, 'tokens', tostring(tokens), 'at', now)
+                redis.call('PEXPIRE', key, 2 * period)
+                levels[i] = tostring(tokens)
+            end
+            return levels
+            """, List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final List<Limit> limits;
+    private final Queue<Bucket> unsynced = new ConcurrentLinkedQueue<>();
+
+    public RateLimiter(StringRedisTemplate redisTemplate, RateLimitProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.limits = properties.isEnabled()
+                ? properties.getRules().stream().map(rule -> new Limit(rule, properties)).toList()
+                : List.of();
+    }
+
+    /**
+     * First limit applying to a request, null when none does
+     */
+    public Limit limitFor(String method, String path) {
+        for (Limit limit : limits) {
+            if (limit.matches(method, path)) {
+                return limit;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Take a token from the key's bucket: 0 when the request may go on, otherwise the
+     * nanoseconds to wait for the next token
+     */
+    public long tryAcquire(Limit limit, String key) {
+        // Plain lookup first: no lambda allocated once the bucket exists
+        Bucket bucket = limit.buckets.getIfPresent(key);
+        if (bucket == null) {
+            bucket = limit.buckets.get(key, k -> new Bucket(limit, KEY_PREFIX + limit.name + ":" + k));
+        }
+        return bucket.tryAcquire(System.nanoTime());
+    }
+
+    /**
+     * Report the consumption of the buckets used since the last sync and align them on Redis
+     */
+    @Scheduled(fixedDelayString = "${app.rate-limit.sync-interval:1s}")
+    public void sync() {
+        List<Bucket> batch = new ArrayList<>(SYNC_BATCH_SIZE);
+        Bucket bucket;
+        while ((bucket = unsynced.poll()) != null) {
+            batch.add(bucket);
+            if (batch.size() == SYNC_BATCH_SIZE) {
+                sync(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            sync(batch);
+        }
+    }
+
+    private void sync(List<Bucket> batch) {
+        List<String> keys = new ArrayList<>(batch.size());
+        List<String> args = new ArrayList<>(3 * batch.size());
+        for (Bucket bucket : batch) {
+            keys.add(bucket.redisKey);
+            args.add(String.valueOf(bucket.limit.capacity));
+            args.add(String.valueOf(bucket.limit.periodMillis));
+            args.add(String.valueOf(bucket.takeUnsynced()));
+        }
+
+        List<?> levels;
+        try {
+            levels = redisTemplate.execute(SYNC_SCRIPT, keys, args.toArray());
+        } catch (RuntimeException e) {
+            // Consumption of this round is lost: the local buckets keep limiting on their own meanwhile
+            log.warn("Failed to sync {} rate limit buckets: {}", batch.size(), e.getMessage());
+            return;
+        }
+        if (levels == null || levels.size() != batch.size()) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).align(Double.parseDouble(levels.get(i).toString()), now);
+        }
+    }
+
+    /**
+     * A rule and its local buckets, by user id or client address
+     */
+    public static final class Limit {
+
+        @Getter
+        private final String name;
+        @Getter
+        private final RateLimitProperties.Key key;
+        private final String method;
+        // Literal segments, null for a variable one; the pattern may end with /**
+        private final String[] segments;
+        private final boolean anyTail;
+        private final int capacity;
+        private final long periodMillis;
+        private final double tokensPerNano;
+        private final Cache<String, Bucket> buckets;
+
+        private Limit(RateLimitProperties.Rule rule, RateLimitProperties properties) {
+            if (rule.getCapacity() <= 0 || rule.getPeriod() == null || rule.getPeriod().isNegative()
+                    || rule.getPeriod().isZero()) {
+                throw new IllegalArgumentException("Rate limit " + rule.getName() + " needs a capacity and a period");
+            }
+            this.name = rule.getName();
+            this.key = rule.getKey();
+            this.method = rule.getMethod();
+            String path = rule.getPath();
+            this.anyTail = path.endsWith("/**");
+            if (anyTail) {
+                path = path.substring(0, path.length() - 3);
+            }
+            path = path.substring(path.startsWith("/") ? 1 : 0);
+            this.segments = path.isEmpty() ? new String[0] : path.split("/");
+            for (int i = 0; i < segments.length; i++) {
+                if (segments[i].equals("*") || segments[i].startsWith("{") && segments[i].endsWith("}")) {
+                    segments[i] = null;
+                } else if (segments[i].contains("*") || segments[i].contains("{")) {
+                    throw new IllegalArgumentException("Unsupported rate limit path " + rule.getPath());
+                }
+            }
+            this.capacity = rule.getCapacity();
+            this.periodMillis = rule.getPeriod().toMillis();
+            this.tokensPerNano = (double) capacity / rule.getPeriod().toNanos();
+            // Bounded by size only, an expiry would read the clock on each lookup. Rarely used
+            // buckets go first; one idle for a period is full again, nothing is lost by dropping it.
+            this.buckets = Caffeine.newBuilder()
+                    .maximumSize(properties.getMaxBuckets())
+                    .build();
+        }
+
+        /**
+         * Walks the path segment by segment, without parsing or allocating: this runs on every request
+         */
+        private boolean matches(String requestMethod, String path) {
+            if (method != null && !method.equals(requestMethod)) {
+                return false;
+            }
+            int position = 0;
+            for (String segment : segments) {
+                if (position >= path.length() || path.charAt(position) != '/') {
+                    return false;
+                }
+                int end = path.indexOf('/', position + 1);
+                if (end < 0) {
+                    end = path.length();
+                }
+                boolean matched = segment == null
+                        ? end > position + 1
+                        : end - position - 1 == segment.length() && path.startsWith(segment, position + 1);
+                if (!matched) {
+                    return false;
+                }
+                position = end;
+            }
+            return anyTail || position == path.length();
+        }
+    }
+
+    private final class Bucket {
+
+        private final Limit limit;
+        private final String redisKey;
+        private double tokens;
+        private long refilledAt;
+        private long consumed;
+
+        private Bucket(Limit limit, String redisKey) {
+            this.limit = limit;
+            this.redisKey = redisKey;
+            this.tokens = limit.capacity;
+            this.refilledAt = System.nanoTime();
+        }
+
+        private synchronized long tryAcquire(long now) {
+            refill(now);
+            if (tokens < 1) {
+                return (long) Math.ceil((1 - tokens) / limit.tokensPerNano);
+            }
+            tokens--;
+            if (consumed++ == 0) {
+                unsynced.add(this);
+            }
+            return 0;
+        }
+
+        private synchronized long takeUnsynced() {
+            long taken = consumed;
+            consumed = 0;
+            return taken;
+        }
+
+        /**
+         * Level of the shared bucket, less what was consumed here since it was read
+         */
+        private synchronized void align(double shared, long now) {
+            tokens = Math.min(limit.capacity, shared - consumed);
+            refilledAt = now;
+        }
+
+        private void refill(long now) {
+            tokens = Math.min(limit.capacity, tokens + (now - refilledAt) * limit.tokensPerNano);
+            refilledAt = now;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.devhabits.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Read-your-writes over the read replica. A user whose data just changed reads from the primary
+ * for max-lag plus one lag check: the replica may not have replayed the write yet, and a read from
+ * it would also fill the caches keyed by the new data version (response cache, completion bitmaps)
+ * with the old data, then serve it as fresh. The pin is a Redis key shared by all nodes, set once
+ * the write commits and checked at the start of each request (ReadYourWritesFilter).
+ * Without a replica nothing is pinned.
+ */
+@Slf4j
+@Component
+public class ReadYourWrites {
+
+    private static final String KEY_PREFIX = "user:primary-pin:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final boolean enabled;
+    private final Duration window;
+
+    public ReadYourWrites(
+            StringRedisTemplate redisTemplate,
+            @Value("${app.datasource.replica.url:}") String replicaUrl,
+            @Value("${app.datasource.replica.max-lag:2s}") Duration maxLag,
+            @Value("${app.datasource.replica.lag-check-interval:5s}") Duration lagCheckInterval
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.enabled = !replicaUrl.isBlank();
+        // The lag may grow past max-lag between two checks of ReplicaLagMonitor
+        this.window = maxLag.plus(lagCheckInterval);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * The user's data changed (after commit): their reads go to the primary for the window,
+     * on every node, and for the rest of the current request on this one
+     */
+    public void pin(UUID userId) {
+        if (!enabled) {
+            return;
+        }
+        if (RequestContextHolder.getRequestAttributes() != null) {
+            // Cleared by ReadYourWritesFilter at the end of the request
+            ReplicaRoutingDataSource.pinToPrimary();
+        }
+        try {
+            redisTemplate.opsForValue().set(KEY_PREFIX + userId, "1", window);
+        } catch (RuntimeException e) {
+            log.warn("Failed to pin reads of user {} to the primary: {}", userId, e.getMessage());
+        }
+    }
+
+    /**
+     * True while the user's reads must go to the primary, and when Redis cannot tell
+     */
+    public boolean isPinned(UUID userId) {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.hasKey(KEY_PREFIX + userId));
+        } catch (RuntimeException e) {
+            log.warn("Failed to read primary pin of user {}: {}", userId, e.getMessage());
+            return true;
+        }
+    }
+}
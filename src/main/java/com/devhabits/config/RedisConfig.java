@@ -0,0 +1,46 @@
+package com.devhabits.config;
+
+import com.devhabits.security.WebhookSecretCache;
+import com.devhabits.service.DashboardEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+@Configuration
+public class RedisConfig {
+
+    /**
+     * Template for binary values (serialized completion bitmaps)
+     */
+    @Bean
+    public RedisTemplate<String, byte[]> byteArrayRedisTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(RedisSerializer.string());
+        template.setValueSerializer(RedisSerializer.byteArray());
+        template.setEnableDefaultSerializer(false);
+        return template;
+    }
+
+    /**
+     * Subscription to the dashboard events and cache invalidations published by every node
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            DashboardEventPublisher dashboardEventPublisher,
+            SecondLevelCacheInvalidator secondLevelCacheInvalidator,
+            WebhookSecretCache webhookSecretCache
+    ) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(dashboardEventPublisher, new ChannelTopic(DashboardEventPublisher.CHANNEL));
+        container.addMessageListener(secondLevelCacheInvalidator, new ChannelTopic(SecondLevelCacheInvalidator.CHANNEL));
+        container.addMessageListener(webhookSecretCache, new ChannelTopic(WebhookSecretCache.CHANNEL));
+        return container;
+    }
+}
@@ -0,0 +1,74 @@
+package com.devhabits.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+
+/**
+ * Measures the replication lag of the replica and decides whether read-only transactions may use it.
+ * The replica is unusable until the first successful check, and as soon as a check fails or the
+ * lag goes over app.datasource.replica.max-lag: reads then fall back to the primary.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    // 0 when the replica has replayed everything it received (an idle primary sends no new transaction)
+    static final String LAG_QUERY = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+            END
+            """;
+
+    private final JdbcTemplate replica;
+    private final Duration maxLag;
+
+    private volatile double lagSeconds = Double.NaN;
+    private volatile boolean replicaUsable = false;
+
+    public ReplicaLagMonitor(JdbcTemplate replica, Duration maxLag, MeterRegistry meterRegistry) {
+        this.replica = replica;
+        this.maxLag = maxLag;
+
+        Gauge.builder("devhabits.datasource.replica.lag", this, monitor -> monitor.lagSeconds)
+                .description("Replication lag of the read replica, NaN when unreachable")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("devhabits.datasource.replica.usable", this, monitor -> monitor.replicaUsable ? 1 : 0)
+                .description("1 when read-only transactions are routed to the replica")
+                .register(meterRegistry);
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval:5s}")
+    public void check() {
+        boolean usable;
+        try {
+            Double lag = replica.queryForObject(LAG_QUERY, Double.class);
+            lagSeconds = lag != null ? lag : Double.NaN;
+            usable = lag != null && lag * 1000 <= maxLag.toMillis();
+        } catch (Exception e) {
+            lagSeconds = Double.NaN;
+            usable = false;
+            if (replicaUsable) {
+                log.warn("Read replica unreachable, reads fall back to the primary: {}", e.getMessage());
+            }
+        }
+
+        if (usable != replicaUsable) {
+            if (usable) {
+                log.info("Read replica in sync (lag {}s), read-only transactions use it", lagSeconds);
+            } else if (!Double.isNaN(lagSeconds)) {
+                log.warn("Read replica lagging {}s (max {}), reads fall back to the primary", lagSeconds, maxLag);
+            }
+            replicaUsable = usable;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.devhabits.config;
+
+import com.devhabits.security.JwtAuthenticationFilter;
+import com.devhabits.service.UserDataVersionService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Caches the serialized, gzip-compressed body of large per-user GET responses (dashboard,
+ * repository list) in Redis, keyed by the user's data version, URL and Accept header.
+ * A hit skips the controller, the database and Jackson: the stored bytes are written as is
+ * to clients accepting gzip. Entries of an older version are never read again and expire.
+ */
+@Slf4j
+@Component
+public class ResponseCacheFilter extends OncePerRequestFilter {
+
+    private static final String KEY_PREFIX = "response:";
+    private static final String GZIP = "gzip";
+    private static final String CACHE_METRIC = "devhabits.cache.requests";
+
+    private final UserDataVersionService userDataVersionService;
+    private final RedisTemplate<String, byte[]> redisTemplate;
+    private final Set<String> paths;
+    private final Duration ttl;
+    private final long maxEntrySize;
+    private final Counter hits;
+    private final Counter misses;
+
+    public ResponseCacheFilter(
+            UserDataVersionService userDataVersionService,
+            @Qualifier("byteArrayRedisTemplate") RedisTemplate<String, byte[]> redisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${app.response-cache.paths:/api/dashboard,/api/github/repositories}") List<String> paths,
+            @Value("${app.response-cache.ttl:10m}") Duration ttl,
+            @Value("${app.response-cache.max-entry-size:1MB}") DataSize maxEntrySize
+    ) {
+        this.userDataVersionService = userDataVersionService;
+        this.redisTemplate = redisTemplate;
+        this.paths = Set.copyOf(paths);
+        this.ttl = ttl;
+        this.maxEntrySize = maxEntrySize.toBytes();
+        this.hits = meterRegistry.counter(CACHE_METRIC, "cache", "response", "result", "hit");
+        this.misses = meterRegistry.counter(CACHE_METRIC, "cache", "response", "result", "miss");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !"GET".equals(request.getMethod()) || !paths.contains(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        UUID userId = JwtAuthenticationFilter.currentUserId();
+        ServletWebRequest webRequest = new ServletWebRequest(request, response);
+        String eTag = userId != null ? userDataVersionService.eTag(userId, webRequest) : null;
+        if (eTag == null) {
+            // Anonymous request or Redis unavailable
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (webRequest.checkNotModified(eTag)) {
+            return;
+        }
+
+        String key = key(userId, eTag, request);
+        byte[] entry = read(key);
+        if (entry != null && writeEntry(entry, eTag, request, response)) {
+            hits.increment();
+            return;
+        }
+        misses.increment();
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, wrapper);
+
+        String contentType = wrapper.getContentType();
+        if (wrapper.getStatus() != HttpServletResponse.SC_OK || contentType == null
+                || wrapper.getContentSize() > maxEntrySize) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+
+        byte[] compressed = gzip(wrapper.getContentAsByteArray());
+        write(key, encode(contentType, compressed));
+
+        if (acceptsGzip(request)) {
+            // Already compressed: send these bytes rather than have the connector compress the body again
+            wrapper.resetBuffer();
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            response.setContentLength(compressed.length);
+            response.getOutputStream().write(compressed);
+        } else {
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private boolean writeEntry(byte[] entry, String eTag, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        String contentType;
+        int bodyOffset;
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(entry))) {
+            contentType = in.readUTF();
+            bodyOffset = entry.length - in.available();
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable cached response: {}", e.getMessage());
+            return false;
+        }
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(contentType);
+        response.setHeader(HttpHeaders.ETAG, eTag);
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        if (acceptsGzip(request)) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+            response.setContentLength(entry.length - bodyOffset);
+            response.getOutputStream().write(entry, bodyOffset, entry.length - bodyOffset);
+        } else {
+            byte[] body = gunzip(entry, bodyOffset);
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+        }
+        return true;
+    }
+
+    private byte[] read(String key) {
+        try {
+            return redisTemplate.opsForValue().get(key);
+        } catch (RuntimeException e) {
+            log.warn("Failed to read cached response {}: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private void write(String key, byte[] entry) {
+        try {
+            redisTemplate.opsForValue().set(key, entry, ttl);
+        } catch (RuntimeException e) {
+            log.warn("Failed to cache response {}: {}", key, e.getMessage());
+        }
+    }
+
+    /**
+     * One key per user, version, URL (query included) and Accept header (JSON, CBOR, Smile)
+     */
+    private String key(UUID userId, String eTag, HttpServletRequest request) {
+        String variant = eTag + "|" + request.getRequestURI() + "?" + request.getQueryString()
+                + "|" + request.getHeader(HttpHeaders.ACCEPT);
+        return KEY_PREFIX + userId + ":" + DigestUtils.md5DigestAsHex(variant.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.contains(GZIP);
+    }
+
+    /**
+     * Entry layout: content type (modified UTF-8, length prefixed) followed by the gzip body
+     */
+    private static byte[] encode(String contentType, byte[] compressedBody) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(compressedBody.length + 64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(contentType);
+            out.write(compressedBody);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(body);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] entry, int offset) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(
+                new ByteArrayInputStream(entry, offset, entry.length - offset))) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.devhabits.config;
+
+import com.devhabits.model.entity.GitHubConnection;
+import com.devhabits.model.entity.GitHubRepository;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level cache: a Caffeine (JCache) cache per region, local to the node.
+ * Other nodes are told to evict through Redis by {@link SecondLevelCacheInvalidator}; entries
+ * also expire after app.second-level-cache.ttl, which bounds staleness if a message is lost.
+ * Cached entities and queries are only loaded in read-write transactions, which use the primary:
+ * a result read from a lagging replica would be cached as current after the eviction of the write.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    public static final String GITHUB_CONNECTION_QUERIES = "github-connection-queries";
+    public static final String GITHUB_REPOSITORY_QUERIES = "github-repository-queries";
+
+    /**
+     * Query cache region of each cached entity, evicted with it on every node
+     */
+    static final Map<String, String> QUERY_REGIONS = Map.of(
+            GitHubConnection.class.getName(), GITHUB_CONNECTION_QUERIES,
+            GitHubRepository.class.getName(), GITHUB_REPOSITORY_QUERIES);
+
+    /**
+     * One manager per application context: test contexts running side by side don't share regions
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${app.second-level-cache.ttl:10m}") Duration ttl,
+            @Value("${app.second-level-cache.max-entries:10000}") long maxEntries
+    ) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("devhabits-hibernate-" + UUID.randomUUID()), getClass().getClassLoader());
+
+        for (String entity : QUERY_REGIONS.keySet()) {
+            cacheManager.createCache(entity, region(ttl, maxEntries));
+        }
+        for (String queries : QUERY_REGIONS.values()) {
+            cacheManager.createCache(queries, region(ttl, maxEntries));
+        }
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, region(ttl, maxEntries));
+        // Must outlive every query result it validates: no expiry
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                new CaffeineConfiguration<>());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(Duration ttl, long maxEntries) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        configuration.setMaximumSize(OptionalLong.of(maxEntries));
+        return configuration;
+    }
+}
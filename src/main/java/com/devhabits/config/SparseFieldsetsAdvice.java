@@ -0,0 +1,43 @@
+package com.devhabits.config;
+
+import com.devhabits.util.SparseFieldsets;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.lang.NonNull;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+/**
+ * Applies the {@code fields} request parameter to habit objects of any Jackson response
+ * (JSON, compact JSON, CBOR, Smile), e.g. {@code GET /api/dashboard?fields=name,completedToday}
+ */
+@RestControllerAdvice
+public class SparseFieldsetsAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    public static final String FIELDS_PARAMETER = "fields";
+
+    @Override
+    protected void beforeBodyWriteInternal(
+            @NonNull MappingJacksonValue bodyContainer,
+            @NonNull MediaType contentType,
+            @NonNull MethodParameter returnType,
+            @NonNull ServerHttpRequest request,
+            @NonNull ServerHttpResponse response
+    ) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)) {
+            return;
+        }
+
+        HttpServletRequest httpRequest = servletRequest.getServletRequest();
+        String fields = httpRequest.getParameter(FIELDS_PARAMETER);
+        if (StringUtils.hasText(fields)) {
+            bodyContainer.setFilters(SparseFieldsets.filterFor(fields));
+        }
+    }
+}
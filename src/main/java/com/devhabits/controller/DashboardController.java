@@ -3,17 +3,24 @@ package com.devhabits.controller;
 import com.devhabits.model.dto.response.ApiResponse;
 import com.devhabits.model.dto.response.DashboardResponse;
 import com.devhabits.service.DashboardService;
+import com.devhabits.service.DashboardStreamService;
+import com.devhabits.service.UserDataVersionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
 import java.util.UUID;
 
 @Slf4j
@@ -25,15 +32,35 @@ import java.util.UUID;
 public class DashboardController {
 
     private final DashboardService dashboardService;
+    private final UserDataVersionService userDataVersionService;
+    private final DashboardStreamService dashboardStreamService;
 
     @Operation(summary = "Get user dashboard with statistics")
     @GetMapping
     public ResponseEntity<ApiResponse<DashboardResponse>> getDashboard(
-            Authentication authentication
+            Authentication authentication,
+            WebRequest webRequest
     ) {
         UUID userId = UUID.fromString(authentication.getName());
+
+        // Nothing changed since the client's copy: 304 without building the dashboard
+        String eTag = userDataVersionService.eTag(userId, webRequest);
+        if (eTag != null && webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
         DashboardResponse dashboard = dashboardService.getDashboard(userId);
 
-        return ResponseEntity.ok(ApiResponse.success(dashboard));
+        return eTag != null
+                ? ResponseEntity.ok().eTag(eTag).body(ApiResponse.success(dashboard))
+                : ResponseEntity.ok(ApiResponse.success(dashboard));
+    }
+
+    @Operation(summary = "Stream live dashboard updates (server-sent events)")
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public void streamDashboard(Authentication authentication, HttpServletRequest request,
+                                HttpServletResponse response) throws IOException {
+        UUID userId = UUID.fromString(authentication.getName());
+        dashboardStreamService.connect(userId, request, response);
     }
-}
\ No newline at end of file
+}
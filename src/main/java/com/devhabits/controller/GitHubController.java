@@ -2,7 +2,10 @@ package com.devhabits.controller;
 
 import com.devhabits.model.dto.github.*;
 import com.devhabits.model.dto.response.ApiResponse;
+import com.devhabits.security.WebhookSignatureFilter;
 import com.devhabits.service.GitHubService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -16,6 +19,7 @@ import org.springframework.web.bind.annotation.*;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Slf4j
@@ -25,7 +29,12 @@ import java.util.UUID;
 @Tag(name = "GitHub Integration", description = "GitHub OAuth and webhook endpoints")
 public class GitHubController {
 
+    // Event header values tagged as is, anything else (public endpoint) is tagged "other"
+    private static final Set<String> WEBHOOK_EVENTS = Set.of(
+            "push", "pull_request", "pull_request_review", "issues", "ping");
+
     private final GitHubService githubService;
+    private final MeterRegistry meterRegistry;
 
     @PostMapping("/connect")
     @Operation(
@@ -130,6 +139,27 @@ public class GitHubController {
                 .build());
     }
 
+    @PostMapping("/repositories/{repoId}/webhook-secret")
+    @Operation(
+            summary = "Rotate repository webhook secret",
+            description = "Generate the secret GitHub signs the repository's webhooks with (shown once)",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    public ResponseEntity<ApiResponse<GitHubWebhookSecretResponse>> rotateWebhookSecret(
+            @PathVariable UUID repoId,
+            Authentication authentication) {
+
+        UUID userId = UUID.fromString(authentication.getName());
+        GitHubWebhookSecretResponse secret = githubService.rotateWebhookSecret(userId, repoId);
+
+        return ResponseEntity.ok(ApiResponse.<GitHubWebhookSecretResponse>builder()
+                .success(true)
+                .message("Webhook secret rotated successfully")
+                .data(secret)
+                .timestamp(LocalDateTime.now())
+                .build());
+    }
+
     @GetMapping("/events")
     @Operation(
             summary = "Get recent GitHub events",
@@ -154,26 +184,42 @@ public class GitHubController {
     @PostMapping("/webhook")
     @Operation(
             summary = "GitHub webhook endpoint",
-            description = "Receive GitHub webhook events (push, pull_request, issues, etc.)"
+            description = "Receive GitHub webhook events (push, pull_request, issues, etc.), "
+                    + "signed with the repository's webhook secret"
     )
     public ResponseEntity<Void> handleWebhook(
             @RequestHeader("X-GitHub-Event") String eventType,
-            @RequestHeader(value = "X-Hub-Signature-256", required = false) String signature,
+            @RequestAttribute(WebhookSignatureFilter.OWNER_ATTRIBUTE) UUID ownerId,
+            @RequestAttribute(WebhookSignatureFilter.REPOSITORY_ATTRIBUTE) Long repositoryId,
             @RequestBody GitHubWebhookPayload payload) {
 
+        // X-Hub-Signature-256 is verified by WebhookSignatureFilter before the payload is bound,
+        // with the secret of the repository named by the headers: the payload must name it too
+        if (payload.getRepository() == null || !repositoryId.equals(payload.getRepository().getId())) {
+            log.warn("Rejected GitHub webhook for repository {} naming another repository", repositoryId);
+            return ResponseEntity.badRequest().build();
+        }
+
         log.info("Received GitHub webhook: {}", eventType);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
 
         try {
-            // TODO: Validate webhook signature
-            // validateWebhookSignature(signature, payload);
-
             // Process the webhook event
-            githubService.processWebhookEvent(eventType, payload);
+            githubService.processWebhookEvent(ownerId, eventType, payload);
 
             return ResponseEntity.ok().build();
         } catch (Exception e) {
+            outcome = "error";
             log.error("Error processing GitHub webhook: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError().build();
+        } finally {
+            sample.stop(Timer.builder("devhabits.github.webhook")
+                    .description("GitHub webhook processing time")
+                    .tag("event", WEBHOOK_EVENTS.contains(eventType) ? eventType : "other")
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
         }
     }
 
@@ -4,8 +4,11 @@ import com.devhabits.model.dto.request.CheckInRequest;
 import com.devhabits.model.dto.request.CreateHabitRequest;
 import com.devhabits.model.dto.request.UpdateHabitRequest;
 import com.devhabits.model.dto.response.ApiResponse;
+import com.devhabits.model.dto.response.CalendarResponse;
 import com.devhabits.model.dto.response.HabitResponse;
+import com.devhabits.service.CalendarService;
 import com.devhabits.service.HabitService;
+import com.devhabits.service.UserDataVersionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -16,6 +19,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -29,6 +33,8 @@ import java.util.UUID;
 public class HabitController {
 
     private final HabitService habitService;
+    private final CalendarService calendarService;
+    private final UserDataVersionService userDataVersionService;
 
     @Operation(summary = "Create a new habit")
     @PostMapping
@@ -48,12 +54,22 @@ public class HabitController {
     @GetMapping
     public ResponseEntity<ApiResponse<List<HabitResponse>>> getUserHabits(
             @RequestParam(required = false) Boolean includeArchived,
-            Authentication authentication
+            Authentication authentication,
+            WebRequest webRequest
     ) {
         UUID userId = UUID.fromString(authentication.getName());
+
+        // Nothing changed since the client's copy: 304 without loading the habits
+        String eTag = userDataVersionService.eTag(userId, webRequest);
+        if (eTag != null && webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
         List<HabitResponse> habits = habitService.getUserHabits(userId, includeArchived);
 
-        return ResponseEntity.ok(ApiResponse.success(habits));
+        return eTag != null
+                ? ResponseEntity.ok().eTag(eTag).body(ApiResponse.success(habits))
+                : ResponseEntity.ok(ApiResponse.success(habits));
     }
 
     @Operation(summary = "Get a single habit by ID")
@@ -93,6 +109,18 @@ public class HabitController {
         return ResponseEntity.ok(ApiResponse.success("Habit deleted successfully", null));
     }
 
+    @Operation(summary = "Restore an archived habit")
+    @PatchMapping("/{habitId}/restore")
+    public ResponseEntity<ApiResponse<HabitResponse>> restoreHabit(
+            @PathVariable UUID habitId,
+            Authentication authentication
+    ) {
+        UUID userId = UUID.fromString(authentication.getName());
+        HabitResponse habit = habitService.restoreHabit(userId, habitId);
+
+        return ResponseEntity.ok(ApiResponse.success("Habit restored successfully", habit));
+    }
+
     @Operation(summary = "Check-in a habit (mark as done today)")
     @PostMapping("/{habitId}/check-in")
     public ResponseEntity<ApiResponse<HabitResponse>> checkInHabit(
@@ -105,4 +133,48 @@ public class HabitController {
 
         return ResponseEntity.ok(ApiResponse.success("Habit checked-in successfully", habit));
     }
-}
\ No newline at end of file
+
+    @Operation(summary = "Get completions per day of a habit for a year (heatmap)")
+    @GetMapping("/{habitId}/calendar")
+    public ResponseEntity<ApiResponse<CalendarResponse>> getHabitCalendar(
+            @PathVariable UUID habitId,
+            @RequestParam(required = false) Integer year,
+            Authentication authentication,
+            WebRequest webRequest
+    ) {
+        UUID userId = UUID.fromString(authentication.getName());
+
+        // No completion since the client's copy: 304 without building the calendar
+        String eTag = userDataVersionService.eTag(userId, webRequest);
+        if (eTag != null && webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
+        CalendarResponse calendar = calendarService.getHabitCalendar(userId, habitId, year);
+
+        return eTag != null
+                ? ResponseEntity.ok().eTag(eTag).body(ApiResponse.success(calendar))
+                : ResponseEntity.ok(ApiResponse.success(calendar));
+    }
+
+    @Operation(summary = "Get completions per day over all habits for a year (heatmap)")
+    @GetMapping("/calendar")
+    public ResponseEntity<ApiResponse<CalendarResponse>> getUserCalendar(
+            @RequestParam(required = false) Integer year,
+            Authentication authentication,
+            WebRequest webRequest
+    ) {
+        UUID userId = UUID.fromString(authentication.getName());
+
+        String eTag = userDataVersionService.eTag(userId, webRequest);
+        if (eTag != null && webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
+        CalendarResponse calendar = calendarService.getUserCalendar(userId, year);
+
+        return eTag != null
+                ? ResponseEntity.ok().eTag(eTag).body(ApiResponse.success(calendar))
+                : ResponseEntity.ok(ApiResponse.success(calendar));
+    }
+}
@@ -0,0 +1,77 @@
+package com.devhabits.event;
+
+import com.devhabits.model.dto.response.DashboardEvent;
+import com.devhabits.model.enums.DashboardEventType;
+import com.devhabits.model.enums.DomainEventType;
+import com.devhabits.service.DashboardEventPublisher;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Turns completions into live dashboard deltas, one pub/sub message per user and relay batch
+ */
+@Component
+@RequiredArgsConstructor
+public class DashboardLiveUpdateConsumer {
+
+    private static final String CONSUMER = "dashboard-live";
+
+    private final DashboardEventPublisher dashboardEventPublisher;
+    private final EventDeduplicator eventDeduplicator;
+
+    @EventListener
+    public void onBatch(DomainEventBatch batch) {
+        Map<UUID, List<DashboardEvent>> deltasByUser = new LinkedHashMap<>();
+        List<DomainEvent> claimed = new ArrayList<>();
+
+        try {
+            for (DomainEvent event : batch.events()) {
+                if (event.type() != DomainEventType.HABIT_COMPLETED || !eventDeduplicator.claim(CONSUMER, event)) {
+                    continue;
+                }
+                claimed.add(event);
+                deltasByUser.computeIfAbsent(event.userId(), id -> new ArrayList<>()).addAll(toDeltas(event.payload()));
+            }
+
+            deltasByUser.forEach(dashboardEventPublisher::publish);
+        } catch (RuntimeException e) {
+            claimed.forEach(event -> eventDeduplicator.release(CONSUMER, event));
+            throw e;
+        }
+
+        claimed.forEach(event -> eventDeduplicator.processed(CONSUMER, event));
+    }
+
+    private List<DashboardEvent> toDeltas(JsonNode payload) {
+        UUID habitId = UUID.fromString(payload.get("habitId").asText());
+        LocalDateTime completedAt = LocalDateTime.parse(payload.get("completedAt").asText());
+
+        return List.of(
+                DashboardEvent.builder()
+                        .type(DashboardEventType.HABIT_COMPLETED)
+                        .habitId(habitId)
+                        .occurredAt(completedAt)
+                        .build(),
+                DashboardEvent.builder()
+                        .type(DashboardEventType.STREAK_CHANGED)
+                        .habitId(habitId)
+                        .currentStreak(payload.get("currentStreak").asInt())
+                        .longestStreak(payload.get("longestStreak").asInt())
+                        .occurredAt(completedAt)
+                        .build(),
+                DashboardEvent.builder()
+                        .type(DashboardEventType.XP_GAINED)
+                        .xp(payload.get("xp").asInt())
+                        .occurredAt(completedAt)
+                        .build());
+    }
+}
@@ -0,0 +1,20 @@
+package com.devhabits.event;
+
+import com.devhabits.model.enums.DomainEventType;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Domain event delivered by the outbox relay. The id is the outbox id: unique and increasing,
+ * consumers use it to ignore redeliveries.
+ */
+public record DomainEvent(
+        long id,
+        UUID userId,
+        DomainEventType type,
+        JsonNode payload,
+        LocalDateTime occurredAt
+) {
+}
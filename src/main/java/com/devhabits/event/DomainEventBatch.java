@@ -0,0 +1,9 @@
+package com.devhabits.event;
+
+import java.util.List;
+
+/**
+ * Events published by one relay run, in outbox order, for consumers that work in batches
+ */
+public record DomainEventBatch(List<DomainEvent> events) {
+}
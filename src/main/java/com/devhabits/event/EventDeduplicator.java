@@ -0,0 +1,73 @@
+package com.devhabits.event;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Makes outbox consumers idempotent. A consumer claims (consumer, event id) before processing it,
+ * then marks it processed on success or releases the claim on failure so a redelivery runs it again.
+ * A claim left by a consumer that died expires after the claim TTL; processed ids are kept well
+ * after the relay could replay them.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EventDeduplicator {
+
+    private static final String KEY_PREFIX = "outbox:consumed:";
+    private static final String PROCESSING = "processing";
+    private static final String PROCESSED = "processed";
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Value("${app.outbox.dedup-ttl:1d}")
+    private Duration ttl;
+
+    @Value("${app.outbox.dedup-claim-ttl:5m}")
+    private Duration claimTtl;
+
+    /**
+     * True if the consumer should process this event: not processed yet nor being processed.
+     * Without Redis every delivery is processed (at least once).
+     */
+    public boolean claim(String consumer, DomainEvent event) {
+        try {
+            Boolean claimed = redisTemplate.opsForValue().setIfAbsent(key(consumer, event), PROCESSING, claimTtl);
+            return !Boolean.FALSE.equals(claimed);
+        } catch (RuntimeException e) {
+            log.warn("Event deduplication unavailable: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    /**
+     * The consumer processed the event: later deliveries are skipped
+     */
+    public void processed(String consumer, DomainEvent event) {
+        try {
+            redisTemplate.opsForValue().set(key(consumer, event), PROCESSED, ttl);
+        } catch (RuntimeException e) {
+            log.warn("Failed to record processed event {} of {}: {}", event.id(), consumer, e.getMessage());
+        }
+    }
+
+    /**
+     * The consumer failed on the event: the next delivery processes it again
+     */
+    public void release(String consumer, DomainEvent event) {
+        try {
+            redisTemplate.delete(key(consumer, event));
+        } catch (RuntimeException e) {
+            log.warn("Failed to release event {} of {}: {}", event.id(), consumer, e.getMessage());
+        }
+    }
+
+    private String key(String consumer, DomainEvent event) {
+        return KEY_PREFIX + consumer + ":" + event.id();
+    }
+}
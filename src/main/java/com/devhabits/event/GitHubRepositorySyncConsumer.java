@@ -0,0 +1,55 @@
+package com.devhabits.event;
+
+import com.devhabits.service.GitHubBackfillService;
+import com.devhabits.service.GitHubService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+/**
+ * Syncs the repositories of a newly connected GitHub account, off the request path,
+ * then schedules the backfill of its history over them
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GitHubRepositorySyncConsumer {
+
+    private static final String CONSUMER = "github-repo-sync";
+
+    private final GitHubService gitHubService;
+    private final GitHubBackfillService gitHubBackfillService;
+    private final EventDeduplicator eventDeduplicator;
+
+    @Async("outboxConsumerExecutor")
+    @EventListener(condition = "#event.type() == T(com.devhabits.model.enums.DomainEventType).GITHUB_CONNECTED")
+    public void onGitHubConnected(DomainEvent event) {
+        if (!eventDeduplicator.claim(CONSUMER, event)) {
+            return;
+        }
+
+        boolean failed = false;
+        try {
+            gitHubService.syncUserRepositories(event.userId());
+        } catch (RuntimeException e) {
+            failed = true;
+            log.error("Repository sync failed after GitHub connection of user {}: {}", event.userId(), e.getMessage());
+        }
+
+        try {
+            gitHubBackfillService.schedule(event.userId());
+        } catch (RuntimeException e) {
+            failed = true;
+            log.error("GitHub backfill scheduling failed for user {}: {}", event.userId(), e.getMessage());
+        }
+
+        // Both steps can run again: a redelivery retries a failed one
+        if (failed) {
+            eventDeduplicator.release(CONSUMER, event);
+        } else {
+            eventDeduplicator.processed(CONSUMER, event);
+        }
+    }
+}
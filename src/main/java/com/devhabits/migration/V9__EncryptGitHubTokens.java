@@ -0,0 +1,56 @@
+package com.devhabits.migration;
+
+import com.devhabits.security.TokenVault;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Encrypts the GitHub access tokens stored in plaintext with the {@link TokenVault}.
+ * Java migration bean, picked up by Flyway alongside the SQL migrations of db/migration.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class V9__EncryptGitHubTokens extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final TokenVault tokenVault;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        try (Statement ddl = connection.createStatement()) {
+            // Envelope-encrypted tokens are longer than the 500 characters of the plaintext column
+            ddl.execute("ALTER TABLE github_connections ALTER COLUMN access_token TYPE TEXT");
+            ddl.execute("COMMENT ON COLUMN github_connections.access_token IS "
+                    + "'GitHub OAuth access token, AES-GCM envelope encrypted (TokenVault)'");
+        }
+
+        int encrypted = 0;
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT id, access_token FROM github_connections WHERE access_token NOT LIKE 'v1:%'");
+             PreparedStatement update = connection.prepareStatement(
+                     "UPDATE github_connections SET access_token = ? WHERE id = ?");
+             ResultSet rows = select.executeQuery()) {
+            while (rows.next()) {
+                update.setString(1, tokenVault.encrypt(rows.getString("access_token")));
+                update.setObject(2, rows.getObject("id"));
+                update.addBatch();
+                if (++encrypted % BATCH_SIZE == 0) {
+                    update.executeBatch();
+                }
+            }
+            update.executeBatch();
+        }
+        log.info("Encrypted {} GitHub access tokens", encrypted);
+    }
+}
@@ -1,17 +1,23 @@
 package com.devhabits.model.dto.github;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
 import java.util.Map;
 
+/**
+ * Fields of a GitHub webhook used by webhook processing, read by {@link GitHubWebhookPayloadDeserializer}
+ */
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@JsonDeserialize(using = GitHubWebhookPayloadDeserializer.class)
 public class GitHubWebhookPayload {
 
     private String action;
@@ -24,6 +30,9 @@ public class GitHubWebhookPayload {
     @JsonProperty("head_commit")
     private Commit headCommit;
 
+    // Pushed commits, id and timestamp only
+    private List<Commit> commits;
+
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
@@ -0,0 +1,248 @@
+package com.devhabits.model.dto.github;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming reader of GitHub webhook payloads. Only the fields webhook processing uses are read
+ * (action, repository, sender, head commit, pull request, issue, and the id and timestamp of each
+ * pushed commit); everything else, such as commit messages and file lists, is skipped token by
+ * token without building a tree or binding objects.
+ */
+public class GitHubWebhookPayloadDeserializer extends StdDeserializer<GitHubWebhookPayload> {
+
+    public GitHubWebhookPayloadDeserializer() {
+        super(GitHubWebhookPayload.class);
+    }
+
+    @Override
+    public GitHubWebhookPayload deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (!p.isExpectedStartObjectToken()) {
+            return (GitHubWebhookPayload) ctxt.handleUnexpectedToken(GitHubWebhookPayload.class, p);
+        }
+        GitHubWebhookPayload payload = new GitHubWebhookPayload();
+        readFields(p, field -> {
+            switch (field) {
+                case "action" -> payload.setAction(text(p));
+                case "repository" -> payload.setRepository(repository(p));
+                case "sender" -> payload.setSender(sender(p));
+                case "commit" -> payload.setCommit(commit(p));
+                case "head_commit" -> payload.setHeadCommit(commit(p));
+                case "commits" -> payload.setCommits(commits(p));
+                case "pull_request" -> payload.setPullRequest(pullRequest(p));
+                case "issue" -> payload.setIssue(issue(p));
+                default -> p.skipChildren();
+            }
+        });
+        return payload;
+    }
+
+    private static GitHubWebhookPayload.Repository repository(JsonParser p) throws IOException {
+        if (!startObject(p)) {
+            return null;
+        }
+        GitHubWebhookPayload.Repository repository = new GitHubWebhookPayload.Repository();
+        readFields(p, field -> {
+            switch (field) {
+                case "id" -> repository.setId(longValue(p));
+                case "name" -> repository.setName(text(p));
+                case "full_name" -> repository.setFullName(text(p));
+                case "private" -> repository.setIsPrivate(booleanValue(p));
+                case "description" -> repository.setDescription(text(p));
+                case "language" -> repository.setLanguage(text(p));
+                case "stargazers_count" -> repository.setStargazersCount(intValue(p));
+                default -> p.skipChildren();
+            }
+        });
+        return repository;
+    }
+
+    private static GitHubWebhookPayload.Sender sender(JsonParser p) throws IOException {
+        if (!startObject(p)) {
+            return null;
+        }
+        GitHubWebhookPayload.Sender sender = new GitHubWebhookPayload.Sender();
+        readFields(p, field -> {
+            switch (field) {
+                case "id" -> sender.setId(longValue(p));
+                case "login" -> sender.setLogin(text(p));
+                case "avatar_url" -> sender.setAvatarUrl(text(p));
+                default -> p.skipChildren();
+            }
+        });
+        return sender;
+    }
+
+    private static GitHubWebhookPayload.Commit commit(JsonParser p) throws IOException {
+        if (!startObject(p)) {
+            return null;
+        }
+        GitHubWebhookPayload.Commit commit = new GitHubWebhookPayload.Commit();
+        readFields(p, field -> {
+            switch (field) {
+                case "id" -> commit.setId(text(p));
+                case "sha" -> commit.setSha(text(p));
+                case "message" -> commit.setMessage(text(p));
+                case "timestamp" -> commit.setTimestamp(text(p));
+                case "author" -> commit.setAuthor(author(p));
+                default -> p.skipChildren();
+            }
+        });
+        return commit;
+    }
+
+    private static List<GitHubWebhookPayload.Commit> commits(JsonParser p) throws IOException {
+        if (p.currentToken() != JsonToken.START_ARRAY) {
+            p.skipChildren();
+            return null;
+        }
+        List<GitHubWebhookPayload.Commit> commits = new ArrayList<>();
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            if (!startObject(p)) {
+                continue;
+            }
+            GitHubWebhookPayload.Commit commit = new GitHubWebhookPayload.Commit();
+            readFields(p, field -> {
+                switch (field) {
+                    case "id" -> commit.setId(text(p));
+                    case "timestamp" -> commit.setTimestamp(text(p));
+                    default -> p.skipChildren();
+                }
+            });
+            commits.add(commit);
+        }
+        return commits;
+    }
+
+    private static GitHubWebhookPayload.Author author(JsonParser p) throws IOException {
+        if (!startObject(p)) {
+            return null;
+        }
+        GitHubWebhookPayload.Author author = new GitHubWebhookPayload.Author();
+        readFields(p, field -> {
+            switch (field) {
+                case "name" -> author.setName(text(p));
+                case "email" -> author.setEmail(text(p));
+                case "username" -> author.setUsername(text(p));
+                default -> p.skipChildren();
+            }
+        });
+        return author;
+    }
+
+    private static GitHubWebhookPayload.PullRequest pullRequest(JsonParser p) throws IOException {
+        if (!startObject(p)) {
+            return null;
+        }
+        GitHubWebhookPayload.PullRequest pullRequest = new GitHubWebhookPayload.PullRequest();
+        readFields(p, field -> {
+            switch (field) {
+                case "number" -> pullRequest.setNumber(intValue(p));
+                case "title" -> pullRequest.setTitle(text(p));
+                case "state" -> pullRequest.setState(text(p));
+                case "html_url" -> pullRequest.setHtmlUrl(text(p));
+                case "user" -> pullRequest.setUser(user(p));
+                default -> p.skipChildren();
+            }
+        });
+        return pullRequest;
+    }
+
+    private static GitHubWebhookPayload.Issue issue(JsonParser p) throws IOException {
+        if (!startObject(p)) {
+            return null;
+        }
+        GitHubWebhookPayload.Issue issue = new GitHubWebhookPayload.Issue();
+        readFields(p, field -> {
+            switch (field) {
+                case "number" -> issue.setNumber(intValue(p));
+                case "title" -> issue.setTitle(text(p));
+                case "state" -> issue.setState(text(p));
+                case "html_url" -> issue.setHtmlUrl(text(p));
+                case "user" -> issue.setUser(user(p));
+                default -> p.skipChildren();
+            }
+        });
+        return issue;
+    }
+
+    private static GitHubWebhookPayload.User user(JsonParser p) throws IOException {
+        if (!startObject(p)) {
+            return null;
+        }
+        GitHubWebhookPayload.User user = new GitHubWebhookPayload.User();
+        readFields(p, field -> {
+            switch (field) {
+                case "id" -> user.setId(longValue(p));
+                case "login" -> user.setLogin(text(p));
+                default -> p.skipChildren();
+            }
+        });
+        return user;
+    }
+
+    /**
+     * Calls the reader with the parser on the value of each field, up to the end of the current object
+     */
+    private static void readFields(JsonParser p, FieldReader reader) throws IOException {
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            reader.read(field);
+        }
+    }
+
+    /**
+     * Whether the current value is an object, skipped otherwise (null or unexpected type)
+     */
+    private static boolean startObject(JsonParser p) throws IOException {
+        if (p.isExpectedStartObjectToken()) {
+            return true;
+        }
+        p.skipChildren();
+        return false;
+    }
+
+    private static String text(JsonParser p) throws IOException {
+        if (p.currentToken().isScalarValue()) {
+            return p.getValueAsString();
+        }
+        p.skipChildren();
+        return null;
+    }
+
+    private static Long longValue(JsonParser p) throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+            return p.getLongValue();
+        }
+        p.skipChildren();
+        return null;
+    }
+
+    private static Integer intValue(JsonParser p) throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+            return p.getIntValue();
+        }
+        p.skipChildren();
+        return null;
+    }
+
+    private static Boolean booleanValue(JsonParser p) throws IOException {
+        if (p.currentToken().isBoolean()) {
+            return p.getBooleanValue();
+        }
+        p.skipChildren();
+        return null;
+    }
+
+    @FunctionalInterface
+    private interface FieldReader {
+        void read(String field) throws IOException;
+    }
+}
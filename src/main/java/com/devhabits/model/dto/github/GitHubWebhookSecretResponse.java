@@ -0,0 +1,22 @@
+package com.devhabits.model.dto.github;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * New webhook secret of a repository, returned once to be entered in the GitHub webhook settings
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GitHubWebhookSecretResponse {
+
+    private UUID repositoryId;
+    private String repositoryFullName;
+    private String secret;
+}
@@ -8,7 +8,9 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.DayOfWeek;
 import java.time.LocalTime;
+import java.util.Set;
 
 @Data
 @NoArgsConstructor
@@ -33,6 +35,9 @@ public class CreateHabitRequest {
     @Max(value = 100, message = "Target count cannot exceed 100")
     private Integer targetCount = 1;
 
+    // Scheduled days for CUSTOM frequency
+    private Set<DayOfWeek> scheduleDays;
+
     @Size(max = 50, message = "Icon cannot exceed 50 characters")
     private String icon;
 
@@ -9,7 +9,9 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.DayOfWeek;
 import java.time.LocalTime;
+import java.util.Set;
 
 @Data
 @NoArgsConstructor
@@ -31,6 +33,9 @@ public class UpdateHabitRequest {
     @Max(value = 100, message = "Target count cannot exceed 100")
     private Integer targetCount;
 
+    // Scheduled days for CUSTOM frequency
+    private Set<DayOfWeek> scheduleDays;
+
     @Size(max = 50, message = "Icon cannot exceed 50 characters")
     private String icon;
 
@@ -0,0 +1,23 @@
+package com.devhabits.model.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CalendarResponse {
+    private int year;
+    private UUID habitId;
+    private int totalCompletions;
+    private int activeDays;
+    // Only days with at least one completion, in date order
+    private Map<LocalDate, Integer> days;
+}
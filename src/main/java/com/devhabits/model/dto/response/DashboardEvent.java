@@ -0,0 +1,28 @@
+package com.devhabits.model.dto.response;
+
+import com.devhabits.model.enums.DashboardEventType;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Delta pushed on the dashboard stream, only the fields of its type are set
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DashboardEvent {
+    private DashboardEventType type;
+    private UUID habitId;
+    private Integer currentStreak;
+    private Integer longestStreak;
+    private Integer xp;
+    private LocalDateTime occurredAt;
+}
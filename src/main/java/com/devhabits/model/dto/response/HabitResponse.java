@@ -7,8 +7,10 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.DayOfWeek;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.Set;
 import java.util.UUID;
 
 @Data
@@ -22,6 +24,7 @@ public class HabitResponse {
     private HabitCategory category;
     private HabitFrequency frequency;
     private Integer targetCount;
+    private Set<DayOfWeek> scheduleDays;
     private String icon;
     private String color;
     private Boolean reminderEnabled;
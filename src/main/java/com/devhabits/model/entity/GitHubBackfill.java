@@ -0,0 +1,122 @@
+package com.devhabits.model.entity;
+
+import com.devhabits.model.enums.GitHubBackfillStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "github_backfills")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GitHubBackfill {
+
+    @Id
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private GitHubBackfillStatus status = GitHubBackfillStatus.PENDING;
+
+    @Column(name = "since_date", nullable = false)
+    private LocalDate sinceDate;
+
+    // Checkpoint: source being imported and its next page (null for the first one)
+    @Column(length = 600)
+    private String source;
+
+    @Column(name = "next_url", columnDefinition = "TEXT")
+    private String nextUrl;
+
+    @Column(name = "imported_logs", nullable = false)
+    @Builder.Default
+    private Integer importedLogs = 0;
+
+    @Column(name = "imported_events", nullable = false)
+    @Builder.Default
+    private Integer importedEvents = 0;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(name = "resume_at")
+    private LocalDateTime resumeAt;
+
+    // Taken and released in SQL (GitHubBackfillRepository.claim / release)
+    @Column(name = "lease_until", insertable = false, updatable = false)
+    private LocalDateTime leaseUntil;
+
+    @Column(name = "started_at", nullable = false)
+    @Builder.Default
+    private LocalDateTime startedAt = LocalDateTime.now();
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    public boolean isInProgress() {
+        return status == GitHubBackfillStatus.PENDING || status == GitHubBackfillStatus.RUNNING;
+    }
+
+    // Helper method to start over from the first source
+    public void restart(LocalDate sinceDate) {
+        this.status = GitHubBackfillStatus.PENDING;
+        this.sinceDate = sinceDate;
+        this.source = null;
+        this.nextUrl = null;
+        this.importedLogs = 0;
+        this.importedEvents = 0;
+        this.attempts = 0;
+        this.lastError = null;
+        this.resumeAt = null;
+        this.startedAt = LocalDateTime.now();
+        this.completedAt = null;
+    }
+
+    // Helper method to move the checkpoint after an imported page
+    public void advance(String source, String nextUrl, long logs, long events) {
+        this.status = GitHubBackfillStatus.RUNNING;
+        this.source = source;
+        this.nextUrl = nextUrl;
+        this.importedLogs += (int) logs;
+        this.importedEvents += (int) events;
+        this.attempts = 0;
+        this.lastError = null;
+    }
+
+    // Helper method to mark as completed
+    public void complete() {
+        this.status = GitHubBackfillStatus.COMPLETED;
+        this.completedAt = LocalDateTime.now();
+        this.resumeAt = null;
+    }
+
+    // Helper method to give up
+    public void fail(String error) {
+        this.status = GitHubBackfillStatus.FAILED;
+        this.lastError = error;
+        this.resumeAt = null;
+    }
+}
@@ -5,12 +5,16 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "github_connections")
 @Data
 @NoArgsConstructor
@@ -37,7 +41,7 @@ public class GitHubConnection {
     @Column(name = "github_avatar_url", length = 500)
     private String githubAvatarUrl;
 
-    @Column(name = "access_token", nullable = false, length = 500)
+    @Column(name = "access_token", nullable = false, columnDefinition = "TEXT")
     private String accessToken;
 
     @Column(name = "token_type", length = 50)
@@ -5,6 +5,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -12,6 +14,8 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "github_repositories")
 @Data
 @NoArgsConstructor
@@ -53,6 +57,10 @@ public class GitHubRepository {
     @Builder.Default
     private Integer stargazersCount = 0;
 
+    // Encrypted by TokenVault, never exposed in responses
+    @Column(name = "webhook_secret", columnDefinition = "TEXT")
+    private String webhookSecret;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
@@ -9,14 +9,17 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.UUID;
 
 @Entity
 @Table(name = "habits")
+@DynamicUpdate
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -49,6 +52,9 @@ public class Habit {
     @Builder.Default
     private Integer targetCount = 1;
 
+    @Column(name = "schedule_days")
+    private Integer scheduleDays;
+
     @Column(length = 50)
     private String icon;
 
@@ -89,6 +95,9 @@ public class Habit {
     @Builder.Default
     private Integer totalCompletions = 0;
 
+    @Column(name = "last_completed_at")
+    private LocalDateTime lastCompletedAt;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
@@ -97,6 +106,10 @@ public class Habit {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     // Helper method to archive habit
     public void archive() {
         this.isActive = false;
@@ -109,9 +122,9 @@ public class Habit {
         this.archivedAt = null;
     }
 
-    // Helper method to increment completions
-    public void incrementCompletions() {
-        this.totalCompletions++;
+    // Helper method to check if completed on a given day
+    public boolean isCompletedOn(LocalDate day) {
+        return this.lastCompletedAt != null && !this.lastCompletedAt.toLocalDate().isBefore(day);
     }
 
     // Helper method to update streak
@@ -0,0 +1,39 @@
+package com.devhabits.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "habit_completion_bitmaps")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HabitCompletionBitmap {
+
+    @Id
+    @Column(name = "habit_id")
+    private UUID habitId;
+
+    @Column(nullable = false)
+    private byte[] days;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer cardinality = 0;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -6,6 +6,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
@@ -13,6 +14,7 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "users")
+@DynamicUpdate
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -80,19 +82,12 @@ public class User {
     @Column(name = "last_login_at")
     private LocalDateTime lastLoginAt;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     // Helper method to update last login
     public void updateLastLogin() {
         this.lastLoginAt = LocalDateTime.now();
     }
-
-    // Helper method to add XP and recalculate level
-    public void addXp(int xp) {
-        this.totalXp += xp;
-        this.level = calculateLevel(this.totalXp);
-    }
-
-    // Simple level calculation: level = sqrt(totalXp / 100)
-    private int calculateLevel(int xp) {
-        return (int) Math.floor(Math.sqrt(xp / 100.0)) + 1;
-    }
 }
\ No newline at end of file
@@ -0,0 +1,7 @@
+package com.devhabits.model.enums;
+
+public enum DashboardEventType {
+    HABIT_COMPLETED,    // A habit was checked-in (manually or from GitHub)
+    STREAK_CHANGED,     // A habit streak moved
+    XP_GAINED           // The user earned XP
+}
@@ -0,0 +1,6 @@
+package com.devhabits.model.enums;
+
+public enum DomainEventType {
+    HABIT_COMPLETED,    // Check-in, manual or from a GitHub webhook
+    GITHUB_CONNECTED    // GitHub account connected or reconnected
+}
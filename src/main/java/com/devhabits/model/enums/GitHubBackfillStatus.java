@@ -0,0 +1,8 @@
+package com.devhabits.model.enums;
+
+public enum GitHubBackfillStatus {
+    PENDING,    // Scheduled, no page imported yet
+    RUNNING,    // Pages imported up to the checkpoint
+    COMPLETED,  // All sources imported and streaks recomputed
+    FAILED      // Token revoked or too many failed pages
+}
@@ -0,0 +1,40 @@
+package com.devhabits.repository;
+
+import com.devhabits.model.entity.GitHubBackfill;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface GitHubBackfillRepository extends JpaRepository<GitHubBackfill, UUID> {
+
+    // Utilisateurs dont le backfill est à (re)prendre : pas en pause et pas tenu par un autre nœud
+    @Query(value = "SELECT user_id FROM github_backfills " +
+            "WHERE status IN ('PENDING', 'RUNNING') " +
+            "AND (resume_at IS NULL OR resume_at <= :now) " +
+            "AND (lease_until IS NULL OR lease_until < :now) " +
+            "ORDER BY resume_at NULLS FIRST LIMIT :limit", nativeQuery = true)
+    List<UUID> findDueUserIds(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    // Prendre le bail d'un backfill (un seul nœud l'exécute), retourne 0 s'il est déjà tenu
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE github_backfills SET lease_until = :leaseUntil " +
+            "WHERE user_id = :userId AND status IN ('PENDING', 'RUNNING') " +
+            "AND (lease_until IS NULL OR lease_until < :now)", nativeQuery = true)
+    int claim(
+        @Param("userId") UUID userId,
+        @Param("now") LocalDateTime now,
+        @Param("leaseUntil") LocalDateTime leaseUntil
+    );
+
+    // Rendre le bail à la fin d'une exécution
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE github_backfills SET lease_until = NULL WHERE user_id = :userId", nativeQuery = true)
+    int release(@Param("userId") UUID userId);
+}
@@ -1,7 +1,11 @@
 package com.devhabits.repository;
 
+import com.devhabits.config.SecondLevelCacheConfig;
 import com.devhabits.model.entity.GitHubConnection;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -12,8 +16,16 @@ public interface GitHubConnectionRepository extends JpaRepository<GitHubConnecti
 
     Optional<GitHubConnection> findByUserId(UUID userId);
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.GITHUB_CONNECTION_QUERIES)
+    })
     Optional<GitHubConnection> findByUserIdAndIsActiveTrue(UUID userId);
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.GITHUB_CONNECTION_QUERIES)
+    })
     Optional<GitHubConnection> findByGithubUserId(Long githubUserId);
 
     boolean existsByUserId(UUID userId);
@@ -30,4 +30,69 @@ public interface GitHubEventRepository extends JpaRepository<GitHubEvent, UUID>
     List<GitHubEvent> findByUserIdAndEventType(@Param("userId") UUID userId, @Param("eventType") GitHubEventType eventType);
 
     long countByUserIdAndCreatedAtAfter(UUID userId, LocalDateTime after);
+
+    // Ajouter les commits d'un push (SHA et jours séparés par des virgules) à l'ensemble des commits
+    // de l'utilisateur et aux statistiques par jour et dépôt, en une requête ; retourne le nombre de nouveaux
+    @Query(value = "WITH pushed AS (" +
+            "  SELECT DISTINCT decode(c.sha, 'hex') AS sha, CAST(c.day AS date) AS day" +
+            "  FROM unnest(string_to_array(:shas, ','), string_to_array(:days, ',')) AS c(sha, day)" +
+            "), recorded AS (" +
+            "  INSERT INTO github_commits (user_id, sha, committed_on)" +
+            "  SELECT CAST(:userId AS uuid), sha, day FROM pushed" +
+            "  ON CONFLICT (user_id, sha) DO NOTHING" +
+            "  RETURNING committed_on" +
+            "), counted AS (" +
+            "  INSERT INTO github_commit_stats (user_id, day, repository_full_name, commit_count)" +
+            "  SELECT CAST(:userId AS uuid), committed_on, CAST(:repository AS varchar), count(*) FROM recorded GROUP BY committed_on" +
+            "  ON CONFLICT (user_id, day, repository_full_name)" +
+            "  DO UPDATE SET commit_count = github_commit_stats.commit_count + EXCLUDED.commit_count" +
+            ") " +
+            "SELECT count(*) FROM recorded", nativeQuery = true)
+    long recordCommits(
+        @Param("userId") UUID userId,
+        @Param("repository") String repositoryFullName,
+        @Param("shas") String shas,
+        @Param("days") String days
+    );
+
+    // Importer un lot d'activité GitHub déjà copié dans la table temporaire github_backfill_items :
+    // un log par habit auto-suivi et par jour (les jours déjà complétés sont ignorés), puis les events
+    // liés à leur log ; les events déjà enregistrés (webhook ou import précédent) sont ignorés
+    @Query(value = "WITH picked AS (" +
+            "  SELECT DISTINCT ON (h.id, CAST(i.occurred_at AS date))" +
+            "    h.id AS habit_id, i.event_type, i.event_id, i.occurred_at, i.note, i.commit_sha, i.repository_name" +
+            "  FROM github_backfill_items i" +
+            "  JOIN habits h ON h.user_id = CAST(:userId AS uuid) AND h.is_active = true" +
+            "    AND h.github_auto_track = true AND h.github_event_type = i.event_type" +
+            "  ORDER BY h.id, CAST(i.occurred_at AS date), i.occurred_at" +
+            "), logged AS (" +
+            "  INSERT INTO habit_logs (habit_id, user_id, completed_at, note, github_commit_sha, github_repo_name, xp_earned)" +
+            "  SELECT habit_id, CAST(:userId AS uuid), occurred_at, note, commit_sha, repository_name, :xp FROM picked" +
+            "  ON CONFLICT DO NOTHING" +
+            "  RETURNING id, habit_id, completed_at" +
+            "), linked AS (" +
+            "  SELECT DISTINCT ON (p.event_type, p.event_id) p.event_type, p.event_id, l.habit_id, l.id AS habit_log_id" +
+            "  FROM picked p JOIN logged l ON l.habit_id = p.habit_id AND l.completed_at = p.occurred_at" +
+            "  ORDER BY p.event_type, p.event_id, l.habit_id" +
+            "), recorded AS (" +
+            "  INSERT INTO github_events (user_id, habit_id, habit_log_id, event_type, event_id, repository_name," +
+            "    repository_full_name, commit_sha, commit_message, pull_request_number, pull_request_title," +
+            "    issue_number, issue_title, created_at)" +
+            "  SELECT DISTINCT ON (i.event_id, i.event_type) CAST(:userId AS uuid), k.habit_id, k.habit_log_id," +
+            "    i.event_type, i.event_id, i.repository_name, i.repository_full_name, i.commit_sha, i.commit_message," +
+            "    i.pull_request_number, i.pull_request_title, i.issue_number, i.issue_title, i.occurred_at" +
+            "  FROM github_backfill_items i" +
+            "  LEFT JOIN linked k ON k.event_type = i.event_type AND k.event_id = i.event_id" +
+            "  ORDER BY i.event_id, i.event_type" +
+            "  ON CONFLICT (event_id, event_type) DO NOTHING" +
+            "  RETURNING 1" +
+            ") " +
+            "SELECT (SELECT COUNT(*) FROM logged) AS logs, (SELECT COUNT(*) FROM recorded) AS events", nativeQuery = true)
+    BackfillImport importBackfillItems(@Param("userId") UUID userId, @Param("xp") int xpPerLog);
+
+    interface BackfillImport {
+        long getLogs();
+
+        long getEvents();
+    }
 }
@@ -1,7 +1,13 @@
 package com.devhabits.repository;
 
+import com.devhabits.config.SecondLevelCacheConfig;
 import com.devhabits.model.entity.GitHubRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -11,6 +17,10 @@ import java.util.UUID;
 @Repository
 public interface GitHubRepositoryRepo extends JpaRepository<GitHubRepository, UUID> {
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.GITHUB_REPOSITORY_QUERIES)
+    })
     List<GitHubRepository> findByUserId(UUID userId);
 
     List<GitHubRepository> findByUserIdAndIsTrackedTrue(UUID userId);
@@ -20,4 +30,8 @@ public interface GitHubRepositoryRepo extends JpaRepository<GitHubRepository, UU
     Optional<GitHubRepository> findByUserIdAndRepositoryFullName(UUID userId, String repositoryFullName);
 
     boolean existsByUserIdAndGithubRepoId(UUID userId, Long githubRepoId);
+
+    // Dépôts de chaque utilisateur ayant configuré un secret de webhook (chiffré) pour ce dépôt GitHub
+    @Query("SELECT r FROM GitHubRepository r WHERE r.githubRepoId = :githubRepoId AND r.webhookSecret IS NOT NULL")
+    List<GitHubRepository> findWithWebhookSecretByGithubRepoId(@Param("githubRepoId") Long githubRepoId);
 }
@@ -0,0 +1,24 @@
+package com.devhabits.repository;
+
+import com.devhabits.model.entity.HabitCompletionBitmap;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface HabitCompletionBitmapRepository extends JpaRepository<HabitCompletionBitmap, UUID> {
+
+    // Créer le bitmap d'un habit s'il n'existe pas encore (deux lectures concurrentes peuvent le construire)
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO habit_completion_bitmaps (habit_id, days, cardinality) " +
+            "VALUES (:habitId, :days, :cardinality) ON CONFLICT (habit_id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(
+        @Param("habitId") UUID habitId,
+        @Param("days") byte[] days,
+        @Param("cardinality") int cardinality
+    );
+}
@@ -7,6 +7,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -17,6 +18,9 @@ public interface HabitLogRepository extends JpaRepository<HabitLog, UUID> {
     // Trouver tous les logs d'un habit
     List<HabitLog> findByHabitIdOrderByCompletedAtDesc(UUID habitId);
 
+    // Trouver les logs de plusieurs habits en une requête
+    List<HabitLog> findByHabitIdIn(Collection<UUID> habitIds);
+
     // Trouver les logs d'un habit entre deux dates
     List<HabitLog> findByHabitIdAndCompletedAtBetweenOrderByCompletedAtDesc(
         UUID habitId,
@@ -2,8 +2,13 @@ package com.devhabits.repository;
 
 import com.devhabits.model.entity.Habit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -17,6 +22,13 @@ public interface HabitRepository extends JpaRepository<Habit, UUID> {
     // Trouver tous les habits (actifs et archivés)
     List<Habit> findByUserId(UUID userId);
 
+    // Identifiants de tous les habits d'un user (actifs et archivés)
+    @Query("SELECT h.id FROM Habit h WHERE h.userId = :userId")
+    List<UUID> findIdsByUserId(@Param("userId") UUID userId);
+
+    // Vérifier qu'un habit appartient à un user
+    boolean existsByIdAndUserId(UUID id, UUID userId);
+
     // Trouver un habit spécifique d'un user
     Optional<Habit> findByIdAndUserId(UUID id, UUID userId);
 
@@ -28,4 +40,85 @@ public interface HabitRepository extends JpaRepository<Habit, UUID> {
         UUID userId, 
         String category
     );
+
+    // Enregistrer une completion : incrément atomique et mise à jour ciblée des streaks
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE habits SET total_completions = total_completions + 1, " +
+            "current_streak = :currentStreak, " +
+            "longest_streak = GREATEST(longest_streak, :longestStreak), " +
+            "last_completed_at = GREATEST(last_completed_at, :completedAt), version = version + 1 " +
+            "WHERE id = :habitId", nativeQuery = true)
+    int recordCompletion(
+        @Param("habitId") UUID habitId,
+        @Param("currentStreak") int currentStreak,
+        @Param("longestStreak") int longestStreak,
+        @Param("completedAt") LocalDateTime completedAt
+    );
+
+    // Appliquer les streaks recalculés après un import de logs en masse (compteurs relus depuis les logs)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE habits h SET current_streak = :currentStreak, " +
+            "longest_streak = GREATEST(h.longest_streak, :longestStreak), " +
+            "total_completions = (SELECT COUNT(*) FROM habit_logs l WHERE l.habit_id = h.id), " +
+            "last_completed_at = (SELECT MAX(l.completed_at) FROM habit_logs l WHERE l.habit_id = h.id), " +
+            "version = h.version + 1 " +
+            "WHERE h.id = :habitId", nativeQuery = true)
+    int applyRecomputedStreaks(
+        @Param("habitId") UUID habitId,
+        @Param("currentStreak") int currentStreak,
+        @Param("longestStreak") int longestStreak
+    );
+
+    // Lister les plannings distincts des habits CUSTOM ayant un streak en cours (sans planning = tous les jours)
+    @Query("SELECT DISTINCT COALESCE(h.scheduleDays, 127) FROM Habit h " +
+            "WHERE h.frequency = com.devhabits.model.enums.HabitFrequency.CUSTOM " +
+            "AND h.currentStreak > 0")
+    List<Integer> findScheduleDaysWithActiveStreaks();
+
+    // Lister les objectifs hebdomadaires distincts des habits WEEKLY ayant un streak en cours
+    @Query("SELECT DISTINCT COALESCE(h.targetCount, 1) FROM Habit h " +
+            "WHERE h.frequency = com.devhabits.model.enums.HabitFrequency.WEEKLY " +
+            "AND h.currentStreak > 0")
+    List<Integer> findWeeklyTargetsWithActiveStreaks();
+
+    // Trouver (et verrouiller) un lot d'habits dont le streak a expiré, pour un shard d'utilisateurs.
+    // WEEKLY : complété après la date limite mais sans atteindre l'objectif ni la semaine dernière ni celle-ci
+    @Query(value = "SELECT h.id AS id, h.user_id AS userId FROM habits h " +
+            "WHERE h.current_streak > 0 AND h.frequency = :frequency " +
+            "AND (h.frequency <> 'WEEKLY' OR COALESCE(h.target_count, 1) = :targetCount) " +
+            "AND (h.frequency <> 'CUSTOM' OR COALESCE(h.schedule_days, 127) = :scheduleDays) " +
+            "AND (h.last_completed_at IS NULL OR h.last_completed_at < :cutoff " +
+            "OR h.frequency = 'WEEKLY' AND NOT EXISTS (SELECT 1 FROM habit_logs l " +
+            "WHERE l.habit_id = h.id AND l.completed_at >= :lastWeekStart " +
+            "GROUP BY l.completed_at >= :weekStart " +
+            "HAVING COUNT(*) >= LEAST(GREATEST(:targetCount, 1), 7))) " +
+            "AND (hashtext(CAST(h.user_id AS text)) & 2147483647) % :shardCount = :shardIndex " +
+            "ORDER BY h.id LIMIT :batchSize FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<HabitOwner> lockExpiredStreaks(
+        @Param("frequency") String frequency,
+        @Param("targetCount") int targetCount,
+        @Param("scheduleDays") int scheduleDays,
+        @Param("cutoff") LocalDateTime cutoff,
+        @Param("lastWeekStart") LocalDateTime lastWeekStart,
+        @Param("weekStart") LocalDateTime weekStart,
+        @Param("shardCount") int shardCount,
+        @Param("shardIndex") int shardIndex,
+        @Param("batchSize") int batchSize
+    );
+
+    // Remettre à zéro les streaks expirés d'un lot d'habits
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE habits SET current_streak = 0, version = version + 1 " +
+            "WHERE id IN (:habitIds) AND current_streak > 0 " +
+            "AND (last_completed_at IS NULL OR last_completed_at < :cutoff)", nativeQuery = true)
+    int resetExpiredStreaks(
+        @Param("habitIds") Collection<UUID> habitIds,
+        @Param("cutoff") LocalDateTime cutoff
+    );
+
+    interface HabitOwner {
+        UUID getId();
+
+        UUID getUserId();
+    }
 }
\ No newline at end of file
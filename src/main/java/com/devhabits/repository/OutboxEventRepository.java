@@ -0,0 +1,48 @@
+package com.devhabits.repository;
+
+import com.devhabits.model.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Un seul relais à la fois (verrou libéré à la fin de la transaction)
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:lockKey)", nativeQuery = true)
+    boolean tryRelayLock(@Param("lockKey") long lockKey);
+
+    // Un lot réservé par un relais n'est pas encore publié (un seul lot en vol pour garder l'ordre)
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM outbox_events WHERE published_at IS NULL"
+            + " AND claimed_until >= :now)", nativeQuery = true)
+    boolean hasClaimedBatch(@Param("now") LocalDateTime now);
+
+    // Prochain lot d'events à publier, dans l'ordre d'écriture, parmi ceux écrits depuis au moins le délai de commit
+    @Query(value = "SELECT * FROM outbox_events WHERE published_at IS NULL AND created_at <= :settledBefore"
+            + " AND (claimed_until IS NULL OR claimed_until < :now)"
+            + " ORDER BY id LIMIT :batchSize FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> lockPendingBatch(@Param("now") LocalDateTime now,
+                                       @Param("settledBefore") LocalDateTime settledBefore,
+                                       @Param("batchSize") int batchSize);
+
+    // Réserver (ou libérer avec null) un lot pour un relais
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.claimedUntil = :claimedUntil WHERE e.id IN :ids")
+    int claim(@Param("ids") Collection<Long> ids, @Param("claimedUntil") LocalDateTime claimedUntil);
+
+    // Marquer un lot comme publié
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.publishedAt = :publishedAt WHERE e.id IN :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("publishedAt") LocalDateTime publishedAt);
+
+    // Purger les events publiés depuis longtemps
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.publishedAt < :before")
+    int deletePublishedBefore(@Param("before") LocalDateTime before);
+}
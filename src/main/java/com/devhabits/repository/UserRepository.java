@@ -2,8 +2,12 @@ package com.devhabits.repository;
 
 import com.devhabits.model.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -19,4 +23,43 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     Boolean existsByEmail(String email);
 
     Boolean existsByUsername(String username);
+
+    // Ajouter de l'XP et recalculer le niveau côté SQL (level = floor(sqrt(xp / 100)) + 1)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE users SET total_xp = total_xp + :xp, " +
+            "level = FLOOR(SQRT((total_xp + :xp) / 100.0)) + 1, version = version + 1 " +
+            "WHERE id = :userId", nativeQuery = true)
+    int addXp(@Param("userId") UUID userId, @Param("xp") int xp);
+
+    // Augmenter les streaks globaux (max-heap : une valeur plus haute remplace le max)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE users SET current_streak = GREATEST(current_streak, :currentStreak), " +
+            "longest_streak = GREATEST(longest_streak, :longestStreak), version = version + 1 " +
+            "WHERE id = :userId", nativeQuery = true)
+    int raiseStreaks(
+        @Param("userId") UUID userId,
+        @Param("currentStreak") int currentStreak,
+        @Param("longestStreak") int longestStreak
+    );
+
+    // Recalculer le streak courant depuis les habits actifs, seulement si l'habit modifié portait le max
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE users SET current_streak = CASE WHEN current_streak <= :previousStreak " +
+            "THEN (SELECT COALESCE(MAX(h.current_streak), 0) FROM habits h " +
+            "WHERE h.user_id = :userId AND h.is_active = true) " +
+            "ELSE current_streak END, " +
+            "longest_streak = GREATEST(longest_streak, :longestStreak), version = version + 1 " +
+            "WHERE id = :userId", nativeQuery = true)
+    int recomputeCurrentStreakIfMax(
+        @Param("userId") UUID userId,
+        @Param("previousStreak") int previousStreak,
+        @Param("longestStreak") int longestStreak
+    );
+
+    // Recalculer le streak courant d'un lot d'utilisateurs depuis leurs habits actifs
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE users u SET current_streak = (SELECT COALESCE(MAX(h.current_streak), 0) " +
+            "FROM habits h WHERE h.user_id = u.id AND h.is_active = true), version = version + 1 " +
+            "WHERE u.id IN (:userIds)", nativeQuery = true)
+    int recomputeCurrentStreaks(@Param("userIds") Collection<UUID> userIds);
 }
\ No newline at end of file
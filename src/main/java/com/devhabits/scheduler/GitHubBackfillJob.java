@@ -0,0 +1,40 @@
+package com.devhabits.scheduler;
+
+import com.devhabits.repository.GitHubBackfillRepository;
+import com.devhabits.service.GitHubBackfillService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Runs the GitHub history backfills that are due, one user at a time. Each run holds a lease on
+ * the backfill so nodes share the work; one left by a stopped node is taken over once its lease
+ * expires, from its last checkpoint.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GitHubBackfillJob {
+
+    private final GitHubBackfillRepository backfillRepository;
+    private final GitHubBackfillService backfillService;
+
+    @Value("${app.github.backfill.batch-size}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${app.github.backfill.poll-interval}")
+    public void runDue() {
+        for (UUID userId : backfillRepository.findDueUserIds(LocalDateTime.now(), batchSize)) {
+            try {
+                backfillService.run(userId);
+            } catch (RuntimeException e) {
+                log.error("GitHub backfill run failed for user {}", userId, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.devhabits.scheduler;
+
+import com.devhabits.event.DomainEvent;
+import com.devhabits.event.DomainEventBatch;
+import com.devhabits.model.entity.OutboxEvent;
+import com.devhabits.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Publishes outbox events in id order, first to the Redis stream then to the in-process bus.
+ * A batch is reserved in a short transaction (advisory lock, rows locked with SKIP LOCKED), published
+ * outside of it, then marked published: no transaction stays open while Redis and the consumers run.
+ * One batch is in flight at a time across nodes, which preserves the order per user. Ids are taken
+ * at insert, not at commit: events are relayed once older than the commit grace, so a transaction
+ * committing late does not let a later id overtake its own. Delivery is at least once: a batch whose
+ * relay dies is claimed again once its reservation expires, consumers skip already processed ids.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxRelay {
+
+    public static final String STREAM_KEY = "outbox:events";
+
+    private static final long RELAY_LOCK_KEY = 0x6f7574626f78L;   // "outbox"
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.outbox.batch-size}")
+    private int batchSize;
+
+    @Value("${app.outbox.stream-max-length}")
+    private long streamMaxLength;
+
+    @Value("${app.outbox.retention}")
+    private Duration retention;
+
+    @Value("${app.outbox.commit-grace:1s}")
+    private Duration commitGrace;
+
+    @Value("${app.outbox.claim-lease:1m}")
+    private Duration claimLease;
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval}")
+    public void relay() {
+        int published;
+        do {
+            published = relayBatch();
+        } while (published == batchSize);
+    }
+
+    /**
+     * Publish one batch, returns the number of events published (0 when another node holds the relay)
+     */
+    int relayBatch() {
+        List<OutboxEvent> pending = transactionTemplate.execute(status -> claimBatch());
+        if (pending == null || pending.isEmpty()) {
+            return 0;
+        }
+
+        // Stop at the first event the stream rejects: later ones wait so the order is kept
+        List<DomainEvent> delivered = new ArrayList<>(pending.size());
+        int handled = 0;
+        for (OutboxEvent outboxEvent : pending) {
+            try {
+                DomainEvent event = toDomainEvent(outboxEvent);
+                appendToStream(outboxEvent);
+                delivered.add(event);
+            } catch (JsonProcessingException e) {
+                // Cannot get better on retry: skip it rather than block the relay
+                log.error("Skipping outbox event {} with an unreadable payload", outboxEvent.getId(), e);
+            } catch (RuntimeException e) {
+                log.warn("Outbox relay paused at event {}: {}", outboxEvent.getId(), e.getMessage());
+                break;
+            }
+            handled++;
+        }
+
+        if (handled > 0) {
+            trimStream();
+            publishInProcess(delivered);
+        }
+
+        List<Long> publishedIds = pending.subList(0, handled).stream().map(OutboxEvent::getId).toList();
+        List<Long> pausedIds = pending.subList(handled, pending.size()).stream().map(OutboxEvent::getId).toList();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!publishedIds.isEmpty()) {
+                outboxEventRepository.markPublished(publishedIds, LocalDateTime.now());
+            }
+            // Give the rest back right away instead of waiting for the reservation to expire
+            if (!pausedIds.isEmpty()) {
+                outboxEventRepository.claim(pausedIds, null);
+            }
+        });
+
+        log.debug("Outbox relay published {} events", handled);
+        return handled;
+    }
+
+    /**
+     * Reserve the next batch, empty when another node holds the relay or has a batch in flight
+     */
+    private List<OutboxEvent> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        if (!outboxEventRepository.tryRelayLock(RELAY_LOCK_KEY) || outboxEventRepository.hasClaimedBatch(now)) {
+            return List.of();
+        }
+
+        List<OutboxEvent> pending = outboxEventRepository.lockPendingBatch(now, now.minus(commitGrace), batchSize);
+        if (!pending.isEmpty()) {
+            outboxEventRepository.claim(pending.stream().map(OutboxEvent::getId).toList(), now.plus(claimLease));
+        }
+        return pending;
+    }
+
+    /**
+     * Drop published events past their retention
+     */
+    @Scheduled(cron = "${app.outbox.purge-cron}")
+    public void purge() {
+        int deleted = transactionTemplate.execute(status ->
+                outboxEventRepository.deletePublishedBefore(LocalDateTime.now().minus(retention)));
+        log.info("Purged {} published outbox events", deleted);
+    }
+
+    private DomainEvent toDomainEvent(OutboxEvent outboxEvent) throws JsonProcessingException {
+        return new DomainEvent(
+                outboxEvent.getId(),
+                outboxEvent.getUserId(),
+                outboxEvent.getEventType(),
+                objectMapper.readTree(outboxEvent.getPayload()),
+                outboxEvent.getCreatedAt());
+    }
+
+    private void appendToStream(OutboxEvent outboxEvent) {
+        redisTemplate.opsForStream().add(MapRecord.create(STREAM_KEY, Map.of(
+                "id", String.valueOf(outboxEvent.getId()),
+                "userId", outboxEvent.getUserId().toString(),
+                "type", outboxEvent.getEventType().name(),
+                "payload", outboxEvent.getPayload(),
+                "occurredAt", outboxEvent.getCreatedAt().toString())));
+    }
+
+    private void trimStream() {
+        try {
+            redisTemplate.opsForStream().trim(STREAM_KEY, streamMaxLength, true);
+        } catch (RuntimeException e) {
+            log.warn("Failed to trim outbox stream: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Listeners run on the relay thread, outside any transaction: slow ones hand the work off (@Async).
+     * A failing consumer is logged and skipped, it must not replay the batch for the others.
+     */
+    private void publishInProcess(List<DomainEvent> events) {
+        for (DomainEvent event : events) {
+            try {
+                applicationEventPublisher.publishEvent(event);
+            } catch (RuntimeException e) {
+                log.error("Outbox consumer failed on event {} ({})", event.id(), event.type(), e);
+            }
+        }
+        try {
+            applicationEventPublisher.publishEvent(new DomainEventBatch(events));
+        } catch (RuntimeException e) {
+            log.error("Outbox batch consumer failed", e);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.devhabits.scheduler;
+
+import com.devhabits.model.enums.HabitFrequency;
+import com.devhabits.repository.HabitRepository;
+import com.devhabits.repository.HabitRepository.HabitOwner;
+import com.devhabits.repository.UserRepository;
+import com.devhabits.service.UserDataVersionService;
+import com.devhabits.util.StreakCalculator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Nightly job that zeroes the stored streak of habits whose last completion fell out of
+ * their frequency window, so read paths can trust Habit.currentStreak without reading logs.
+ * Works in bulk batches (one short transaction each) over this node's shard of users only.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StreakDecaySweeper {
+
+    private final HabitRepository habitRepository;
+    private final UserRepository userRepository;
+    private final UserDataVersionService userDataVersionService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.streak-decay.batch-size}")
+    private int batchSize;
+
+    @Value("${app.streak-decay.shard-count}")
+    private int shardCount;
+
+    @Value("${app.streak-decay.shard-index}")
+    private int shardIndex;
+
+    @Scheduled(cron = "${app.streak-decay.cron}")
+    public void sweep() {
+        sweep(LocalDate.now());
+    }
+
+    /**
+     * Reset expired streaks as of the given day, returns the number of habits reset
+     */
+    public int sweep(LocalDate today) {
+        log.info("Starting streak decay sweep for {} (shard {}/{})", today, shardIndex, shardCount);
+
+        int total = sweepFrequency(HabitFrequency.DAILY, 1, 0, today);
+
+        // Weekly and custom habits: one pass per distinct target or schedule, each with its own cutoff
+        for (Integer targetCount : habitRepository.findWeeklyTargetsWithActiveStreaks()) {
+            total += sweepFrequency(HabitFrequency.WEEKLY, targetCount, 0, today);
+        }
+        for (Integer scheduleDays : habitRepository.findScheduleDaysWithActiveStreaks()) {
+            total += sweepFrequency(HabitFrequency.CUSTOM, 1, scheduleDays, today);
+        }
+
+        log.info("Streak decay sweep finished: {} habit streaks reset", total);
+        return total;
+    }
+
+    private int sweepFrequency(HabitFrequency frequency, int targetCount, int scheduleDays, LocalDate today) {
+        LocalDateTime cutoff = StreakCalculator.strategyFor(frequency, targetCount, scheduleDays)
+                .streakCutoff(today)
+                .atStartOfDay();
+        // Weekly habits completed after the cutoff are expired when neither last week nor this one reached the target
+        LocalDateTime weekStart = today.with(DayOfWeek.MONDAY).atStartOfDay();
+        LocalDateTime resetBefore = frequency == HabitFrequency.WEEKLY ? today.plusDays(1).atStartOfDay() : cutoff;
+
+        int total = 0;
+        int swept;
+        do {
+            swept = transactionTemplate.execute(status ->
+                    sweepBatch(frequency, targetCount, scheduleDays, cutoff, weekStart, resetBefore));
+            total += swept;
+        } while (swept == batchSize);
+
+        return total;
+    }
+
+    private int sweepBatch(HabitFrequency frequency, int targetCount, int scheduleDays, LocalDateTime cutoff,
+                           LocalDateTime weekStart, LocalDateTime resetBefore) {
+        List<HabitOwner> expired = habitRepository.lockExpiredStreaks(frequency.name(), targetCount, scheduleDays,
+                cutoff, weekStart.minusWeeks(1), weekStart, shardCount, shardIndex, batchSize);
+
+        if (expired.isEmpty()) {
+            return 0;
+        }
+
+        Set<UUID> habitIds = expired.stream().map(HabitOwner::getId).collect(Collectors.toSet());
+        Set<UUID> userIds = expired.stream().map(HabitOwner::getUserId).collect(Collectors.toSet());
+
+        habitRepository.resetExpiredStreaks(habitIds, resetBefore);
+        userRepository.recomputeCurrentStreaks(userIds);
+        userDataVersionService.bumpAfterCommit(userIds);
+
+        return expired.size();
+    }
+}
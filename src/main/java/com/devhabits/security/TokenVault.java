@@ -0,0 +1,227 @@
+package com.devhabits.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Encryption at rest of the GitHub access tokens (envelope encryption, AES-256-GCM).
+ * Each token is encrypted with its own random data key, stored wrapped by the active master key:
+ * {@code v1:<master key id>:<wrapped data key>:<encrypted token>}. After a master key rotation,
+ * tokens wrapped by a retired key keep decrypting as long as that key stays configured.
+ * Decrypted tokens stay in a short-lived, size-bounded cache for the sync workers and are zeroed
+ * in memory when evicted.
+ */
+@Slf4j
+@Component
+public class TokenVault {
+
+    private static final String VERSION = "v1";
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final int KEY_LENGTH = 32;
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_LENGTH_BITS = 128;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final Map<String, SecretKey> masterKeys = new HashMap<>();
+    private final String activeKeyId;
+    private final SecureRandom random = new SecureRandom();
+    private final Cache<String, DecryptedToken> decrypted;
+
+    public TokenVault(TokenVaultProperties properties, MeterRegistry meterRegistry) {
+        properties.getMasterKeys().forEach((id, key) -> masterKeys.put(id, masterKey(id, key)));
+        if (!masterKeys.containsKey(properties.getActiveKeyId())) {
+            throw new IllegalStateException("app.token-vault.master-keys has no key '" + properties.getActiveKeyId() + "'");
+        }
+        this.activeKeyId = properties.getActiveKeyId();
+        // Eviction runs on the caller (same thread) and expired entries are swept by the system scheduler,
+        // not on the next cache access
+        this.decrypted = Caffeine.newBuilder()
+                .maximumSize(properties.getCacheMaxSize())
+                .expireAfterWrite(properties.getCacheTtl())
+                .executor(Runnable::run)
+                .scheduler(Scheduler.systemScheduler())
+                .removalListener((String ciphertext, DecryptedToken token, RemovalCause cause) -> {
+                    if (token != null) {
+                        token.destroy();
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, decrypted, "github-tokens");
+    }
+
+    /**
+     * Encrypt a token with a fresh data key wrapped by the active master key
+     */
+    public String encrypt(String token) {
+        byte[] dataKey = new byte[KEY_LENGTH];
+        random.nextBytes(dataKey);
+        byte[] plaintext = token.getBytes(StandardCharsets.UTF_8);
+        try {
+            byte[] aad = aad(activeKeyId);
+            byte[] wrappedKey = seal(masterKeys.get(activeKeyId), dataKey, aad);
+            byte[] ciphertext = seal(new SecretKeySpec(dataKey, "AES"), plaintext, aad);
+            return String.join(":", VERSION, activeKeyId, ENCODER.encodeToString(wrappedKey), ENCODER.encodeToString(ciphertext));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("GitHub token encryption failed", e);
+        } finally {
+            Arrays.fill(dataKey, (byte) 0);
+            Arrays.fill(plaintext, (byte) 0);
+        }
+    }
+
+    /**
+     * Decrypt a stored token, from the cache when it was decrypted recently.
+     * Values written before encryption (no version prefix) are returned as is.
+     */
+    public String decrypt(String stored) {
+        if (!isEncrypted(stored)) {
+            return stored;
+        }
+        String token = decrypted.get(stored, ciphertext -> new DecryptedToken(open(ciphertext))).reveal();
+        if (token == null) {
+            // Evicted between the lookup and the read
+            byte[] plaintext = open(stored);
+            try {
+                return new String(plaintext, StandardCharsets.UTF_8);
+            } finally {
+                Arrays.fill(plaintext, (byte) 0);
+            }
+        }
+        return token;
+    }
+
+    public boolean isEncrypted(String stored) {
+        return stored != null && stored.startsWith(VERSION + ":");
+    }
+
+    /**
+     * Drop the decrypted token from memory
+     */
+    public void evict(String stored) {
+        if (stored != null) {
+            decrypted.invalidate(stored);
+        }
+    }
+
+    DecryptedToken cached(String stored) {
+        return decrypted.getIfPresent(stored);
+    }
+
+    private byte[] open(String stored) {
+        String[] parts = stored.split(":");
+        if (parts.length != 4) {
+            throw new IllegalStateException("Malformed encrypted GitHub token");
+        }
+        SecretKey masterKey = masterKeys.get(parts[1]);
+        if (masterKey == null) {
+            throw new IllegalStateException("Unknown token vault master key '" + parts[1] + "'");
+        }
+        byte[] dataKey = null;
+        try {
+            byte[] aad = aad(parts[1]);
+            dataKey = unseal(masterKey, DECODER.decode(parts[2]), aad);
+            return unseal(new SecretKeySpec(dataKey, "AES"), DECODER.decode(parts[3]), aad);
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("GitHub token decryption failed", e);
+        } finally {
+            if (dataKey != null) {
+                Arrays.fill(dataKey, (byte) 0);
+            }
+        }
+    }
+
+    /**
+     * IV followed by the ciphertext and its authentication tag
+     */
+    private byte[] seal(SecretKey key, byte[] plaintext, byte[] aad) throws GeneralSecurityException {
+        byte[] iv = new byte[IV_LENGTH];
+        random.nextBytes(iv);
+        Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+        cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH_BITS, iv));
+        cipher.updateAAD(aad);
+        return ByteBuffer.allocate(IV_LENGTH + cipher.getOutputSize(plaintext.length))
+                .put(iv)
+                .put(cipher.doFinal(plaintext))
+                .array();
+    }
+
+    private byte[] unseal(SecretKey key, byte[] sealed, byte[] aad) throws GeneralSecurityException {
+        if (sealed.length < IV_LENGTH) {
+            throw new GeneralSecurityException("Sealed value too short");
+        }
+        Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+        cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH_BITS, sealed, 0, IV_LENGTH));
+        cipher.updateAAD(aad);
+        return cipher.doFinal(sealed, IV_LENGTH, sealed.length - IV_LENGTH);
+    }
+
+    /**
+     * Binds both ciphertexts to the format version and master key id they were written with
+     */
+    private static byte[] aad(String keyId) {
+        return (VERSION + ":" + keyId).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static SecretKey masterKey(String id, String base64) {
+        byte[] key;
+        try {
+            // An unset TOKEN_VAULT_MASTER_KEY is left as its placeholder, not base64 either
+            key = base64 == null ? new byte[0] : Base64.getDecoder().decode(base64.trim());
+        } catch (IllegalArgumentException e) {
+            key = new byte[0];
+        }
+        if (key.length != KEY_LENGTH) {
+            throw new IllegalStateException("app.token-vault.master-keys." + id + " must be a base64-encoded 256-bit key");
+        }
+        return new SecretKeySpec(key, "AES");
+    }
+
+    /**
+     * Decrypted token bytes, zeroed on eviction. The String handed out is short-lived on the caller side.
+     */
+    static final class DecryptedToken {
+
+        private byte[] plaintext;
+
+        DecryptedToken(byte[] plaintext) {
+            this.plaintext = plaintext;
+        }
+
+        synchronized String reveal() {
+            return plaintext == null ? null : new String(plaintext, StandardCharsets.UTF_8);
+        }
+
+        synchronized void destroy() {
+            if (plaintext != null) {
+                Arrays.fill(plaintext, (byte) 0);
+                plaintext = null;
+            }
+        }
+
+        synchronized boolean isDestroyed() {
+            return plaintext == null;
+        }
+    }
+}
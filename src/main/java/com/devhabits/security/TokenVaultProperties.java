@@ -0,0 +1,36 @@
+package com.devhabits.security;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Master keys of the {@link TokenVault}, keyed by id. Retired keys stay listed until no
+ * stored token references them anymore.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.token-vault")
+public class TokenVaultProperties {
+
+    /**
+     * Key wrapping the data key of every newly encrypted token
+     */
+    private String activeKeyId;
+
+    /**
+     * Base64-encoded 256-bit AES keys
+     */
+    private Map<String, String> masterKeys = new HashMap<>();
+
+    /**
+     * How long a decrypted token stays in memory
+     */
+    private Duration cacheTtl = Duration.ofMinutes(5);
+
+    private long cacheMaxSize = 10_000;
+}
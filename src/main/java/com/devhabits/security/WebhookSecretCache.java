@@ -0,0 +1,119 @@
+package com.devhabits.security;
+
+import com.devhabits.repository.GitHubRepositoryRepo;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Webhook secrets of each GitHub repository with the user who configured each one, decrypted and
+ * kept in memory so that a signature is checked without a database round trip. Repositories without
+ * a secret are cached too: forged requests naming the same repository reach the database once per
+ * TTL, though each repository id not seen yet costs one indexed lookup. A rotation is published on
+ * Redis and evicts the repository on every node.
+ */
+@Slf4j
+@Component
+public class WebhookSecretCache implements MessageListener {
+
+    public static final String CHANNEL = "webhook-secrets:invalidations";
+
+    private final GitHubRepositoryRepo repositoryRepo;
+    private final TokenVault tokenVault;
+    private final StringRedisTemplate redisTemplate;
+    private final LoadingCache<Long, List<WebhookSecret>> secrets;
+
+    public WebhookSecretCache(
+            GitHubRepositoryRepo repositoryRepo,
+            TokenVault tokenVault,
+            StringRedisTemplate redisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${app.github.webhook.secret-cache-ttl:10m}") Duration ttl,
+            @Value("${app.github.webhook.secret-cache-max-size:100000}") long maxSize
+    ) {
+        this.repositoryRepo = repositoryRepo;
+        this.tokenVault = tokenVault;
+        this.redisTemplate = redisTemplate;
+        this.secrets = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build(this::load);
+        CaffeineCacheMetrics.monitor(meterRegistry, secrets, "webhook-secrets");
+    }
+
+    /**
+     * HMAC keys a webhook of the repository may be signed with, empty when none is configured
+     */
+    public List<WebhookSecret> secretsOf(long githubRepoId) {
+        return secrets.get(githubRepoId);
+    }
+
+    /**
+     * Evict the repository on every node once the current transaction commits
+     */
+    public void evictAfterCommit(long githubRepoId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(githubRepoId);
+                }
+            });
+        } else {
+            evict(githubRepoId);
+        }
+    }
+
+    /**
+     * Evictions published by any node (this one included)
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            secrets.invalidate(Long.parseLong(new String(message.getBody(), StandardCharsets.UTF_8)));
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring webhook secret eviction: {}", e.getMessage());
+        }
+    }
+
+    private void evict(long githubRepoId) {
+        secrets.invalidate(githubRepoId);
+        try {
+            redisTemplate.convertAndSend(CHANNEL, Long.toString(githubRepoId));
+        } catch (RuntimeException e) {
+            // Other nodes keep the previous secret until the entry expires
+            log.warn("Failed to publish webhook secret eviction of repository {}: {}", githubRepoId, e.getMessage());
+        }
+    }
+
+    private List<WebhookSecret> load(Long githubRepoId) {
+        return repositoryRepo.findWithWebhookSecretByGithubRepoId(githubRepoId).stream()
+                .map(repository -> new WebhookSecret(repository.getUserId(), new SecretKeySpec(
+                        tokenVault.decrypt(repository.getWebhookSecret()).getBytes(StandardCharsets.UTF_8),
+                        "HmacSHA256")))
+                .toList();
+    }
+
+    /**
+     * A secret and the user it belongs to: a webhook signed with it is processed for that user only
+     */
+    public record WebhookSecret(UUID userId, SecretKey key) {
+    }
+}
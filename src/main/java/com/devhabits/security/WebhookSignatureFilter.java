@@ -0,0 +1,287 @@
+package com.devhabits.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Verifies X-Hub-Signature-256 of GitHub webhooks before the controller binds the payload.
+ * Requests without a well-formed signature or naming a repository without a secret are rejected
+ * before the body is read. The secrets come from WebhookSecretCache: a repository id that is not
+ * cached yet, known or not, costs one indexed database lookup. Otherwise the body is read once,
+ * into a buffer that grows with the bytes received up to Content-Length (an unverified client
+ * announcing a large body does not get it allocated upfront), the HMAC being updated chunk by
+ * chunk as it arrives, and compared in constant time; the controller then deserializes that same
+ * buffer. The user owning the matching secret and the repository named by the headers are passed
+ * on as request attributes: the event is processed for that user only, and only if the payload
+ * names the same repository.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class WebhookSignatureFilter extends OncePerRequestFilter {
+
+    public static final String SIGNATURE_HEADER = "X-Hub-Signature-256";
+    public static final String TARGET_TYPE_HEADER = "X-GitHub-Hook-Installation-Target-Type";
+    public static final String TARGET_ID_HEADER = "X-GitHub-Hook-Installation-Target-ID";
+    public static final String OWNER_ATTRIBUTE = "devhabits.webhook.owner";
+    public static final String REPOSITORY_ATTRIBUTE = "devhabits.webhook.repository";
+
+    private static final String WEBHOOK_PATH = "/api/github/webhook";
+    private static final String SIGNATURE_PREFIX = "sha256=";
+    private static final int SIGNATURE_LENGTH = 32;
+    private static final int CHUNK_SIZE = 16 * 1024;
+
+    private final WebhookSecretCache secretCache;
+    private final MeterRegistry meterRegistry;
+    private final long maxPayloadSize;
+
+    public WebhookSignatureFilter(
+            WebhookSecretCache secretCache,
+            MeterRegistry meterRegistry,
+            @Value("${app.github.webhook.max-payload-size:25MB}") DataSize maxPayloadSize
+    ) {
+        this.secretCache = secretCache;
+        this.meterRegistry = meterRegistry;
+        this.maxPayloadSize = maxPayloadSize.toBytes();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || !WEBHOOK_PATH.equals(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        byte[] signature = parseSignature(request.getHeader(SIGNATURE_HEADER));
+        if (signature == null) {
+            reject(response, HttpServletResponse.SC_UNAUTHORIZED, "missing_signature");
+            return;
+        }
+
+        long contentLength = request.getContentLengthLong();
+        if (contentLength > maxPayloadSize) {
+            reject(response, HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, "too_large");
+            return;
+        }
+
+        Long repositoryId = parseRepositoryId(request);
+        List<WebhookSecretCache.WebhookSecret> secrets =
+                repositoryId != null ? secretCache.secretsOf(repositoryId) : List.of();
+        if (secrets.isEmpty()) {
+            reject(response, HttpServletResponse.SC_UNAUTHORIZED, "unknown_repository");
+            return;
+        }
+
+        List<Mac> macs = new ArrayList<>(secrets.size());
+        for (WebhookSecretCache.WebhookSecret secret : secrets) {
+            macs.add(mac(secret.key()));
+        }
+        SignedBody body = readBody(request.getInputStream(), contentLength, macs);
+        if (body == null) {
+            reject(response, HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, "too_large");
+            return;
+        }
+
+        UUID owner = null;
+        for (int i = 0; i < macs.size(); i++) {
+            // Every secret is checked: the time taken doesn't tell which one matched
+            boolean matches = MessageDigest.isEqual(macs.get(i).doFinal(), signature);
+            if (matches && owner == null) {
+                owner = secrets.get(i).userId();
+            }
+        }
+        if (owner == null) {
+            reject(response, HttpServletResponse.SC_UNAUTHORIZED, "invalid_signature");
+            return;
+        }
+
+        request.setAttribute(OWNER_ATTRIBUTE, owner);
+        request.setAttribute(REPOSITORY_ATTRIBUTE, repositoryId);
+        filterChain.doFilter(new SignedBodyRequest(request, body), response);
+    }
+
+    /**
+     * Read the body and feed it to the MACs in the same pass, null when it exceeds the maximum size.
+     * The buffer starts at one chunk and doubles as data arrives, up to Content-Length when known.
+     */
+    private SignedBody readBody(InputStream in, long contentLength, List<Mac> macs) throws IOException {
+        long limit = contentLength >= 0 ? contentLength : maxPayloadSize;
+        byte[] buffer = new byte[(int) Math.min(limit, CHUNK_SIZE)];
+        int length = 0;
+        while (true) {
+            if (length == buffer.length) {
+                if (length >= limit) {
+                    // Content-Length or maximum size reached: anything beyond is rejected as oversized
+                    if (in.read() == -1) {
+                        break;
+                    }
+                    return null;
+                }
+                buffer = Arrays.copyOf(buffer, (int) Math.min((long) buffer.length * 2, limit));
+            }
+            int read = in.read(buffer, length, Math.min(CHUNK_SIZE, buffer.length - length));
+            if (read == -1) {
+                break;
+            }
+            for (Mac mac : macs) {
+                mac.update(buffer, length, read);
+            }
+            length += read;
+        }
+        return new SignedBody(buffer, length);
+    }
+
+    private static byte[] parseSignature(String header) {
+        if (header == null || header.length() != SIGNATURE_PREFIX.length() + 2 * SIGNATURE_LENGTH
+                || !header.startsWith(SIGNATURE_PREFIX)) {
+            return null;
+        }
+        try {
+            return HexFormat.of().parseHex(header, SIGNATURE_PREFIX.length(), header.length());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * GitHub repository of a repository webhook, null for organization or app webhooks
+     */
+    private static Long parseRepositoryId(HttpServletRequest request) {
+        if (!"repository".equals(request.getHeader(TARGET_TYPE_HEADER))) {
+            return null;
+        }
+        try {
+            return Long.valueOf(request.getHeader(TARGET_ID_HEADER));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Mac mac(SecretKey secret) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(secret);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 unavailable", e);
+        }
+    }
+
+    private void reject(HttpServletResponse response, int status, String reason) {
+        log.debug("Rejected GitHub webhook: {}", reason);
+        meterRegistry.counter("devhabits.github.webhook.rejected", "reason", reason).increment();
+        response.setStatus(status);
+    }
+
+    private record SignedBody(byte[] bytes, int length) {
+    }
+
+    /**
+     * Serves the verified body from the buffer it was read into
+     */
+    private static final class SignedBodyRequest extends HttpServletRequestWrapper {
+
+        private final SignedBody body;
+
+        SignedBodyRequest(HttpServletRequest request, SignedBody body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body.bytes(), 0, body.length());
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                /**
+                 * The body is already in memory: all of it is available as soon as the listener is set
+                 */
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        if (isFinished()) {
+                            listener.onAllDataRead();
+                        }
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length();
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.devhabits.service;
 
+import com.devhabits.aspect.RetryOnConflict;
 import com.devhabits.exception.BadRequestException;
 import com.devhabits.exception.ResourceNotFoundException;
 import com.devhabits.model.dto.request.LoginRequest;
@@ -10,6 +11,7 @@ import com.devhabits.model.dto.response.UserResponse;
 import com.devhabits.model.entity.User;
 import com.devhabits.repository.UserRepository;
 import com.devhabits.security.JwtTokenProvider;
+import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -24,6 +26,7 @@ import java.util.UUID;
 
 @Slf4j
 @Service
+@Observed(name = "devhabits.service")
 @RequiredArgsConstructor
 public class AuthService {
 
@@ -31,6 +34,7 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenProvider jwtTokenProvider;
     private final AuthenticationManager authenticationManager;
+    private final UserDataVersionService userDataVersionService;
 
     /**
      * Register a new user
@@ -82,6 +86,7 @@ public class AuthService {
     /**
      * Login user
      */
+    @RetryOnConflict
     @Transactional
     public AuthResponse login(LoginRequest request) {
         log.info("Login attempt for: {}", request.getEmailOrUsername());
@@ -104,6 +109,7 @@ public class AuthService {
             // Update last login
             user.updateLastLogin();
             userRepository.save(user);
+            userDataVersionService.bumpAfterCommit(user.getId());
 
             log.info("User logged in successfully: {}", user.getId());
 
@@ -0,0 +1,91 @@
+package com.devhabits.service;
+
+import com.devhabits.exception.BadRequestException;
+import com.devhabits.exception.ResourceNotFoundException;
+import com.devhabits.model.dto.response.CalendarResponse;
+import com.devhabits.repository.HabitRepository;
+import com.devhabits.util.CompletionHistory;
+import io.micrometer.observation.annotation.Observed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Year heatmaps served from the completion bitmaps, which check-ins update in place:
+ * no log is read and nothing is recomputed per request beyond one bitmap range per habit.
+ */
+@Slf4j
+@Service
+@Observed(name = "devhabits.service")
+@RequiredArgsConstructor
+public class CalendarService {
+
+    private final HabitRepository habitRepository;
+    private final CompletionHistoryService completionHistoryService;
+
+    /**
+     * Completions per day of one habit for a year
+     */
+    @Transactional(readOnly = true)
+    public CalendarResponse getHabitCalendar(UUID userId, UUID habitId, Integer year) {
+        int calendarYear = resolveYear(year);
+
+        if (!habitRepository.existsByIdAndUserId(habitId, userId)) {
+            throw new ResourceNotFoundException("Habit", "id", habitId.toString());
+        }
+
+        Map<LocalDate, Integer> days = new TreeMap<>();
+        addDays(days, completionHistoryService.getHistory(habitId), calendarYear);
+
+        return toCalendarResponse(calendarYear, habitId, days);
+    }
+
+    /**
+     * Completions per day over all habits of a user (archived ones included) for a year
+     */
+    @Transactional(readOnly = true)
+    public CalendarResponse getUserCalendar(UUID userId, Integer year) {
+        int calendarYear = resolveYear(year);
+
+        Map<LocalDate, Integer> days = new TreeMap<>();
+        completionHistoryService.getHistories(habitRepository.findIdsByUserId(userId)).values()
+                .forEach(history -> addDays(days, history, calendarYear));
+
+        return toCalendarResponse(calendarYear, null, days);
+    }
+
+    private void addDays(Map<LocalDate, Integer> days, CompletionHistory history, int year) {
+        LocalDate firstDay = LocalDate.of(year, 1, 1);
+        for (int epochDay : history.epochDaysBetween(firstDay, firstDay.withDayOfYear(firstDay.lengthOfYear()))) {
+            days.merge(LocalDate.ofEpochDay(epochDay), 1, Integer::sum);
+        }
+    }
+
+    private int resolveYear(Integer year) {
+        int currentYear = Year.now().getValue();
+        if (year == null) {
+            return currentYear;
+        }
+        if (year < 1970 || year > currentYear + 1) {
+            throw new BadRequestException("Year must be between 1970 and " + (currentYear + 1));
+        }
+        return year;
+    }
+
+    private CalendarResponse toCalendarResponse(int year, UUID habitId, Map<LocalDate, Integer> days) {
+        return CalendarResponse.builder()
+                .year(year)
+                .habitId(habitId)
+                .totalCompletions(days.values().stream().mapToInt(Integer::intValue).sum())
+                .activeDays(days.size())
+                .days(days)
+                .build();
+    }
+}
@@ -0,0 +1,286 @@
+package com.devhabits.service;
+
+import com.devhabits.model.entity.HabitCompletionBitmap;
+import com.devhabits.model.entity.HabitLog;
+import com.devhabits.repository.HabitCompletionBitmapRepository;
+import com.devhabits.repository.HabitLogRepository;
+import com.devhabits.util.CompletionHistory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.annotation.Observed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Completion history of habits as compressed bitmaps.
+ * Reads go Redis -> habit_completion_bitmaps -> habit_logs (lazy build); the table row is
+ * the source of truth and is updated on each check-in, the Redis copy is evicted after commit.
+ * Each eviction bumps a per-habit version in Redis, and a copy is only stored under the version
+ * read before loading it: a read that loaded the old bitmap cannot store it after the eviction.
+ * Redis is an optimization only: its failures are logged and never fail a request.
+ */
+@Slf4j
+@Service
+@Observed(name = "devhabits.service")
+@RequiredArgsConstructor
+public class CompletionHistoryService {
+
+    private static final String CACHE_KEY_PREFIX = "habit:history:";
+    private static final String VERSION_KEY_PREFIX = "habit:history:version:";
+    private static final byte[] NO_VERSION = "0".getBytes(StandardCharsets.UTF_8);
+
+    // Store the bitmap only when the version did not change since it was read
+    private static final RedisScript<Long> PUT_SCRIPT = RedisScript.of("""
+            local version = redis.call('GET', KEYS[2]) or '0'
+            if version ~= ARGV[2] then
+                return 0
+            end
+            redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[3])
+            return 1
+            """, Long.class);
+
+    // Bump the version (kept as long as the copies it guards) and drop the copy
+    private static final RedisScript<Long> EVICT_SCRIPT = RedisScript.of("""
+            local version = redis.call('INCR', KEYS[2])
+            redis.call('PEXPIRE', KEYS[2], ARGV[1])
+            redis.call('DEL', KEYS[1])
+            return version
+            """, Long.class);
+    private static final String CACHE_METRIC = "devhabits.cache.requests";
+
+    private final HabitCompletionBitmapRepository bitmapRepository;
+    private final HabitLogRepository habitLogRepository;
+    private final RedisTemplate<String, byte[]> byteArrayRedisTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.completion-history.cache-ttl:1d}")
+    private Duration cacheTtl;
+
+    /**
+     * Get the completion history of a habit
+     */
+    @Transactional
+    public CompletionHistory getHistory(UUID habitId) {
+        List<byte[]> cached = multiGetCached(List.of(habitId));
+        byte[] bytes = cached != null ? cached.get(0) : null;
+        countCacheRequests(bytes != null ? 1 : 0, bytes != null ? 0 : 1);
+        if (bytes != null) {
+            return CompletionHistory.fromBytes(bytes);
+        }
+
+        byte[] days = bitmapRepository.findById(habitId)
+                .map(HabitCompletionBitmap::getDays)
+                .orElseGet(() -> build(habitId));
+        if (cached != null) {
+            putCached(habitId, days, cached.get(1));
+        }
+        return CompletionHistory.fromBytes(days);
+    }
+
+    /**
+     * Get the completion histories of several habits with one Redis round trip and one query for misses
+     */
+    @Transactional
+    public Map<UUID, CompletionHistory> getHistories(Collection<UUID> habitIds) {
+        List<UUID> ids = new ArrayList<>(habitIds);
+        Map<UUID, CompletionHistory> histories = new HashMap<>();
+        if (ids.isEmpty()) {
+            return histories;
+        }
+
+        List<byte[]> cached = multiGetCached(ids);
+        List<UUID> misses = new ArrayList<>();
+        Map<UUID, byte[]> versions = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            byte[] bytes = cached != null ? cached.get(i) : null;
+            if (bytes != null) {
+                histories.put(ids.get(i), CompletionHistory.fromBytes(bytes));
+            } else {
+                misses.add(ids.get(i));
+                if (cached != null) {
+                    versions.put(ids.get(i), cached.get(ids.size() + i));
+                }
+            }
+        }
+        countCacheRequests(ids.size() - misses.size(), misses.size());
+
+        if (!misses.isEmpty()) {
+            Map<UUID, byte[]> stored = bitmapRepository.findAllById(misses).stream()
+                    .collect(Collectors.toMap(HabitCompletionBitmap::getHabitId, HabitCompletionBitmap::getDays));
+
+            // Habits never built: load all their logs with one query rather than one per habit
+            List<UUID> unbuilt = misses.stream().filter(habitId -> !stored.containsKey(habitId)).toList();
+            if (!unbuilt.isEmpty()) {
+                Map<UUID, List<HabitLog>> logs = habitLogRepository.findByHabitIdIn(unbuilt).stream()
+                        .collect(Collectors.groupingBy(HabitLog::getHabitId));
+                unbuilt.forEach(habitId -> stored.put(habitId, build(habitId, logs.getOrDefault(habitId, List.of()))));
+            }
+
+            for (UUID habitId : misses) {
+                byte[] days = stored.get(habitId);
+                if (cached != null) {
+                    putCached(habitId, days, versions.get(habitId));
+                }
+                histories.put(habitId, CompletionHistory.fromBytes(days));
+            }
+        }
+
+        return histories;
+    }
+
+    /**
+     * Add a completion day to a habit's history, returns the updated history.
+     * Concurrent writers on the same habit conflict on the row version and are retried by the caller.
+     */
+    @Transactional
+    public CompletionHistory recordCompletion(UUID habitId, LocalDate day) {
+        HabitCompletionBitmap bitmap = bitmapRepository.findById(habitId).orElse(null);
+
+        if (bitmap == null) {
+            // First use of this habit: the logs already contain the new completion
+            CompletionHistory history = CompletionHistory.fromLogs(
+                    habitLogRepository.findByHabitIdOrderByCompletedAtDesc(habitId));
+            if (bitmapRepository.insertIfAbsent(habitId, history.toBytes(), history.size()) == 1) {
+                evictAfterCommit(habitId);
+                return history;
+            }
+            // A concurrent read built it first, maybe without this completion
+            bitmap = bitmapRepository.findById(habitId).orElseThrow();
+        }
+
+        CompletionHistory history = CompletionHistory.fromBytes(bitmap.getDays());
+        if (history.add(day)) {
+            bitmap.setDays(history.toBytes());
+            bitmap.setCardinality(history.size());
+            bitmapRepository.save(bitmap);
+        }
+
+        evictAfterCommit(habitId);
+        return history;
+    }
+
+    /**
+     * Rebuild the history of a habit from its logs once they were written in bulk, returns it
+     */
+    @Transactional
+    public CompletionHistory rebuild(UUID habitId) {
+        CompletionHistory history = CompletionHistory.fromLogs(
+                habitLogRepository.findByHabitIdOrderByCompletedAtDesc(habitId));
+
+        if (bitmapRepository.insertIfAbsent(habitId, history.toBytes(), history.size()) == 0) {
+            HabitCompletionBitmap bitmap = bitmapRepository.findById(habitId).orElseThrow();
+            bitmap.setDays(history.toBytes());
+            bitmap.setCardinality(history.size());
+            bitmapRepository.save(bitmap);
+        }
+
+        evictAfterCommit(habitId);
+        return history;
+    }
+
+    /**
+     * Build the bitmap of a habit from its logs and store it, returns its serialized form
+     */
+    private byte[] build(UUID habitId) {
+        return build(habitId, habitLogRepository.findByHabitIdOrderByCompletedAtDesc(habitId));
+    }
+
+    private byte[] build(UUID habitId, List<HabitLog> logs) {
+        CompletionHistory history = CompletionHistory.fromLogs(logs);
+        log.debug("Built completion history for habit {} ({} days)", habitId, history.size());
+
+        byte[] days = history.toBytes();
+        // Read-only callers (dashboard) only get the Redis copy, the row is stored by the next write
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            bitmapRepository.insertIfAbsent(habitId, days, history.size());
+        }
+        return days;
+    }
+
+    private void countCacheRequests(int hits, int misses) {
+        meterRegistry.counter(CACHE_METRIC, "cache", "completion-history", "result", "hit").increment(hits);
+        meterRegistry.counter(CACHE_METRIC, "cache", "completion-history", "result", "miss").increment(misses);
+    }
+
+    private String cacheKey(UUID habitId) {
+        return CACHE_KEY_PREFIX + habitId;
+    }
+
+    private String versionKey(UUID habitId) {
+        return VERSION_KEY_PREFIX + habitId;
+    }
+
+    /**
+     * Cached copies of the habits followed by their versions, in one round trip; null when Redis is unavailable
+     */
+    private List<byte[]> multiGetCached(List<UUID> habitIds) {
+        List<String> keys = new ArrayList<>(2 * habitIds.size());
+        habitIds.forEach(habitId -> keys.add(cacheKey(habitId)));
+        habitIds.forEach(habitId -> keys.add(versionKey(habitId)));
+        try {
+            List<byte[]> values = byteArrayRedisTemplate.opsForValue().multiGet(keys);
+            return values != null && values.size() == keys.size() ? values : null;
+        } catch (RuntimeException e) {
+            log.warn("Failed to read completion histories from cache: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Store a copy unless the habit was evicted since its version was read
+     */
+    private void putCached(UUID habitId, byte[] days, byte[] version) {
+        try {
+            byteArrayRedisTemplate.execute(PUT_SCRIPT, List.of(cacheKey(habitId), versionKey(habitId)),
+                    days, version != null ? version : NO_VERSION, millis(cacheTtl));
+        } catch (RuntimeException e) {
+            log.warn("Failed to cache completion history: {}", e.getMessage());
+        }
+    }
+
+    private static byte[] millis(Duration duration) {
+        return String.valueOf(duration.toMillis()).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Evict once the new bitmap is committed: reads that ran during the transaction may have cached the old one
+     */
+    private void evictAfterCommit(UUID habitId) {
+        Runnable evict = () -> {
+            try {
+                byteArrayRedisTemplate.execute(EVICT_SCRIPT, List.of(cacheKey(habitId), versionKey(habitId)),
+                        (Object) millis(cacheTtl));
+            } catch (RuntimeException e) {
+                log.warn("Failed to evict completion history from cache: {}", e.getMessage());
+            }
+        };
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict.run();
+                }
+            });
+        } else {
+            evict.run();
+        }
+    }
+}
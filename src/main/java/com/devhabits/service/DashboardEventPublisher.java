@@ -0,0 +1,59 @@
+package com.devhabits.service;
+
+import com.devhabits.model.dto.response.DashboardEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Fans dashboard events out to every node through Redis pub/sub; each node pushes them to the
+ * streams it holds. Falls back to this node only when Redis is unavailable.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DashboardEventPublisher implements MessageListener {
+
+    public static final String CHANNEL = "dashboard:events";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final DashboardStreamService dashboardStreamService;
+
+    /**
+     * Publish events of a user to every node
+     */
+    public void publish(UUID userId, List<DashboardEvent> events) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, objectMapper.writeValueAsString(new Envelope(userId, events)));
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Failed to publish dashboard events for user {}: {}", userId, e.getMessage());
+            dashboardStreamService.dispatch(userId, events);
+        }
+    }
+
+    /**
+     * Events published by any node (this one included)
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            Envelope envelope = objectMapper.readValue(message.getBody(), Envelope.class);
+            dashboardStreamService.dispatch(envelope.userId(), envelope.events());
+        } catch (IOException e) {
+            log.warn("Ignoring malformed dashboard event message: {}", e.getMessage());
+        }
+    }
+
+    record Envelope(UUID userId, List<DashboardEvent> events) {
+    }
+}
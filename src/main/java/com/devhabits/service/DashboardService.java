@@ -5,12 +5,12 @@ import com.devhabits.model.dto.response.DashboardStats;
 import com.devhabits.model.dto.response.HabitResponse;
 import com.devhabits.model.dto.response.UserResponse;
 import com.devhabits.model.entity.Habit;
-import com.devhabits.model.entity.HabitLog;
 import com.devhabits.model.entity.User;
-import com.devhabits.repository.HabitLogRepository;
 import com.devhabits.repository.HabitRepository;
 import com.devhabits.repository.UserRepository;
-import com.devhabits.util.StreakCalculator;
+import com.devhabits.util.CompletionHistory;
+import com.devhabits.util.streak.ScheduledDaysStreakStrategy;
+import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -19,74 +19,62 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
+@Observed(name = "devhabits.service")
 @RequiredArgsConstructor
 public class DashboardService {
 
     private final UserRepository userRepository;
     private final HabitRepository habitRepository;
-    private final HabitLogRepository habitLogRepository;
+    private final CompletionHistoryService completionHistoryService;
 
     @Transactional(readOnly = true)
     public DashboardResponse getDashboard(UUID userId) {
-        log.info("Fetching dashboard for user: {}", userId);
+        log.debug("Fetching dashboard for user: {}", userId);
 
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         List<Habit> allHabits = habitRepository.findByUserIdAndIsActiveTrue(userId);
 
-        // Calculate today's completion status
-        LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
-        LocalDateTime endOfDay = startOfDay.plusDays(1);
+        // Calculate today's completion status from the stored last completion
+        LocalDate today = LocalDate.now();
 
         AtomicInteger completedTodayCounter = new AtomicInteger(0);
         List<HabitResponse> todayHabits = allHabits.stream()
                 .map(habit -> {
-                    boolean isCompleted = habitLogRepository.existsForToday(
-                            habit.getId(), startOfDay, endOfDay
-                    );
+                    boolean isCompleted = habit.isCompletedOn(today);
                     if (isCompleted) {
                     	completedTodayCounter.incrementAndGet();
                     }
 
-                    LocalDateTime lastCompleted = habitLogRepository
-                            .findFirstByHabitIdOrderByCompletedAtDesc(habit.getId())
-                            .map(HabitLog::getCompletedAt)
-                            .orElse(null);
-
-                    return mapToHabitResponse(habit, isCompleted, lastCompleted);
+                    return mapToHabitResponse(habit, isCompleted, habit.getLastCompletedAt());
                 })
                 .collect(Collectors.toList());
 
-        // Find habits at risk
+        // Find habits at risk (stored streaks are kept current by the streak-decay sweeper)
         List<HabitResponse> atRiskHabits = todayHabits.stream()
                 .filter(h -> !h.getCompletedToday() && h.getCurrentStreak() > 0)
                 .collect(Collectors.toList());
 
-        // Calculate weekly and monthly completions
-        LocalDateTime startOfWeek = LocalDate.now().minusDays(7).atStartOfDay();
-        LocalDateTime startOfMonth = LocalDate.now().minusDays(30).atStartOfDay();
-
-        int weeklyCompletions = (int) allHabits.stream()
-                .flatMap(habit -> habitLogRepository
-                        .findByHabitIdAndCompletedAtBetweenOrderByCompletedAtDesc(
-                                habit.getId(), startOfWeek, LocalDateTime.now()
-                        ).stream())
-                .count();
-
-        int monthlyCompletions = (int) allHabits.stream()
-                .flatMap(habit -> habitLogRepository
-                        .findByHabitIdAndCompletedAtBetweenOrderByCompletedAtDesc(
-                                habit.getId(), startOfMonth, LocalDateTime.now()
-                        ).stream())
-                .count();
-        
+        // Calculate weekly and monthly completions from the completion bitmaps
+        Map<UUID, CompletionHistory> histories = completionHistoryService.getHistories(
+                allHabits.stream().map(Habit::getId).toList());
+
+        int weeklyCompletions = histories.values().stream()
+                .mapToInt(history -> history.countBetween(today.minusDays(7), today))
+                .sum();
+
+        int monthlyCompletions = histories.values().stream()
+                .mapToInt(history -> history.countBetween(today.minusDays(30), today))
+                .sum();
+
         int completedToday = completedTodayCounter.get();
 
         // Calculate completion rate for today
@@ -126,6 +114,8 @@ public class DashboardService {
                 .category(habit.getCategory())
                 .frequency(habit.getFrequency())
                 .targetCount(habit.getTargetCount())
+                .scheduleDays(habit.getScheduleDays() != null
+                        ? ScheduledDaysStreakStrategy.toDays(habit.getScheduleDays()) : null)
                 .icon(habit.getIcon())
                 .color(habit.getColor())
                 .reminderEnabled(habit.getReminderEnabled())
@@ -0,0 +1,271 @@
+package com.devhabits.service;
+
+import com.devhabits.model.dto.response.DashboardEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-sent event connections of the dashboard on this node.
+ * Idle connections hold no thread (servlet async) and writes are non-blocking (WriteListener):
+ * an event is written by the thread dispatching it while the socket takes data, otherwise it
+ * waits in the connection's bounded buffer until the container reports the socket writable.
+ * A slow client never holds a thread: it is closed when its buffer overflows or when it has not
+ * taken data for send-timeout, and reconnects and reloads.
+ */
+@Slf4j
+@Service
+public class DashboardStreamService {
+
+    private static final byte[] CONNECTED = "retry:5000\n:connected\n\n".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] HEARTBEAT = ":heartbeat\n\n".getBytes(StandardCharsets.UTF_8);
+
+    private final Map<UUID, Set<Connection>> connections = new ConcurrentHashMap<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final ObjectMapper objectMapper;
+
+    private final Duration timeout;
+    private final Duration sendTimeout;
+    private final int bufferSize;
+    private final int maxConnectionsPerUser;
+
+    public DashboardStreamService(
+            ObjectMapper objectMapper,
+            @Value("${app.dashboard-stream.timeout:30m}") Duration timeout,
+            @Value("${app.dashboard-stream.send-timeout:10s}") Duration sendTimeout,
+            @Value("${app.dashboard-stream.buffer-size:32}") int bufferSize,
+            @Value("${app.dashboard-stream.max-connections-per-user:5}") int maxConnectionsPerUser
+    ) {
+        this.objectMapper = objectMapper;
+        this.timeout = timeout;
+        this.sendTimeout = sendTimeout;
+        this.bufferSize = bufferSize;
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+    }
+
+    /**
+     * Open a stream for a user on the request, which goes async
+     */
+    public void connect(UUID userId, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+
+        AsyncContext asyncContext = request.startAsync(request, response);
+        asyncContext.setTimeout(timeout.toMillis());
+        Connection connection = new Connection(userId, asyncContext, response.getOutputStream(), bufferSize);
+        asyncContext.addListener(connection);
+
+        // Add and remove inside compute so an emptied set is never dropped while a connection joins it
+        Set<Connection> userConnections = connections.compute(userId, (id, current) -> {
+            Set<Connection> set = current != null ? current : new CopyOnWriteArraySet<>();
+            set.add(connection);
+            return set;
+        });
+        connectionCount.incrementAndGet();
+
+        // Too many tabs open: drop the oldest streams of this user
+        userConnections.stream()
+                .limit(Math.max(0, userConnections.size() - maxConnectionsPerUser))
+                .toList()
+                .forEach(this::close);
+
+        connection.buffer.offer(CONNECTED);
+        // From here on the container calls onWritePossible whenever the socket takes data again
+        connection.out.setWriteListener(connection);
+        log.debug("Dashboard stream opened for user: {} ({} open on this node)", userId, connectionCount.get());
+    }
+
+    /**
+     * Push events to the streams of a user open on this node
+     */
+    public void dispatch(UUID userId, List<DashboardEvent> events) {
+        Set<Connection> userConnections = connections.get(userId);
+        if (userConnections == null) {
+            return;
+        }
+
+        for (DashboardEvent event : events) {
+            byte[] frame;
+            try {
+                frame = ("event:" + event.getType().name().toLowerCase() + "\ndata:"
+                        + objectMapper.writeValueAsString(event) + "\n\n").getBytes(StandardCharsets.UTF_8);
+            } catch (JsonProcessingException e) {
+                log.warn("Failed to serialize dashboard event {}: {}", event.getType(), e.getMessage());
+                continue;
+            }
+            userConnections.forEach(connection -> enqueue(connection, frame));
+        }
+    }
+
+    /**
+     * Comment line on every stream, keeps proxies from closing idle connections and detects dead clients.
+     * Streams whose client has not taken data for send-timeout are closed.
+     */
+    @Scheduled(fixedDelayString = "${app.dashboard-stream.heartbeat-interval:25s}")
+    public void heartbeat() {
+        long now = System.nanoTime();
+        connections.values().forEach(userConnections -> userConnections.forEach(connection -> {
+            if (connection.blockedFor(now) > sendTimeout.toNanos()) {
+                log.debug("Dashboard stream of user {} stalled, closing it", connection.userId);
+                close(connection);
+            } else {
+                enqueue(connection, HEARTBEAT);
+            }
+        }));
+    }
+
+    public int getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        connections.values().forEach(userConnections -> userConnections.forEach(this::close));
+    }
+
+    private void enqueue(Connection connection, byte[] frame) {
+        if (!connection.buffer.offer(frame)) {
+            log.debug("Dashboard stream buffer full for user: {}, closing it", connection.userId);
+            close(connection);
+            return;
+        }
+        connection.write();
+    }
+
+    private void close(Connection connection) {
+        remove(connection);
+        try {
+            connection.asyncContext.complete();
+        } catch (IllegalStateException ignored) {
+            // Already completed
+        }
+    }
+
+    private void remove(Connection connection) {
+        AtomicBoolean removed = new AtomicBoolean();
+        connections.computeIfPresent(connection.userId, (id, set) -> {
+            removed.set(set.remove(connection));
+            return set.isEmpty() ? null : set;
+        });
+
+        if (removed.get()) {
+            connectionCount.decrementAndGet();
+            connection.buffer.clear();
+        }
+    }
+
+    private final class Connection implements WriteListener, AsyncListener {
+        private final UUID userId;
+        private final AsyncContext asyncContext;
+        private final ServletOutputStream out;
+        private final BlockingQueue<byte[]> buffer;
+        private boolean listening;
+        private boolean unflushed;
+        // When the socket stopped taking data, 0 while it does
+        private long blockedSince;
+
+        private Connection(UUID userId, AsyncContext asyncContext, ServletOutputStream out, int bufferSize) {
+            this.userId = userId;
+            this.asyncContext = asyncContext;
+            this.out = out;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        /**
+         * Write buffered frames as long as the socket takes them, without ever blocking
+         */
+        private synchronized void write() {
+            if (!listening) {
+                // Not registered yet: onWritePossible follows the registration
+                return;
+            }
+            try {
+                while (out.isReady()) {
+                    byte[] frame = buffer.poll();
+                    if (frame != null) {
+                        out.write(frame);
+                        unflushed = true;
+                    } else if (unflushed) {
+                        out.flush();
+                        unflushed = false;
+                    } else {
+                        blockedSince = 0;
+                        return;
+                    }
+                }
+                // isReady() returned false: the container calls onWritePossible once the socket drained
+                if (blockedSince == 0) {
+                    blockedSince = System.nanoTime();
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away or the stream already completed
+                remove(this);
+            }
+        }
+
+        private synchronized long blockedFor(long now) {
+            return blockedSince == 0 ? 0 : now - blockedSince;
+        }
+
+        @Override
+        public void onWritePossible() {
+            synchronized (this) {
+                listening = true;
+            }
+            write();
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            close(this);
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            remove(this);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            close(this);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            close(this);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Not restarted
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.devhabits.service;
+
+import com.devhabits.model.enums.GitHubEventType;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Pages of a user's past GitHub activity, for the history backfill: the commits they authored in
+ * each tracked repository, then their pull requests, reviews and issues from their events feed
+ * (GitHub keeps 90 days of it). Pages are followed through the Link header; each one reports the
+ * rate limit left so the caller can pause before running out.
+ */
+@Slf4j
+@Component
+public class GitHubActivityClient {
+
+    public static final String EVENTS_SOURCE = "events";
+
+    private static final String COMMITS_SOURCE_PREFIX = "commits:";
+    private static final Pattern NEXT_LINK = Pattern.compile("<([^>]+)>;\\s*rel=\"next\"");
+    private static final int PAGE_SIZE = 100;
+
+    private final RestTemplate restTemplate;
+    private final String apiUrl;
+
+    public GitHubActivityClient(
+            RestTemplate restTemplate,
+            @Value("${app.github.api-url:https://api.github.com}") String apiUrl
+    ) {
+        this.restTemplate = restTemplate;
+        this.apiUrl = apiUrl;
+    }
+
+    /**
+     * Source of the commits a user authored in a repository
+     */
+    public static String commitsSource(String repositoryFullName) {
+        return COMMITS_SOURCE_PREFIX + repositoryFullName;
+    }
+
+    /**
+     * URL of the first page of a source
+     */
+    public String firstPage(String source, String login, LocalDate since) {
+        if (source.startsWith(COMMITS_SOURCE_PREFIX)) {
+            return apiUrl + "/repos/" + source.substring(COMMITS_SOURCE_PREFIX.length()) + "/commits?author=" + login
+                    + "&since=" + since + "T00:00:00Z&per_page=" + PAGE_SIZE;
+        }
+        return apiUrl + "/users/" + login + "/events?per_page=" + PAGE_SIZE;
+    }
+
+    /**
+     * Fetch one page of a source. Repositories that are gone, empty or no longer readable give an
+     * empty last page; hitting the rate limit throws RateLimitedException with the time to resume at.
+     */
+    public ActivityPage fetch(String source, String url, String accessToken, LocalDate since) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(accessToken);
+        headers.set("Accept", "application/vnd.github.v3+json");
+
+        @SuppressWarnings("rawtypes")
+        ResponseEntity<List> response;
+        try {
+            response = restTemplate.exchange(URI.create(url), HttpMethod.GET, new HttpEntity<>(headers), List.class);
+        } catch (HttpClientErrorException e) {
+            RateLimit rateLimit = rateLimit(e.getResponseHeaders());
+            Instant resumeAt = resumeAt(e, rateLimit);
+            if (resumeAt != null) {
+                throw new RateLimitedException(resumeAt);
+            }
+            if (e.getStatusCode() == HttpStatus.UNAUTHORIZED) {
+                throw e;
+            }
+            // 404 (deleted), 409 (empty repository), 403/451 (access lost): nothing to import
+            log.debug("Skipping GitHub source {}: {}", source, e.getStatusCode());
+            return new ActivityPage(List.of(), null, rateLimit);
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> body = response.getBody() != null ? response.getBody() : List.of();
+        List<ActivityItem> items = new ArrayList<>(body.size());
+        boolean reachedSince = false;
+        for (Map<String, Object> entry : body) {
+            ActivityItem item = source.startsWith(COMMITS_SOURCE_PREFIX)
+                    ? commit(source.substring(COMMITS_SOURCE_PREFIX.length()), entry)
+                    : event(entry);
+            if (item == null) {
+                continue;
+            }
+            if (item.occurredAt().toLocalDate().isBefore(since)) {
+                // Newest first: the rest of the feed is older
+                reachedSince = true;
+                continue;
+            }
+            items.add(item);
+        }
+
+        String nextUrl = reachedSince ? null : nextPage(response.getHeaders());
+        return new ActivityPage(items, nextUrl, rateLimit(response.getHeaders()));
+    }
+
+    private static ActivityItem commit(String repositoryFullName, Map<String, Object> entry) {
+        String sha = (String) entry.get("sha");
+        Map<String, Object> commit = map(entry.get("commit"));
+        Map<String, Object> author = map(commit.get("author"));
+        OffsetDateTime date = timestamp(author.get("date"));
+        if (sha == null || date == null) {
+            return null;
+        }
+        return new ActivityItem(GitHubEventType.COMMIT, sha, repositoryFullName, sha,
+                (String) commit.get("message"), null, date);
+    }
+
+    private static ActivityItem event(Map<String, Object> entry) {
+        String repositoryFullName = (String) map(entry.get("repo")).get("name");
+        Map<String, Object> payload = map(entry.get("payload"));
+        String action = (String) payload.get("action");
+        OffsetDateTime createdAt = timestamp(entry.get("created_at"));
+        if (repositoryFullName == null || createdAt == null) {
+            return null;
+        }
+
+        // Event ids match the ones of webhooks, so a webhook and the backfill never both record an event
+        return switch (String.valueOf(entry.get("type"))) {
+            case "PullRequestEvent" -> "opened".equals(action)
+                    ? numbered(GitHubEventType.PULL_REQUEST, "pr-", repositoryFullName, map(payload.get("pull_request")), createdAt)
+                    : null;
+            case "PullRequestReviewEvent" ->
+                    numbered(GitHubEventType.CODE_REVIEW, "pr-", repositoryFullName, map(payload.get("pull_request")), createdAt);
+            case "IssuesEvent" -> "opened".equals(action) || "closed".equals(action)
+                    ? numbered(GitHubEventType.ISSUE, "issue-", repositoryFullName, map(payload.get("issue")), createdAt)
+                    : null;
+            default -> null;
+        };
+    }
+
+    private static ActivityItem numbered(GitHubEventType type, String idPrefix, String repositoryFullName,
+                                         Map<String, Object> target, OffsetDateTime createdAt) {
+        if (!(target.get("number") instanceof Number number)) {
+            return null;
+        }
+        return new ActivityItem(type, idPrefix + repositoryFullName + "-" + number.intValue(), repositoryFullName,
+                null, (String) target.get("title"), number.intValue(), createdAt);
+    }
+
+    /**
+     * Next page from the Link header, only on the API host: the token is never sent elsewhere
+     */
+    private String nextPage(HttpHeaders headers) {
+        String link = headers.getFirst(HttpHeaders.LINK);
+        if (link == null) {
+            return null;
+        }
+        Matcher matcher = NEXT_LINK.matcher(link);
+        if (!matcher.find()) {
+            return null;
+        }
+        String next = matcher.group(1);
+        if (!next.startsWith(apiUrl + "/")) {
+            log.warn("Ignoring GitHub next page outside of the API: {}", next);
+            return null;
+        }
+        return next;
+    }
+
+    private static RateLimit rateLimit(HttpHeaders headers) {
+        if (headers == null) {
+            return null;
+        }
+        String remaining = headers.getFirst("X-RateLimit-Remaining");
+        String reset = headers.getFirst("X-RateLimit-Reset");
+        if (remaining == null || reset == null) {
+            return null;
+        }
+        try {
+            return new RateLimit(Integer.parseInt(remaining), Instant.ofEpochSecond(Long.parseLong(reset)));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * When a 403/429 is a primary or secondary rate limit, the time to resume at
+     */
+    private static Instant resumeAt(HttpClientErrorException e, RateLimit rateLimit) {
+        if (e.getStatusCode() != HttpStatus.FORBIDDEN && e.getStatusCode() != HttpStatus.TOO_MANY_REQUESTS) {
+            return null;
+        }
+        String retryAfter = e.getResponseHeaders() != null ? e.getResponseHeaders().getFirst(HttpHeaders.RETRY_AFTER) : null;
+        if (retryAfter != null) {
+            try {
+                return Instant.now().plusSeconds(Long.parseLong(retryAfter));
+            } catch (NumberFormatException ignored) {
+                // HTTP-date form is not used by GitHub, fall back on the reset time
+            }
+        }
+        if (rateLimit != null && rateLimit.remaining() == 0) {
+            return rateLimit.reset();
+        }
+        return e.getStatusCode() == HttpStatus.TOO_MANY_REQUESTS ? Instant.now().plusSeconds(60) : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> map(Object value) {
+        return value instanceof Map ? (Map<String, Object>) value : Map.of();
+    }
+
+    private static OffsetDateTime timestamp(Object value) {
+        if (value instanceof String text) {
+            try {
+                return OffsetDateTime.parse(text);
+            } catch (DateTimeParseException e) {
+                log.debug("Unparseable GitHub timestamp: {}", text);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * A commit, pull request, review or issue to import
+     */
+    public record ActivityItem(
+            GitHubEventType type,
+            String eventId,
+            String repositoryFullName,
+            String commitSha,
+            String title,
+            Integer number,
+            OffsetDateTime occurredAt
+    ) {
+        public String repositoryName() {
+            return repositoryFullName.substring(repositoryFullName.indexOf('/') + 1);
+        }
+    }
+
+    /**
+     * Items of a page, the URL of the next one (null on the last) and the rate limit left
+     */
+    public record ActivityPage(List<ActivityItem> items, String nextUrl, RateLimit rateLimit) {
+    }
+
+    public record RateLimit(int remaining, Instant reset) {
+    }
+
+    @Getter
+    public static class RateLimitedException extends RuntimeException {
+
+        private final Instant resumeAt;
+
+        public RateLimitedException(Instant resumeAt) {
+            super("GitHub rate limit reached until " + resumeAt);
+            this.resumeAt = resumeAt;
+        }
+    }
+}
@@ -0,0 +1,375 @@
+package com.devhabits.service;
+
+import com.devhabits.model.entity.GitHubBackfill;
+import com.devhabits.model.entity.GitHubConnection;
+import com.devhabits.model.entity.GitHubRepository;
+import com.devhabits.model.entity.Habit;
+import com.devhabits.model.enums.GitHubEventType;
+import com.devhabits.repository.GitHubBackfillRepository;
+import com.devhabits.repository.GitHubConnectionRepository;
+import com.devhabits.repository.GitHubEventRepository;
+import com.devhabits.repository.GitHubEventRepository.BackfillImport;
+import com.devhabits.repository.GitHubRepositoryRepo;
+import com.devhabits.repository.HabitRepository;
+import com.devhabits.repository.UserRepository;
+import com.devhabits.security.TokenVault;
+import com.devhabits.service.GitHubActivityClient.ActivityItem;
+import com.devhabits.service.GitHubActivityClient.ActivityPage;
+import com.devhabits.service.GitHubActivityClient.RateLimitedException;
+import com.devhabits.util.StreakCalculator;
+import com.devhabits.util.streak.StreakResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.annotation.Observed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.UUID;
+
+/**
+ * Imports the GitHub history of newly connected users: the commits they authored in each tracked
+ * repository, then their pull requests, reviews and issues, as github_events and as habit_logs of
+ * their auto-tracked habits. Each page is copied into a temporary table with COPY and imported with
+ * a single statement, in one transaction with the checkpoint: a restart resumes after the last
+ * imported page, and rows imported twice (or already recorded by a webhook) are skipped.
+ * Streaks are recomputed once, with the last page.
+ */
+@Slf4j
+@Service
+@Observed(name = "devhabits.service")
+@RequiredArgsConstructor
+public class GitHubBackfillService {
+
+    private static final String STAGING_TABLE = "CREATE TEMP TABLE github_backfill_items (" +
+            "event_type VARCHAR(50), event_id TEXT, repository_name TEXT, repository_full_name TEXT, " +
+            "commit_sha VARCHAR(40), commit_message TEXT, pull_request_number INTEGER, pull_request_title TEXT, " +
+            "issue_number INTEGER, issue_title TEXT, note TEXT, occurred_at TIMESTAMP) ON COMMIT DROP";
+
+    private static final String COPY_ITEMS = "COPY github_backfill_items (" +
+            "event_type, event_id, repository_name, repository_full_name, commit_sha, commit_message, " +
+            "pull_request_number, pull_request_title, issue_number, issue_title, note, occurred_at) " +
+            "FROM STDIN WITH (FORMAT csv)";
+
+    private final GitHubBackfillRepository backfillRepository;
+    private final GitHubConnectionRepository connectionRepository;
+    private final GitHubRepositoryRepo repositoryRepo;
+    private final GitHubEventRepository eventRepository;
+    private final HabitRepository habitRepository;
+    private final UserRepository userRepository;
+    private final CompletionHistoryService completionHistoryService;
+    private final UserDataVersionService userDataVersionService;
+    private final GitHubActivityClient activityClient;
+    private final TokenVault tokenVault;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.github.backfill.window}")
+    private Duration window;
+
+    @Value("${app.github.backfill.pages-per-run}")
+    private int pagesPerRun;
+
+    @Value("${app.github.backfill.rate-limit-reserve}")
+    private int rateLimitReserve;
+
+    @Value("${app.github.backfill.lease}")
+    private Duration lease;
+
+    @Value("${app.github.backfill.retry-delay}")
+    private Duration retryDelay;
+
+    @Value("${app.github.backfill.max-attempts}")
+    private int maxAttempts;
+
+    /**
+     * Schedule the backfill of a user's history. One in progress keeps its checkpoint,
+     * a finished one starts over (the import skips what it already has).
+     */
+    @Transactional
+    public void schedule(UUID userId) {
+        LocalDate since = LocalDate.now().minusDays(window.toDays());
+        GitHubBackfill backfill = backfillRepository.findById(userId)
+                .orElseGet(() -> GitHubBackfill.builder().userId(userId).sinceDate(since).build());
+
+        if (backfill.getVersion() != null) {
+            if (backfill.isInProgress()) {
+                log.debug("GitHub backfill of user {} already in progress", userId);
+                return;
+            }
+            backfill.restart(since);
+        }
+
+        backfillRepository.save(backfill);
+        log.info("GitHub backfill scheduled for user {} since {}", userId, since);
+    }
+
+    /**
+     * Run a user's backfill from its checkpoint, up to pages-per-run pages.
+     * Returns false when another node holds it.
+     */
+    public boolean run(UUID userId) {
+        LocalDateTime now = LocalDateTime.now();
+        Integer claimed = transactionTemplate.execute(status -> backfillRepository.claim(userId, now, now.plus(lease)));
+        if (claimed == null || claimed == 0) {
+            return false;
+        }
+
+        try {
+            runClaimed(userId);
+        } finally {
+            transactionTemplate.executeWithoutResult(status -> backfillRepository.release(userId));
+        }
+        return true;
+    }
+
+    private void runClaimed(UUID userId) {
+        GitHubBackfill backfill = backfillRepository.findById(userId).orElseThrow();
+
+        GitHubConnection connection = connectionRepository.findByUserIdAndIsActiveTrue(userId).orElse(null);
+        if (connection == null) {
+            fail(backfill, "GitHub account disconnected");
+            return;
+        }
+        String accessToken = tokenVault.decrypt(connection.getAccessToken());
+        List<String> sources = sources(userId);
+
+        try {
+            for (int page = 0; page < pagesPerRun; page++) {
+                int index = currentSource(backfill, sources);
+                String source = sources.get(index);
+                String nextSource = index + 1 < sources.size() ? sources.get(index + 1) : null;
+                String url = source.equals(backfill.getSource()) && backfill.getNextUrl() != null
+                        ? backfill.getNextUrl()
+                        : activityClient.firstPage(source, connection.getGithubUsername(), backfill.getSinceDate());
+
+                ActivityPage activity = activityClient.fetch(source, url, accessToken, backfill.getSinceDate());
+                backfill = importPage(backfill, source, activity, nextSource);
+                countPage("imported");
+
+                if (!backfill.isInProgress()) {
+                    log.info("GitHub backfill of user {} completed: {} habit logs, {} events",
+                            userId, backfill.getImportedLogs(), backfill.getImportedEvents());
+                    return;
+                }
+                if (activity.rateLimit() != null && activity.rateLimit().remaining() <= rateLimitReserve) {
+                    // Leave the rest of the hourly quota to the user's own requests
+                    pause(backfill, LocalDateTime.ofInstant(activity.rateLimit().reset(), ZoneId.systemDefault()));
+                    return;
+                }
+            }
+        } catch (RateLimitedException e) {
+            countPage("rate_limited");
+            pause(backfill, LocalDateTime.ofInstant(e.getResumeAt(), ZoneId.systemDefault()));
+        } catch (HttpClientErrorException.Unauthorized e) {
+            countPage("failed");
+            fail(backfill, "GitHub token revoked");
+        } catch (RestClientException e) {
+            countPage("failed");
+            retryLater(backfill, e.getMessage());
+        }
+    }
+
+    /**
+     * Commits of each tracked repository by name, then the events feed. Sorted, so a checkpoint
+     * on a repository no longer tracked resumes with the one after it.
+     */
+    private List<String> sources(UUID userId) {
+        List<String> sources = new ArrayList<>(repositoryRepo.findByUserIdAndIsTrackedTrue(userId).stream()
+                .map(GitHubRepository::getRepositoryFullName)
+                .map(GitHubActivityClient::commitsSource)
+                .sorted()
+                .toList());
+        sources.add(GitHubActivityClient.EVENTS_SOURCE);
+        return sources;
+    }
+
+    private static int currentSource(GitHubBackfill backfill, List<String> sources) {
+        if (backfill.getSource() == null) {
+            return 0;
+        }
+        for (int i = 0; i < sources.size(); i++) {
+            if (sources.get(i).compareTo(backfill.getSource()) >= 0) {
+                return i;
+            }
+        }
+        return sources.size() - 1;
+    }
+
+    /**
+     * Import a page and move the checkpoint past it in the same transaction, finishing the backfill
+     * with the last page. A concurrent run that moved the checkpoint first fails on its version.
+     */
+    private GitHubBackfill importPage(GitHubBackfill backfill, String source, ActivityPage activity, String nextSource) {
+        UUID userId = backfill.getUserId();
+        return transactionTemplate.execute(status -> {
+            long logs = 0;
+            long events = 0;
+            if (!activity.items().isEmpty()) {
+                stage(activity.items());
+                BackfillImport imported = eventRepository.importBackfillItems(userId, HabitService.XP_PER_COMPLETION);
+                logs = imported.getLogs();
+                events = imported.getEvents();
+                recordCommits(userId, activity.items());
+            }
+            if (logs > 0) {
+                userRepository.addXp(userId, (int) logs * HabitService.XP_PER_COMPLETION);
+            }
+
+            if (activity.nextUrl() != null) {
+                backfill.advance(source, activity.nextUrl(), logs, events);
+            } else if (nextSource != null) {
+                backfill.advance(nextSource, null, logs, events);
+            } else {
+                backfill.advance(source, null, logs, events);
+                recomputeStreaks(userId);
+                backfill.complete();
+            }
+            return backfillRepository.save(backfill);
+        });
+    }
+
+    /**
+     * Copy the items of a page into a temporary table dropped at commit
+     */
+    private void stage(List<ActivityItem> items) {
+        StringBuilder csv = new StringBuilder(items.size() * 256);
+        for (ActivityItem item : items) {
+            csv.append(item.type().name()).append(',');
+            appendCsv(csv, item.eventId()).append(',');
+            appendCsv(csv, item.repositoryName()).append(',');
+            appendCsv(csv, item.repositoryFullName()).append(',');
+            appendCsv(csv, item.commitSha()).append(',');
+            appendCsv(csv, item.type() == GitHubEventType.COMMIT ? item.title() : null).append(',');
+            appendCsv(csv, item.type() == GitHubEventType.PULL_REQUEST || item.type() == GitHubEventType.CODE_REVIEW
+                    ? item.number() : null).append(',');
+            appendCsv(csv, item.type() == GitHubEventType.PULL_REQUEST || item.type() == GitHubEventType.CODE_REVIEW
+                    ? item.title() : null).append(',');
+            appendCsv(csv, item.type() == GitHubEventType.ISSUE ? item.number() : null).append(',');
+            appendCsv(csv, item.type() == GitHubEventType.ISSUE ? item.title() : null).append(',');
+            appendCsv(csv, note(item)).append(',');
+            // Server time, as the completions of check-ins and webhooks
+            csv.append(item.occurredAt().atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime()).append('\n');
+        }
+
+        jdbcTemplate.execute(STAGING_TABLE);
+        jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_ITEMS, new StringReader(csv.toString()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Quoted CSV field, null left empty and unquoted (COPY's NULL)
+     */
+    private static StringBuilder appendCsv(StringBuilder csv, Object value) {
+        if (value == null) {
+            return csv;
+        }
+        return csv.append('"').append(value.toString().replace("\"", "\"\"")).append('"');
+    }
+
+    private static String note(ActivityItem item) {
+        return switch (item.type()) {
+            case COMMIT -> "GitHub Commit: " + item.title();
+            case PULL_REQUEST -> "GitHub PR: " + item.title();
+            case CODE_REVIEW -> "GitHub Code Review completed";
+            case ISSUE -> "GitHub Issue: " + item.title();
+        };
+    }
+
+    /**
+     * Add imported commits to the commit set and daily stats, so their later pushes count nothing
+     */
+    private void recordCommits(UUID userId, List<ActivityItem> items) {
+        StringJoiner shas = new StringJoiner(",");
+        StringJoiner days = new StringJoiner(",");
+        String repositoryFullName = null;
+        for (ActivityItem item : items) {
+            if (item.type() == GitHubEventType.COMMIT) {
+                shas.add(item.commitSha().toLowerCase());
+                days.add(item.occurredAt().toLocalDate().toString());
+                repositoryFullName = item.repositoryFullName();
+            }
+        }
+        if (repositoryFullName != null) {
+            eventRepository.recordCommits(userId, repositoryFullName, shas.toString(), days.toString());
+        }
+    }
+
+    /**
+     * Rebuild the completion history and streaks of the auto-tracked habits from their logs,
+     * then the user's streaks
+     */
+    private void recomputeStreaks(UUID userId) {
+        List<Habit> habits = habitRepository.findByUserIdAndIsActiveTrue(userId).stream()
+                .filter(Habit::getGithubAutoTrack)
+                .toList();
+
+        int longestStreak = 0;
+        for (Habit habit : habits) {
+            StreakResult streaks = StreakCalculator.calculate(habit, completionHistoryService.rebuild(habit.getId()));
+            habitRepository.applyRecomputedStreaks(habit.getId(), streaks.currentStreak(), streaks.longestStreak());
+            longestStreak = Math.max(longestStreak, streaks.longestStreak());
+        }
+
+        if (!habits.isEmpty()) {
+            userRepository.recomputeCurrentStreaks(List.of(userId));
+            userRepository.raiseStreaks(userId, 0, longestStreak);
+        }
+        userDataVersionService.bumpAfterCommit(userId);
+    }
+
+    private void pause(GitHubBackfill backfill, LocalDateTime resumeAt) {
+        log.info("GitHub backfill of user {} paused by the rate limit until {}", backfill.getUserId(), resumeAt);
+        backfill.setResumeAt(resumeAt);
+        save(backfill);
+    }
+
+    private void retryLater(GitHubBackfill backfill, String error) {
+        backfill.setAttempts(backfill.getAttempts() + 1);
+        if (backfill.getAttempts() >= maxAttempts) {
+            fail(backfill, error);
+            return;
+        }
+        log.warn("GitHub backfill of user {} failed (attempt {}): {}", backfill.getUserId(), backfill.getAttempts(), error);
+        backfill.setLastError(error);
+        backfill.setResumeAt(LocalDateTime.now().plus(retryDelay.multipliedBy(backfill.getAttempts())));
+        save(backfill);
+    }
+
+    private void fail(GitHubBackfill backfill, String error) {
+        log.warn("GitHub backfill of user {} failed: {}", backfill.getUserId(), error);
+        backfill.fail(error);
+        save(backfill);
+    }
+
+    private void save(GitHubBackfill backfill) {
+        transactionTemplate.executeWithoutResult(status -> backfillRepository.save(backfill));
+    }
+
+    private void countPage(String result) {
+        meterRegistry.counter("devhabits.github.backfill.pages", "result", result).increment();
+    }
+}
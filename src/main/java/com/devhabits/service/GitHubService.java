@@ -1,11 +1,16 @@
 package com.devhabits.service;
 
+import com.devhabits.aspect.RetryOnConflict;
 import com.devhabits.exception.BadRequestException;
 import com.devhabits.exception.ResourceNotFoundException;
 import com.devhabits.model.dto.github.*;
 import com.devhabits.model.entity.*;
+import com.devhabits.model.enums.DomainEventType;
 import com.devhabits.model.enums.GitHubEventType;
 import com.devhabits.repository.*;
+import com.devhabits.security.TokenVault;
+import com.devhabits.security.WebhookSecretCache;
+import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -14,11 +19,17 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.client.RestTemplate;
 
+import java.security.SecureRandom;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Service
+@Observed(name = "devhabits.service")
 @RequiredArgsConstructor
 @Slf4j
 public class GitHubService {
@@ -28,7 +39,11 @@ public class GitHubService {
     private final GitHubRepositoryRepo repositoryRepo;
     private final HabitRepository habitRepository;
     private final HabitService habitService;
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final OutboxService outboxService;
+    private final UserDataVersionService userDataVersionService;
+    private final RestTemplate restTemplate;
+    private final TokenVault tokenVault;
+    private final WebhookSecretCache webhookSecretCache;
 
     @Value("${spring.security.oauth2.client.registration.github.client-id}")
     private String githubClientId;
@@ -38,6 +53,9 @@ public class GitHubService {
 
     private static final String GITHUB_API_URL = "https://api.github.com";
     private static final String GITHUB_OAUTH_TOKEN_URL = "https://github.com/login/oauth/access_token";
+    private static final int WEBHOOK_SECRET_LENGTH = 32;
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+    private static final Pattern COMMIT_SHA = Pattern.compile("[0-9a-fA-F]{40}");
 
     /**
      * Exchange GitHub OAuth code for access token and connect user account
@@ -65,7 +83,7 @@ public class GitHubService {
                     existing.setGithubUsername(githubUser.getLogin());
                     existing.setGithubEmail(githubUser.getEmail());
                     existing.setGithubAvatarUrl(githubUser.getAvatarUrl());
-                    existing.setAccessToken(accessToken);
+                    existing.setAccessToken(tokenVault.encrypt(accessToken));
                     existing.setScope("user:email,read:user,repo");
                     existing.reconnect();
                     return existing;
@@ -76,14 +94,16 @@ public class GitHubService {
                         .githubUsername(githubUser.getLogin())
                         .githubEmail(githubUser.getEmail())
                         .githubAvatarUrl(githubUser.getAvatarUrl())
-                        .accessToken(accessToken)
+                        .accessToken(tokenVault.encrypt(accessToken))
                         .scope("user:email,read:user,repo")
                         .build());
 
         connection = connectionRepository.save(connection);
 
-        // Sync repositories
-        syncUserRepositories(userId, accessToken);
+        // Repositories are synced off the request path once this commits
+        outboxService.append(userId, DomainEventType.GITHUB_CONNECTED, Map.of(
+                "githubUserId", githubUser.getId(),
+                "githubUsername", githubUser.getLogin()));
 
         log.info("GitHub account connected successfully for user: {}", userId);
         return mapToConnectionResponse(connection);
@@ -99,23 +119,26 @@ public class GitHubService {
 
         connection.disconnect();
         connectionRepository.save(connection);
+        tokenVault.evict(connection.getAccessToken());
 
         log.info("GitHub account disconnected for user: {}", userId);
     }
 
     /**
-     * Get GitHub connection status
+     * Get GitHub connection status.
+     * Not read-only: the cached query and entity are loaded from the primary, never from a lagging replica.
      */
-    @Transactional(readOnly = true)
+    @Transactional
     public Optional<GitHubConnectionResponse> getConnection(UUID userId) {
         return connectionRepository.findByUserIdAndIsActiveTrue(userId)
                 .map(this::mapToConnectionResponse);
     }
 
     /**
-     * Get user's GitHub repositories
+     * Get user's GitHub repositories.
+     * Not read-only: the cached query and entities are loaded from the primary, never from a lagging replica.
      */
-    @Transactional(readOnly = true)
+    @Transactional
     public List<GitHubRepoResponse> getUserRepositories(UUID userId) {
         return repositoryRepo.findByUserId(userId).stream()
                 .map(this::mapToRepoResponse)
@@ -136,10 +159,39 @@ public class GitHubService {
 
         repo.toggleTracking();
         repo = repositoryRepo.save(repo);
+        userDataVersionService.bumpAfterCommit(userId);
 
         return mapToRepoResponse(repo);
     }
 
+    /**
+     * Generate a new webhook secret for a repository, the previous one stops verifying
+     */
+    @Transactional
+    public GitHubWebhookSecretResponse rotateWebhookSecret(UUID userId, UUID repoId) {
+        GitHubRepository repo = repositoryRepo.findById(repoId)
+                .orElseThrow(() -> new ResourceNotFoundException("GitHubRepository", "id", repoId));
+
+        if (!repo.getUserId().equals(userId)) {
+            throw new BadRequestException("Repository does not belong to user");
+        }
+
+        byte[] random = new byte[WEBHOOK_SECRET_LENGTH];
+        SECURE_RANDOM.nextBytes(random);
+        String secret = HexFormat.of().formatHex(random);
+
+        repo.setWebhookSecret(tokenVault.encrypt(secret));
+        repositoryRepo.save(repo);
+        webhookSecretCache.evictAfterCommit(repo.getGithubRepoId());
+
+        log.info("Webhook secret rotated for repository {}", repo.getRepositoryFullName());
+        return GitHubWebhookSecretResponse.builder()
+                .repositoryId(repo.getId())
+                .repositoryFullName(repo.getRepositoryFullName())
+                .secret(secret)
+                .build();
+    }
+
     /**
      * Get recent GitHub events for user
      */
@@ -152,10 +204,12 @@ public class GitHubService {
     }
 
     /**
-     * Process GitHub webhook event
+     * Process GitHub webhook event for the user whose secret signed it.
+     * The sender is whoever triggered the event on GitHub: it never decides whose habits are completed.
      */
+    @RetryOnConflict
     @Transactional
-    public void processWebhookEvent(String eventType, GitHubWebhookPayload payload) {
+    public void processWebhookEvent(UUID userId, String eventType, GitHubWebhookPayload payload) {
         log.info("Processing GitHub webhook event: {}", eventType);
 
         // Determine event type
@@ -165,15 +219,23 @@ public class GitHubService {
             return;
         }
 
-        // Get user from GitHub sender ID
-        GitHubConnection connection = connectionRepository.findByGithubUserId(payload.getSender().getId())
-                .orElse(null);
-
-        if (connection == null || !connection.getIsActive()) {
-            log.debug("No active connection found for GitHub user: {}", payload.getSender().getLogin());
+        GitHubConnection connection = connectionRepository.findByUserIdAndIsActiveTrue(userId).orElse(null);
+        if (connection == null) {
+            log.debug("No active GitHub connection for user: {}", userId);
             return;
         }
 
+        // A push counts its new commits only: redeliveries, force-pushes and commits
+        // already pushed to another branch add nothing
+        long newCommits = 0;
+        if (githubEventType == GitHubEventType.COMMIT) {
+            newCommits = recordCommits(connection.getUserId(), payload);
+            if (newCommits == 0) {
+                log.debug("No new commit in push to {}", payload.getRepository().getFullName());
+                return;
+            }
+        }
+
         // Create event ID to prevent duplicates
         String eventId = generateEventId(eventType, payload);
 
@@ -200,7 +262,7 @@ public class GitHubService {
                 UUID habitLogId = habitService.autoCompleteHabitFromGitHub(
                         connection.getUserId(),
                         habit.getId(),
-                        generateEventNote(githubEventType, payload)
+                        generateEventNote(githubEventType, payload, newCommits)
                 );
 
                 // Create GitHub event record
@@ -233,11 +295,11 @@ public class GitHubService {
     public void syncUserRepositories(UUID userId) {
         log.info("Syncing repositories for user: {}", userId);
 
-        // Get access token from connection
+        // Get access token from connection, stored encrypted
         GitHubConnection connection = connectionRepository.findByUserIdAndIsActiveTrue(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("GitHubConnection", "userId", userId));
 
-        syncUserRepositories(userId, connection.getAccessToken());
+        syncUserRepositories(userId, tokenVault.decrypt(connection.getAccessToken()));
     }
 
     /**
@@ -284,6 +346,7 @@ public class GitHubService {
 
                     repositoryRepo.save(repo);
                 }
+                userDataVersionService.bumpAfterCommit(userId);
 
                 log.info("Synced {} repositories for user: {}", repos.size(), userId);
             }
@@ -372,9 +435,51 @@ public class GitHubService {
         };
     }
 
+    /**
+     * Add the pushed commits (the head commit when the list is absent) to the user's commit set
+     * and daily stats in a single statement, whatever their number
+     */
+    private long recordCommits(UUID userId, GitHubWebhookPayload payload) {
+        List<GitHubWebhookPayload.Commit> commits = payload.getCommits() != null ? payload.getCommits()
+                : payload.getHeadCommit() != null ? List.of(payload.getHeadCommit()) : List.of();
+
+        StringJoiner shas = new StringJoiner(",");
+        StringJoiner days = new StringJoiner(",");
+        for (GitHubWebhookPayload.Commit commit : commits) {
+            String sha = commitSha(commit);
+            if (sha != null && COMMIT_SHA.matcher(sha).matches()) {
+                shas.add(sha.toLowerCase());
+                days.add(commitDay(commit.getTimestamp()).toString());
+            }
+        }
+        if (shas.length() == 0) {
+            return 0;
+        }
+        return eventRepository.recordCommits(userId, payload.getRepository().getFullName(), shas.toString(), days.toString());
+    }
+
+    // GitHub names the SHA "id" in push payloads
+    private static String commitSha(GitHubWebhookPayload.Commit commit) {
+        return commit.getSha() != null ? commit.getSha() : commit.getId();
+    }
+
+    /**
+     * Day of the commit in the author's timezone, today when the timestamp is missing
+     */
+    private static LocalDate commitDay(String timestamp) {
+        if (timestamp != null) {
+            try {
+                return OffsetDateTime.parse(timestamp).toLocalDate();
+            } catch (DateTimeParseException e) {
+                log.debug("Unparseable commit timestamp: {}", timestamp);
+            }
+        }
+        return LocalDate.now();
+    }
+
     private String generateEventId(String eventType, GitHubWebhookPayload payload) {
-        if (payload.getHeadCommit() != null && payload.getHeadCommit().getSha() != null) {
-            return payload.getHeadCommit().getSha();
+        if (payload.getHeadCommit() != null && commitSha(payload.getHeadCommit()) != null) {
+            return commitSha(payload.getHeadCommit());
         }
         if (payload.getPullRequest() != null) {
             return "pr-" + payload.getRepository().getFullName() + "-" + payload.getPullRequest().getNumber();
@@ -385,11 +490,13 @@ public class GitHubService {
         return UUID.randomUUID().toString();
     }
 
-    private String generateEventNote(GitHubEventType eventType, GitHubWebhookPayload payload) {
+    private String generateEventNote(GitHubEventType eventType, GitHubWebhookPayload payload, long newCommits) {
         return switch (eventType) {
             case COMMIT -> {
                 String message = payload.getHeadCommit() != null ? payload.getHeadCommit().getMessage() : "Commit";
-                yield "GitHub Commit: " + message;
+                yield newCommits > 1
+                        ? "GitHub Commits (" + newCommits + "): " + message
+                        : "GitHub Commit: " + message;
             }
             case PULL_REQUEST -> {
                 String title = payload.getPullRequest() != null ? payload.getPullRequest().getTitle() : "PR";
@@ -417,7 +524,7 @@ public class GitHubService {
 
         // Add type-specific data
         if (eventType == GitHubEventType.COMMIT && payload.getHeadCommit() != null) {
-            eventBuilder.commitSha(payload.getHeadCommit().getSha())
+            eventBuilder.commitSha(commitSha(payload.getHeadCommit()))
                     .commitMessage(payload.getHeadCommit().getMessage());
         } else if (eventType == GitHubEventType.PULL_REQUEST && payload.getPullRequest() != null) {
             eventBuilder.pullRequestNumber(payload.getPullRequest().getNumber())
@@ -1,5 +1,6 @@
 package com.devhabits.service;
 
+import com.devhabits.aspect.RetryOnConflict;
 import com.devhabits.exception.BadRequestException;
 import com.devhabits.exception.ResourceNotFoundException;
 import com.devhabits.model.dto.request.CheckInRequest;
@@ -9,30 +10,47 @@ import com.devhabits.model.dto.response.HabitResponse;
 import com.devhabits.model.entity.Habit;
 import com.devhabits.model.entity.HabitLog;
 import com.devhabits.model.entity.User;
+import com.devhabits.model.enums.DomainEventType;
+import com.devhabits.model.enums.HabitFrequency;
 import com.devhabits.repository.HabitLogRepository;
 import com.devhabits.repository.HabitRepository;
 import com.devhabits.repository.UserRepository;
+import com.devhabits.util.CompletionHistory;
 import com.devhabits.util.StreakCalculator;
+import com.devhabits.util.streak.ScheduledDaysStreakStrategy;
+import com.devhabits.util.streak.StreakResult;
 
+import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
+@Observed(name = "devhabits.service")
 @RequiredArgsConstructor
 public class HabitService {
 
     private final HabitRepository habitRepository;
     private final HabitLogRepository habitLogRepository;
     private final UserRepository userRepository;
+    private final UserStreakService userStreakService;
+    private final CompletionHistoryService completionHistoryService;
+    private final UserDataVersionService userDataVersionService;
+    private final OutboxService outboxService;
+
+    static final int XP_PER_COMPLETION = 10;
 
     private boolean isCompletedToday(UUID habitId) {
         LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
@@ -51,6 +69,8 @@ public class HabitService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId.toString()));
 
+        Integer scheduleDays = resolveScheduleDays(request.getFrequency(), request.getScheduleDays());
+
         // Create habit
         Habit habit = Habit.builder()
                 .userId(userId)
@@ -59,6 +79,7 @@ public class HabitService {
                 .category(request.getCategory())
                 .frequency(request.getFrequency())
                 .targetCount(request.getTargetCount() != null ? request.getTargetCount() : 1)
+                .scheduleDays(scheduleDays)
                 .icon(request.getIcon())
                 .color(request.getColor())
                 .reminderEnabled(request.getReminderEnabled())
@@ -71,6 +92,8 @@ public class HabitService {
 
         habit = habitRepository.save(habit);
 
+        userDataVersionService.bumpAfterCommit(userId);
+
         log.info("Habit created successfully: {}", habit.getId());
 
         return mapToHabitResponse(habit, false, null);
@@ -81,23 +104,14 @@ public class HabitService {
      */
     @Transactional(readOnly = true)
     public List<HabitResponse> getUserHabits(UUID userId, Boolean includeArchived) {
-        log.info("Fetching habits for user: {}, includeArchived: {}", userId, includeArchived);
+        log.debug("Fetching habits for user: {}, includeArchived: {}", userId, includeArchived);
 
         List<Habit> habits = includeArchived != null && includeArchived
                 ? habitRepository.findByUserId(userId)
                 : habitRepository.findByUserIdAndIsActiveTrue(userId);
 
         return habits.stream()
-                .map(habit -> {
-                	LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
-                	LocalDateTime endOfDay = startOfDay.plusDays(1);
-                    boolean completedToday = isCompletedToday(habit.getId());
-                    LocalDateTime lastCompleted = habitLogRepository
-                            .findFirstByHabitIdOrderByCompletedAtDesc(habit.getId())
-                            .map(HabitLog::getCompletedAt)
-                            .orElse(null);
-                    return mapToHabitResponse(habit, completedToday, lastCompleted);
-                })
+                .map(this::mapToHabitResponse)
                 .collect(Collectors.toList());
     }
 
@@ -106,26 +120,18 @@ public class HabitService {
      */
     @Transactional(readOnly = true)
     public HabitResponse getHabitById(UUID userId, UUID habitId) {
-        log.info("Fetching habit: {} for user: {}", habitId, userId);
+        log.debug("Fetching habit: {} for user: {}", habitId, userId);
 
         Habit habit = habitRepository.findByIdAndUserId(habitId, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Habit", "id", habitId.toString()));
 
-        LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
-        LocalDateTime endOfDay = startOfDay.plusDays(1);
-        boolean completedToday = isCompletedToday(habit.getId());
-        
-        LocalDateTime lastCompleted = habitLogRepository
-                .findFirstByHabitIdOrderByCompletedAtDesc(habit.getId())
-                .map(HabitLog::getCompletedAt)
-                .orElse(null);
-
-        return mapToHabitResponse(habit, completedToday, lastCompleted);
+        return mapToHabitResponse(habit);
     }
 
     /**
      * Update a habit
      */
+    @RetryOnConflict
     @Transactional
     public HabitResponse updateHabit(UUID userId, UUID habitId, UpdateHabitRequest request) {
         log.info("Updating habit: {} for user: {}", habitId, userId);
@@ -133,12 +139,22 @@ public class HabitService {
         Habit habit = habitRepository.findByIdAndUserId(habitId, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Habit", "id", habitId.toString()));
 
+        HabitFrequency previousFrequency = habit.getFrequency();
+        Integer previousTargetCount = habit.getTargetCount();
+        Integer previousScheduleDays = habit.getScheduleDays();
+
         // Update fields if provided
         if (request.getName() != null) habit.setName(request.getName());
         if (request.getDescription() != null) habit.setDescription(request.getDescription());
         if (request.getCategory() != null) habit.setCategory(request.getCategory());
         if (request.getFrequency() != null) habit.setFrequency(request.getFrequency());
         if (request.getTargetCount() != null) habit.setTargetCount(request.getTargetCount());
+        if (request.getFrequency() != null || request.getScheduleDays() != null) {
+            Set<DayOfWeek> days = request.getScheduleDays() != null
+                    ? request.getScheduleDays()
+                    : habit.getScheduleDays() != null ? ScheduledDaysStreakStrategy.toDays(habit.getScheduleDays()) : null;
+            habit.setScheduleDays(resolveScheduleDays(habit.getFrequency(), days));
+        }
         if (request.getIcon() != null) habit.setIcon(request.getIcon());
         if (request.getColor() != null) habit.setColor(request.getColor());
         if (request.getReminderEnabled() != null) habit.setReminderEnabled(request.getReminderEnabled());
@@ -146,23 +162,34 @@ public class HabitService {
         if (request.getGithubAutoTrack() != null) habit.setGithubAutoTrack(request.getGithubAutoTrack());
         if (request.getGithubEventType() != null) habit.setGithubEventType(request.getGithubEventType());
 
+        // Streak rules changed: recompute stored streaks with the new strategy
+        boolean streakRulesChanged = habit.getFrequency() != previousFrequency
+                || !Objects.equals(habit.getTargetCount(), previousTargetCount)
+                || !Objects.equals(habit.getScheduleDays(), previousScheduleDays);
+        int previousStreak = habit.getCurrentStreak();
+        if (streakRulesChanged) {
+            StreakResult streaks = StreakCalculator.calculate(habit, completionHistoryService.getHistory(habitId));
+            habit.setCurrentStreak(streaks.currentStreak());
+            habit.setLongestStreak(streaks.longestStreak());
+        }
+
         habit = habitRepository.save(habit);
 
-        boolean completedToday = isCompletedToday(habit.getId());
-        
-        LocalDateTime lastCompleted = habitLogRepository
-                .findFirstByHabitIdOrderByCompletedAtDesc(habit.getId())
-                .map(HabitLog::getCompletedAt)
-                .orElse(null);
+        if (streakRulesChanged && habit.getIsActive()) {
+            userStreakService.onHabitStreakChanged(userId, previousStreak, habit.getCurrentStreak(), habit.getLongestStreak());
+        }
+
+        userDataVersionService.bumpAfterCommit(userId);
 
         log.info("Habit updated successfully: {}", habitId);
 
-        return mapToHabitResponse(habit, completedToday, lastCompleted);
+        return mapToHabitResponse(habit);
     }
 
     /**
      * Delete (archive) a habit
      */
+    @RetryOnConflict
     @Transactional
     public void deleteHabit(UUID userId, UUID habitId) {
         log.info("Deleting habit: {} for user: {}", habitId, userId);
@@ -173,12 +200,44 @@ public class HabitService {
         habit.archive();
         habitRepository.save(habit);
 
+        userStreakService.onHabitArchived(userId, habit.getCurrentStreak());
+
+        userDataVersionService.bumpAfterCommit(userId);
+
         log.info("Habit archived successfully: {}", habitId);
     }
 
+    /**
+     * Restore an archived habit
+     */
+    @RetryOnConflict
+    @Transactional
+    public HabitResponse restoreHabit(UUID userId, UUID habitId) {
+        log.info("Restoring habit: {} for user: {}", habitId, userId);
+
+        Habit habit = habitRepository.findByIdAndUserId(habitId, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Habit", "id", habitId.toString()));
+
+        if (habit.getIsActive()) {
+            throw new BadRequestException("Habit is not archived");
+        }
+
+        habit.restore();
+        habit = habitRepository.save(habit);
+
+        userStreakService.onHabitRestored(userId, habit.getCurrentStreak(), habit.getLongestStreak());
+
+        userDataVersionService.bumpAfterCommit(userId);
+
+        log.info("Habit restored successfully: {}", habitId);
+
+        return mapToHabitResponse(habit);
+    }
+
     /**
      * Check-in a habit (mark as done today)
      */
+    @RetryOnConflict
     @Transactional
     public HabitResponse checkInHabit(UUID userId, UUID habitId, CheckInRequest request) {
         log.info("Check-in habit: {} for user: {}", habitId, userId);
@@ -191,44 +250,14 @@ public class HabitService {
             throw new BadRequestException("Habit already completed today");
         }
 
-        // Create habit log
-        HabitLog habitLog = HabitLog.builder()
-                .habitId(habitId)
-                .userId(userId)
-                .completedAt(LocalDateTime.now())
-                .note(request.getNote())
-                .xpEarned(10)
-                .build();
-
-        habitLogRepository.save(habitLog);
-
-        // Update habit stats
-        habit.incrementCompletions();
-        
-        // Calculate and update streaks
-        List<HabitLog> allLogs = habitLogRepository.findByHabitIdOrderByCompletedAtDesc(habitId);
-	        int currentStreak = StreakCalculator.calculateCurrentStreak(allLogs);
-	        int longestStreak = StreakCalculator.calculateLongestStreak(allLogs);
-	
-	        habit.setCurrentStreak(currentStreak);
-	        if (longestStreak > habit.getLongestStreak()) {
-	            habit.setLongestStreak(longestStreak);
-        }
-
-        // Update user XP
-        User user = userRepository.findById(userId).orElseThrow();
-        user.addXp(10);
-        
-     // Update user's overall streak (max of all habits)
-        updateUserOverallStreak(userId);
-        
-        userRepository.save(user);
+        HabitLog habitLog = recordCompletion(habit, request.getNote());
 
-        habit = habitRepository.save(habit);
+        // Counters were updated in SQL, reload the habit to return the persisted values
+        habit = habitRepository.findById(habitId).orElseThrow();
 
         log.info("Habit checked-in successfully: {}", habitId);
 
-        return mapToHabitResponse(habit, true, LocalDateTime.now());
+        return mapToHabitResponse(habit, true, habitLog.getCompletedAt());
     }
     
     /**
@@ -236,6 +265,7 @@ public class HabitService {
      * Similar to checkInHabit but allows completion even if already done today
      * Returns the HabitLog ID
      */
+    @RetryOnConflict
     @Transactional
     public UUID autoCompleteHabitFromGitHub(UUID userId, UUID habitId, String note) {
         log.info("Auto-completing habit from GitHub: {} for user: {}", habitId, userId);
@@ -252,39 +282,7 @@ public class HabitService {
                     .orElseThrow();
         }
 
-        // Create habit log
-        HabitLog habitLog = HabitLog.builder()
-                .habitId(habitId)
-                .userId(userId)
-                .completedAt(LocalDateTime.now())
-                .note(note)
-                .xpEarned(10)
-                .build();
-
-        habitLog = habitLogRepository.save(habitLog);
-
-        // Update habit stats
-        habit.incrementCompletions();
-
-        // Calculate and update streaks
-        List<HabitLog> allLogs = habitLogRepository.findByHabitIdOrderByCompletedAtDesc(habitId);
-        int currentStreak = StreakCalculator.calculateCurrentStreak(allLogs);
-        int longestStreak = StreakCalculator.calculateLongestStreak(allLogs);
-
-        habit.setCurrentStreak(currentStreak);
-        if (longestStreak > habit.getLongestStreak()) {
-            habit.setLongestStreak(longestStreak);
-        }
-
-        // Update user XP
-        User user = userRepository.findById(userId).orElseThrow();
-        user.addXp(10);
-
-        // Update user's overall streak (max of all habits)
-        updateUserOverallStreak(userId);
-
-        userRepository.save(user);
-        habitRepository.save(habit);
+        HabitLog habitLog = recordCompletion(habit, note);
 
         log.info("Habit auto-completed from GitHub successfully: {}", habitId);
 
@@ -292,28 +290,67 @@ public class HabitService {
     }
 
     /**
-     * Update user's overall current streak (max across all habits)
+     * Save a completion log and apply habit and user counters with atomic SQL updates.
+     * Nothing is read-modify-written on the entities, so concurrent completions
+     * (manual check-in racing a webhook) cannot lose XP or completions.
      */
-    private void updateUserOverallStreak(UUID userId) {
-        List<Habit> habits = habitRepository.findByUserIdAndIsActiveTrue(userId);
+    private HabitLog recordCompletion(Habit habit, String note) {
+        UUID habitId = habit.getId();
+        UUID userId = habit.getUserId();
+
+        HabitLog habitLog = habitLogRepository.save(HabitLog.builder()
+                .habitId(habitId)
+                .userId(userId)
+                .completedAt(LocalDateTime.now())
+                .note(note)
+                .xpEarned(XP_PER_COMPLETION)
+                .build());
 
-        int maxStreak = habits.stream()
-                .mapToInt(Habit::getCurrentStreak)
-                .max()
-                .orElse(0);
+        // Calculate streaks for the habit's frequency from its completion bitmap
+        CompletionHistory history = completionHistoryService.recordCompletion(habitId,
+                habitLog.getCompletedAt().toLocalDate());
+        StreakResult streaks = StreakCalculator.calculate(habit, history);
+        int currentStreak = streaks.currentStreak();
+        int longestStreak = streaks.longestStreak();
 
-        User user = userRepository.findById(userId).orElseThrow();
-        user.setCurrentStreak(maxStreak);
+        habitRepository.recordCompletion(habitId, currentStreak, longestStreak, habitLog.getCompletedAt());
+        userRepository.addXp(userId, XP_PER_COMPLETION);
 
-        // Update longest streak if needed
-        int maxLongestStreak = habits.stream()
-                .mapToInt(Habit::getLongestStreak)
-                .max()
-                .orElse(0);
+        // Update user's overall streak (max of all habits)
+        userStreakService.onHabitStreakChanged(userId, habit.getCurrentStreak(), currentStreak,
+                Math.max(longestStreak, habit.getLongestStreak()));
+        userDataVersionService.bumpAfterCommit(userId);
+
+        // Side effects (live dashboard, ...) are published by the outbox relay once this commits
+        outboxService.append(userId, DomainEventType.HABIT_COMPLETED, Map.of(
+                "habitId", habitId,
+                "habitLogId", habitLog.getId(),
+                "currentStreak", currentStreak,
+                "longestStreak", Math.max(longestStreak, habit.getLongestStreak()),
+                "xp", XP_PER_COMPLETION,
+                "completedAt", habitLog.getCompletedAt()));
+
+        return habitLog;
+    }
 
-        if (maxLongestStreak > user.getLongestStreak()) {
-            user.setLongestStreak(maxLongestStreak);
+    /**
+     * Validate and encode the schedule of a habit (only CUSTOM habits keep one)
+     */
+    private Integer resolveScheduleDays(HabitFrequency frequency, Set<DayOfWeek> scheduleDays) {
+        if (frequency != HabitFrequency.CUSTOM) {
+            return null;
+        }
+        if (scheduleDays == null || scheduleDays.isEmpty()) {
+            throw new BadRequestException("Custom frequency requires at least one scheduled day");
         }
+        return ScheduledDaysStreakStrategy.toMask(scheduleDays);
+    }
+
+    /**
+     * Map Habit entity to HabitResponse DTO using the stored completion state
+     */
+    private HabitResponse mapToHabitResponse(Habit habit) {
+        return mapToHabitResponse(habit, habit.isCompletedOn(LocalDate.now()), habit.getLastCompletedAt());
     }
 
     /**
@@ -327,6 +364,8 @@ public class HabitService {
                 .category(habit.getCategory())
                 .frequency(habit.getFrequency())
                 .targetCount(habit.getTargetCount())
+                .scheduleDays(habit.getScheduleDays() != null
+                        ? ScheduledDaysStreakStrategy.toDays(habit.getScheduleDays()) : null)
                 .icon(habit.getIcon())
                 .color(habit.getColor())
                 .reminderEnabled(habit.getReminderEnabled())
@@ -0,0 +1,49 @@
+package com.devhabits.service;
+
+import com.devhabits.model.entity.OutboxEvent;
+import com.devhabits.model.enums.DomainEventType;
+import com.devhabits.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Writes domain events to the outbox table in the caller's transaction:
+ * they are published by the outbox relay only if the state change commits.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Append an event for a user, must run inside the transaction of the state change
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(UUID userId, DomainEventType type, Map<String, ?> payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Unserializable " + type + " event payload", e);
+        }
+
+        outboxEventRepository.save(OutboxEvent.builder()
+                .userId(userId)
+                .eventType(type)
+                .payload(json)
+                .build());
+
+        log.debug("Outbox event {} appended for user: {}", type, userId);
+    }
+}
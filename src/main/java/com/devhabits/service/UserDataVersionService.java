@@ -0,0 +1,157 @@
+package com.devhabits.service;
+
+import com.devhabits.config.ReadYourWrites;
+import com.devhabits.config.SparseFieldsetsAdvice;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Per-user data version held in Redis, bumped after any change visible on the dashboard,
+ * habit list or repository list (habits, logs, XP, streaks, last login, synced or tracked
+ * repositories). It backs weak ETags so that polling clients get a 304 without the read
+ * endpoints querying the database, and keys the cached responses of ResponseCacheFilter.
+ * A missing key is initialized with the current time, so a flushed or expired counter
+ * never goes back to a value an old ETag was built from.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserDataVersionService {
+
+    private static final String KEY_PREFIX = "user:version:";
+    // Tag computed for the current request: ResponseCacheFilter and then the controller both ask for it
+    private static final String ETAG_ATTRIBUTE = "devhabits.user-version.etag";
+
+    // INCR an existing counter, otherwise start from the given value
+    private static final RedisScript<Long> BUMP_SCRIPT = RedisScript.of("""
+            local version
+            if redis.call('EXISTS', KEYS[1]) == 1 then
+                version = redis.call('INCR', KEYS[1])
+            else
+                version = tonumber(ARGV[1])
+                redis.call('SET', KEYS[1], version)
+            end
+            redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            return version
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ReadYourWrites readYourWrites;
+
+    @Value("${app.user-version.ttl:7d}")
+    private Duration ttl;
+
+    /**
+     * Weak ETag of the user's data for today, or null when Redis is unavailable (no conditional GET then).
+     * The day is part of the tag because "completed today" flips at midnight without any write.
+     */
+    public String eTag(UUID userId) {
+        try {
+            String key = key(userId);
+            String version = redisTemplate.opsForValue().get(key);
+            if (version == null) {
+                redisTemplate.opsForValue().setIfAbsent(key, String.valueOf(System.currentTimeMillis()), ttl);
+                version = redisTemplate.opsForValue().get(key);
+            }
+            return version != null ? "W/\"" + version + "-" + LocalDate.now().toEpochDay() + "\"" : null;
+        } catch (RuntimeException e) {
+            log.warn("Failed to read data version of user {}: {}", userId, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * ETag of the representation a request asks for. The same data is written differently per
+     * Accept header (JSON, CBOR, Smile) and fields parameter, so both are part of the tag and the
+     * response is marked as varying by Accept: a tag never validates another representation.
+     * Computed once per request, later calls reuse it without reading Redis again.
+     */
+    public String eTag(UUID userId, WebRequest request) {
+        if (request.getAttribute(ETAG_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof String computed) {
+            return computed;
+        }
+        if (request instanceof NativeWebRequest nativeRequest) {
+            HttpServletResponse response = nativeRequest.getNativeResponse(HttpServletResponse.class);
+            if (response != null && !response.getHeaders(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT)) {
+                response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            }
+        }
+
+        String eTag = eTag(userId);
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        String fields = request.getParameter(SparseFieldsetsAdvice.FIELDS_PARAMETER);
+        if (eTag != null && (accept != null || fields != null)) {
+            String variant = DigestUtils.md5DigestAsHex((accept + "|" + fields).getBytes(StandardCharsets.UTF_8));
+            eTag = eTag.substring(0, eTag.length() - 1) + "-" + variant.substring(0, 8) + "\"";
+        }
+        if (eTag != null) {
+            request.setAttribute(ETAG_ATTRIBUTE, eTag, RequestAttributes.SCOPE_REQUEST);
+        }
+        return eTag;
+    }
+
+    /**
+     * Bump the user's version once the current transaction commits (immediately without one)
+     */
+    public void bumpAfterCommit(UUID userId) {
+        bumpAfterCommit(List.of(userId));
+    }
+
+    public void bumpAfterCommit(Collection<UUID> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+
+        List<UUID> ids = List.copyOf(userIds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    ids.forEach(UserDataVersionService.this::bump);
+                }
+            });
+        } else {
+            ids.forEach(this::bump);
+        }
+    }
+
+    private void bump(UUID userId) {
+        // Until the replica has this write, the user reads from the primary
+        readYourWrites.pin(userId);
+        try {
+            redisTemplate.execute(BUMP_SCRIPT, List.of(key(userId)),
+                    String.valueOf(System.currentTimeMillis()), String.valueOf(ttl.toMillis()));
+        } catch (RuntimeException e) {
+            // A missed bump would serve stale 304s: drop the version so the next read starts a new one
+            log.warn("Failed to bump data version of user {}: {}", userId, e.getMessage());
+            try {
+                redisTemplate.delete(key(userId));
+            } catch (RuntimeException ignored) {
+                // Redis is down: eTag() returns null and conditional GETs are disabled meanwhile
+            }
+        }
+    }
+
+    private String key(UUID userId) {
+        return KEY_PREFIX + userId;
+    }
+}
@@ -0,0 +1,56 @@
+package com.devhabits.service;
+
+import com.devhabits.repository.UserRepository;
+import io.micrometer.observation.annotation.Observed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+/**
+ * Maintains the user-level streaks (max over active habits) incrementally.
+ * The user row behaves like a max-heap top: a habit streak that grows can only raise it,
+ * and the active habits are only rescanned when the habit holding the max goes down or is archived.
+ * Each change is persisted with a single targeted UPDATE.
+ */
+@Slf4j
+@Service
+@Observed(name = "devhabits.service")
+@RequiredArgsConstructor
+public class UserStreakService {
+
+    private final UserRepository userRepository;
+
+    /**
+     * A habit's current streak moved from previousStreak to newStreak (habit row already updated)
+     */
+    @Transactional
+    public void onHabitStreakChanged(UUID userId, int previousStreak, int newStreak, int longestStreak) {
+        if (newStreak >= previousStreak) {
+            userRepository.raiseStreaks(userId, newStreak, longestStreak);
+        } else {
+            log.debug("Habit streak decreased from {} to {} for user: {}", previousStreak, newStreak, userId);
+            userRepository.recomputeCurrentStreakIfMax(userId, previousStreak, longestStreak);
+        }
+    }
+
+    /**
+     * A habit holding currentStreak was archived (habit row already updated)
+     */
+    @Transactional
+    public void onHabitArchived(UUID userId, int currentStreak) {
+        if (currentStreak > 0) {
+            userRepository.recomputeCurrentStreakIfMax(userId, currentStreak, 0);
+        }
+    }
+
+    /**
+     * An archived habit was restored with its stored streaks
+     */
+    @Transactional
+    public void onHabitRestored(UUID userId, int currentStreak, int longestStreak) {
+        userRepository.raiseStreaks(userId, currentStreak, longestStreak);
+    }
+}
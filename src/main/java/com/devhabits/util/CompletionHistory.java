@@ -0,0 +1,127 @@
+package com.devhabits.util;
+
+import com.devhabits.model.entity.HabitLog;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Completion history of a habit as a compressed bitmap of epoch days.
+ * A 10-year daily habit serializes to a few hundred bytes (run containers), and
+ * streaks, calendars and completion rates are answered with bitmap operations
+ * instead of loading {@link HabitLog} entities.
+ */
+public final class CompletionHistory {
+
+    private final RoaringBitmap days;
+
+    private CompletionHistory(RoaringBitmap days) {
+        this.days = days;
+    }
+
+    public static CompletionHistory empty() {
+        return new CompletionHistory(new RoaringBitmap());
+    }
+
+    /**
+     * Build the history from completion logs
+     */
+    public static CompletionHistory fromLogs(List<HabitLog> logs) {
+        RoaringBitmap days = new RoaringBitmap();
+        for (HabitLog habitLog : logs) {
+            days.add(epochDay(habitLog.getCompletedAt().toLocalDate()));
+        }
+        days.runOptimize();
+        return new CompletionHistory(days);
+    }
+
+    /**
+     * Read a history serialized with {@link #toBytes()}
+     */
+    public static CompletionHistory fromBytes(byte[] bytes) {
+        RoaringBitmap days = new RoaringBitmap();
+        try {
+            days.deserialize(new DataInputStream(new ByteArrayInputStream(bytes)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupted completion history", e);
+        }
+        return new CompletionHistory(days);
+    }
+
+    /**
+     * Portable RoaringBitmap serialization
+     */
+    public byte[] toBytes() {
+        days.runOptimize();
+        ByteBuffer buffer = ByteBuffer.allocate(days.serializedSizeInBytes());
+        days.serialize(buffer);
+        return buffer.array();
+    }
+
+    /**
+     * Mark a day as completed, returns false if it already was
+     */
+    public boolean add(LocalDate day) {
+        return days.checkedAdd(epochDay(day));
+    }
+
+    public boolean isCompletedOn(LocalDate day) {
+        return days.contains(epochDay(day));
+    }
+
+    /**
+     * Number of completed days
+     */
+    public int size() {
+        return days.getCardinality();
+    }
+
+    /**
+     * Number of completed days in [from, to], both inclusive
+     */
+    public int countBetween(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            return 0;
+        }
+        return (int) days.rangeCardinality(epochDay(from), epochDay(to) + 1L);
+    }
+
+    /**
+     * Share of the last N days (today included) that were completed, between 0 and 1
+     */
+    public double completionRate(LocalDate today, int lastDays) {
+        if (lastDays <= 0) {
+            return 0;
+        }
+        return (double) countBetween(today.minusDays(lastDays - 1L), today) / lastDays;
+    }
+
+    /**
+     * Completed epoch days in [from, to], both inclusive, ascending
+     */
+    public int[] epochDaysBetween(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            return new int[0];
+        }
+        RoaringBitmap range = RoaringBitmap.bitmapOfRange(epochDay(from), epochDay(to) + 1L);
+        return RoaringBitmap.and(days, range).toArray();
+    }
+
+    /**
+     * All completed epoch days, ascending (input of the streak strategies)
+     */
+    public int[] epochDays() {
+        return days.toArray();
+    }
+
+    private static int epochDay(LocalDate day) {
+        // Completions are after 1970, so epoch days stay positive (RoaringBitmap orders ints as unsigned)
+        return (int) day.toEpochDay();
+    }
+}
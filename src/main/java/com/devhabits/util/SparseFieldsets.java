@@ -0,0 +1,51 @@
+package com.devhabits.util;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Sparse fieldsets ({@code ?fields=name,currentStreak}) for the DTOs given the {@link Filtered} mix-in
+ * by the application mapper. The DTOs themselves carry no filter: a mapper without the filter
+ * provider (tests, Redis serializers) writes them whole instead of failing. The id is always kept.
+ */
+public final class SparseFieldsets {
+
+    public static final String FILTER_ID = "sparseFieldset";
+
+    /**
+     * Default provider: every property is written when no fieldset is requested
+     */
+    public static final FilterProvider SERIALIZE_ALL = new SimpleFilterProvider()
+            .addFilter(FILTER_ID, SimpleBeanPropertyFilter.serializeAll());
+
+    /**
+     * Mix-in putting the filter on a DTO, see JacksonConfig
+     */
+    @JsonFilter(FILTER_ID)
+    public interface Filtered {
+    }
+
+    private SparseFieldsets() {
+    }
+
+    /**
+     * Filters keeping only the requested properties (comma separated)
+     */
+    public static FilterProvider filterFor(String fields) {
+        Set<String> properties = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        properties.add("id");
+
+        return new SimpleFilterProvider()
+                .addFilter(FILTER_ID, SimpleBeanPropertyFilter.filterOutAllExcept(properties));
+    }
+}
@@ -1,6 +1,13 @@
 package com.devhabits.util;
 
+import com.devhabits.model.entity.Habit;
 import com.devhabits.model.entity.HabitLog;
+import com.devhabits.model.enums.HabitFrequency;
+import com.devhabits.util.streak.DailyStreakStrategy;
+import com.devhabits.util.streak.ScheduledDaysStreakStrategy;
+import com.devhabits.util.streak.StreakResult;
+import com.devhabits.util.streak.StreakStrategy;
+import com.devhabits.util.streak.WeeklyStreakStrategy;
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.LocalDate;
@@ -12,92 +19,60 @@ import java.util.List;
 public class StreakCalculator {
 
     /**
-     * Calculate current streak
-     * A streak is broken if there's more than 1 day gap between check-ins
+     * Get the streak strategy matching a habit's frequency
      */
-    public static int calculateCurrentStreak(List<HabitLog> logs) {
-        if (logs == null || logs.isEmpty()) {
-            return 0;
-        }
-
-        // Sort logs by date descending (most recent first)
-        List<HabitLog> sortedLogs = logs.stream()
-                .sorted(Comparator.comparing(HabitLog::getCompletedAt).reversed())
-                .toList();
-
-        LocalDate today = LocalDate.now();
-        LocalDate lastCompletion = sortedLogs.get(0).getCompletedAt().toLocalDate();
-
-        // Check if streak is still alive (last completion must be today or yesterday)
-        long daysSinceLastCompletion = ChronoUnit.DAYS.between(lastCompletion, today);
-        if (daysSinceLastCompletion > 1) {
-            log.debug("Streak broken: {} days since last completion", daysSinceLastCompletion);
-            return 0; // Streak broken
-        }
-
-        int streak = 1;
-        LocalDate currentDate = lastCompletion;
-
-        // Count consecutive days backwards
-        for (int i = 1; i < sortedLogs.size(); i++) {
-            LocalDate previousDate = sortedLogs.get(i).getCompletedAt().toLocalDate();
-            long daysBetween = ChronoUnit.DAYS.between(previousDate, currentDate);
+    public static StreakStrategy strategyFor(Habit habit) {
+        return strategyFor(habit.getFrequency(), habit.getTargetCount(), habit.getScheduleDays());
+    }
 
-            if (daysBetween == 1) {
-                // Consecutive day
-                streak++;
-                currentDate = previousDate;
-            } else if (daysBetween == 0) {
-                // Same day (multiple check-ins) - skip
-                continue;
-            } else {
-                // Gap found, streak ends here
-                break;
-            }
-        }
+    /**
+     * Get the streak strategy for a frequency and its settings
+     */
+    public static StreakStrategy strategyFor(HabitFrequency frequency, Integer targetCount, Integer scheduleDays) {
+        return switch (frequency) {
+            case DAILY -> DailyStreakStrategy.INSTANCE;
+            case WEEKLY -> new WeeklyStreakStrategy(targetCount != null ? targetCount : 1);
+            case CUSTOM -> new ScheduledDaysStreakStrategy(
+                    scheduleDays != null ? scheduleDays : ScheduledDaysStreakStrategy.ALL_DAYS);
+        };
+    }
 
-        log.debug("Current streak calculated: {}", streak);
-        return streak;
+    /**
+     * Calculate current and longest streak of a habit from its completion bitmap
+     */
+    public static StreakResult calculate(Habit habit, CompletionHistory history) {
+        StreakResult result = strategyFor(habit).compute(history.epochDays(), LocalDate.now());
+        log.debug("Streaks calculated for {} habit: {}", habit.getFrequency(), result);
+        return result;
     }
 
     /**
-     * Calculate longest streak in history
+     * Distinct completion days of the logs (epoch days), ascending
      */
-    public static int calculateLongestStreak(List<HabitLog> logs) {
+    public static int[] toEpochDays(List<HabitLog> logs) {
         if (logs == null || logs.isEmpty()) {
-            return 0;
+            return new int[0];
         }
+        return logs.stream()
+                .mapToInt(habitLog -> (int) habitLog.getCompletedAt().toLocalDate().toEpochDay())
+                .sorted()
+                .distinct()
+                .toArray();
+    }
 
-        // Sort logs by date ascending
-        List<HabitLog> sortedLogs = logs.stream()
-                .sorted(Comparator.comparing(HabitLog::getCompletedAt))
-                .toList();
-
-        int maxStreak = 1;
-        int currentStreak = 1;
-        LocalDate previousDate = sortedLogs.get(0).getCompletedAt().toLocalDate();
-
-        for (int i = 1; i < sortedLogs.size(); i++) {
-            LocalDate currentDate = sortedLogs.get(i).getCompletedAt().toLocalDate();
-            long daysBetween = ChronoUnit.DAYS.between(previousDate, currentDate);
-
-            if (daysBetween == 1) {
-                // Consecutive day
-                currentStreak++;
-                maxStreak = Math.max(maxStreak, currentStreak);
-            } else if (daysBetween == 0) {
-                // Same day - skip
-                continue;
-            } else {
-                // Gap found, reset current streak
-                currentStreak = 1;
-            }
-
-            previousDate = currentDate;
-        }
+    /**
+     * Calculate current daily streak
+     * A streak is broken if there's more than 1 day gap between check-ins
+     */
+    public static int calculateCurrentStreak(List<HabitLog> logs) {
+        return DailyStreakStrategy.INSTANCE.compute(toEpochDays(logs), LocalDate.now()).currentStreak();
+    }
 
-        log.debug("Longest streak calculated: {}", maxStreak);
-        return maxStreak;
+    /**
+     * Calculate longest daily streak in history
+     */
+    public static int calculateLongestStreak(List<HabitLog> logs) {
+        return DailyStreakStrategy.INSTANCE.compute(toEpochDays(logs), LocalDate.now()).longestStreak();
     }
 
     /**
@@ -121,4 +96,4 @@ public class StreakCalculator {
         long daysSince = ChronoUnit.DAYS.between(lastCompletion, today);
         return daysSince == 1; // At risk if last completion was yesterday
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,40 @@
+package com.devhabits.util.streak;
+
+import java.time.LocalDate;
+
+/**
+ * One completion per day: a streak is a run of consecutive days,
+ * still alive if the last completion was today or yesterday.
+ */
+public final class DailyStreakStrategy implements StreakStrategy {
+
+    public static final DailyStreakStrategy INSTANCE = new DailyStreakStrategy();
+
+    private DailyStreakStrategy() {
+    }
+
+    @Override
+    public StreakResult compute(int[] epochDays, LocalDate today) {
+        if (epochDays.length == 0) {
+            return StreakResult.NONE;
+        }
+
+        int run = 0;
+        int longest = 0;
+        int previous = Integer.MIN_VALUE;
+
+        for (int day : epochDays) {
+            run = (previous != Integer.MIN_VALUE && day == previous + 1) ? run + 1 : 1;
+            longest = Math.max(longest, run);
+            previous = day;
+        }
+
+        int current = previous >= today.toEpochDay() - 1 ? run : 0;
+        return new StreakResult(current, longest);
+    }
+
+    @Override
+    public LocalDate streakCutoff(LocalDate today) {
+        return today.minusDays(1);
+    }
+}
@@ -0,0 +1,92 @@
+package com.devhabits.util.streak;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Specific days of the week (Mon/Wed/Fri, ...) stored as a bitmask, bit 0 = Monday.
+ * The streak is a run of scheduled days completed without missing one in between;
+ * completions on unscheduled days neither extend nor break it.
+ */
+public final class ScheduledDaysStreakStrategy implements StreakStrategy {
+
+    public static final int ALL_DAYS = 0b1111111;
+
+    private final int dayMask;
+
+    public ScheduledDaysStreakStrategy(int dayMask) {
+        this.dayMask = (dayMask & ALL_DAYS) == 0 ? ALL_DAYS : dayMask & ALL_DAYS;
+    }
+
+    @Override
+    public StreakResult compute(int[] epochDays, LocalDate today) {
+        int run = 0;
+        int longest = 0;
+        int previous = Integer.MIN_VALUE;
+
+        for (int day : epochDays) {
+            if (!isScheduled(day)) {
+                continue;
+            }
+            run = (previous != Integer.MIN_VALUE && nextScheduled(previous) == day) ? run + 1 : 1;
+            longest = Math.max(longest, run);
+            previous = day;
+        }
+
+        if (previous == Integer.MIN_VALUE) {
+            return StreakResult.NONE;
+        }
+
+        // Alive as long as no scheduled day was missed before today
+        int current = nextScheduled(previous) >= today.toEpochDay() ? run : 0;
+        return new StreakResult(current, longest);
+    }
+
+    @Override
+    public LocalDate streakCutoff(LocalDate today) {
+        int day = (int) today.toEpochDay() - 1;
+        while (!isScheduled(day)) {
+            day--;
+        }
+        return LocalDate.ofEpochDay(day);
+    }
+
+    private boolean isScheduled(int epochDay) {
+        return (dayMask & (1 << StreakStrategy.dayOfWeekIndex(epochDay))) != 0;
+    }
+
+    private int nextScheduled(int epochDay) {
+        int day = epochDay + 1;
+        while (!isScheduled(day)) {
+            day++;
+        }
+        return day;
+    }
+
+    /**
+     * Encode days of week as a bitmask (bit 0 = Monday)
+     */
+    public static int toMask(Collection<DayOfWeek> days) {
+        int mask = 0;
+        for (DayOfWeek day : days) {
+            mask |= 1 << (day.getValue() - 1);
+        }
+        return mask;
+    }
+
+    /**
+     * Decode a bitmask into days of week
+     */
+    public static Set<DayOfWeek> toDays(int mask) {
+        Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if ((mask & (1 << (day.getValue() - 1))) != 0) {
+                days.add(day);
+            }
+        }
+        return days;
+    }
+}
@@ -0,0 +1,9 @@
+package com.devhabits.util.streak;
+
+/**
+ * Current and longest streak of a habit, in the unit of its frequency (days or weeks)
+ */
+public record StreakResult(int currentStreak, int longestStreak) {
+
+    public static final StreakResult NONE = new StreakResult(0, 0);
+}
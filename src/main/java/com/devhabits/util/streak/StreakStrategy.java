@@ -0,0 +1,39 @@
+package com.devhabits.util.streak;
+
+import java.time.LocalDate;
+
+/**
+ * Streak rules for one habit frequency.
+ * Implementations work on epoch days ({@link LocalDate#toEpochDay()}) and compute
+ * both streaks in a single linear pass, without allocating per completion.
+ */
+public interface StreakStrategy {
+
+    /**
+     * Compute current and longest streak
+     *
+     * @param epochDays distinct completion days, sorted ascending
+     * @param today     reference day for the current streak
+     */
+    StreakResult compute(int[] epochDays, LocalDate today);
+
+    /**
+     * Earliest completion day that still keeps a streak alive on the given day
+     */
+    LocalDate streakCutoff(LocalDate today);
+
+    /**
+     * ISO week index (weeks start on Monday) of an epoch day
+     */
+    static int isoWeek(int epochDay) {
+        // 1970-01-01 was a Thursday: shift so that Mondays start a new bucket
+        return Math.floorDiv(epochDay + 3, 7);
+    }
+
+    /**
+     * Day of week of an epoch day, 0 = Monday ... 6 = Sunday
+     */
+    static int dayOfWeekIndex(int epochDay) {
+        return Math.floorMod(epochDay + 3, 7);
+    }
+}
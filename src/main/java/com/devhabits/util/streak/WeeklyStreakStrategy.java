@@ -0,0 +1,62 @@
+package com.devhabits.util.streak;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+/**
+ * X times per week: completions are bucketed by ISO week and a week counts when it reaches
+ * the target. The streak is a run of consecutive successful weeks; the current week is still
+ * in progress, so the streak stays alive while the previous week was successful.
+ */
+public final class WeeklyStreakStrategy implements StreakStrategy {
+
+    private final int targetCount;
+
+    public WeeklyStreakStrategy(int targetCount) {
+        // At most one completion per day is recorded
+        this.targetCount = Math.max(1, Math.min(targetCount, 7));
+    }
+
+    @Override
+    public StreakResult compute(int[] epochDays, LocalDate today) {
+        if (epochDays.length == 0) {
+            return StreakResult.NONE;
+        }
+
+        int run = 0;
+        int longest = 0;
+        int lastMetWeek = Integer.MIN_VALUE;
+        int week = StreakStrategy.isoWeek(epochDays[0]);
+        int count = 0;
+
+        for (int i = 0; i <= epochDays.length; i++) {
+            int dayWeek = i < epochDays.length ? StreakStrategy.isoWeek(epochDays[i]) : Integer.MAX_VALUE;
+
+            if (dayWeek != week) {
+                // Close the previous bucket
+                if (count >= targetCount) {
+                    run = (lastMetWeek != Integer.MIN_VALUE && week == lastMetWeek + 1) ? run + 1 : 1;
+                    longest = Math.max(longest, run);
+                    lastMetWeek = week;
+                }
+                week = dayWeek;
+                count = 0;
+            }
+            count++;
+        }
+
+        int currentWeek = StreakStrategy.isoWeek((int) today.toEpochDay());
+        int current = lastMetWeek >= currentWeek - 1 ? run : 0;
+        return new StreakResult(current, longest);
+    }
+
+    /**
+     * Last week can only have reached the target, one completion a day, if its last one was on
+     * Monday + (target - 1) or later. A later completion does not prove it: the decay sweeper
+     * also counts the completions of last week and of the current one.
+     */
+    @Override
+    public LocalDate streakCutoff(LocalDate today) {
+        return today.with(DayOfWeek.MONDAY).minusWeeks(1).plusDays(targetCount - 1);
+    }
+}
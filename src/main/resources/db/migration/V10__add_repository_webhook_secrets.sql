@@ -0,0 +1,7 @@
+-- Per-repository webhook secrets, verified against X-Hub-Signature-256 before a payload is parsed
+ALTER TABLE github_repositories ADD COLUMN webhook_secret TEXT;
+
+COMMENT ON COLUMN github_repositories.webhook_secret IS 'Webhook HMAC secret, AES-GCM envelope encrypted (TokenVault)';
+
+-- Secret lookup by the repository id GitHub sends in X-GitHub-Hook-Installation-Target-ID
+CREATE INDEX idx_github_repositories_webhook ON github_repositories(github_repo_id) WHERE webhook_secret IS NOT NULL;
@@ -0,0 +1,20 @@
+-- Commits already counted for each user, whatever the branch or delivery they came from.
+-- A push only counts its commits missing from this set (redeliveries and force-pushes add none).
+CREATE TABLE github_commits (
+    user_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    sha BYTEA NOT NULL, -- 20 bytes, binary form of the hexadecimal SHA-1
+    committed_on DATE NOT NULL,
+    PRIMARY KEY (user_id, sha)
+);
+
+-- Daily rollup of new commits per repository, written with the commit set
+CREATE TABLE github_commit_stats (
+    user_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    day DATE NOT NULL,
+    repository_full_name VARCHAR(500) NOT NULL,
+    commit_count INTEGER NOT NULL,
+    PRIMARY KEY (user_id, day, repository_full_name)
+);
+
+COMMENT ON TABLE github_commits IS 'Per-user set of counted commit SHAs, deduplicates pushes across branches and redeliveries';
+COMMENT ON TABLE github_commit_stats IS 'New commits per user, day (commit timestamp) and repository';
@@ -0,0 +1,26 @@
+-- GITHUB HISTORY BACKFILL
+-- One import of past GitHub activity per user, checkpointed after each page so it resumes
+-- where it stopped after a restart or a rate-limit pause.
+CREATE TABLE github_backfills (
+    user_id UUID PRIMARY KEY REFERENCES users(id) ON DELETE CASCADE,
+    status VARCHAR(20) NOT NULL, -- PENDING, RUNNING, COMPLETED, FAILED
+    since_date DATE NOT NULL, -- Oldest activity imported
+    source VARCHAR(600), -- Source being imported: commits:<owner/repo> or events
+    next_url TEXT, -- Next page of the source, NULL for its first page
+    imported_logs INTEGER NOT NULL DEFAULT 0,
+    imported_events INTEGER NOT NULL DEFAULT 0,
+    attempts INTEGER NOT NULL DEFAULT 0, -- Consecutive failed pages
+    last_error TEXT,
+    resume_at TIMESTAMP, -- Not before (rate limit or retry delay)
+    lease_until TIMESTAMP, -- Held by the node running it until then
+    started_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    completed_at TIMESTAMP,
+    version BIGINT NOT NULL DEFAULT 0
+);
+
+-- Job scan: only backfills still to run
+CREATE INDEX idx_github_backfills_due ON github_backfills(resume_at)
+    WHERE status IN ('PENDING', 'RUNNING');
+
+COMMENT ON TABLE github_backfills IS 'Import of historical GitHub activity per user, with its resume checkpoint';
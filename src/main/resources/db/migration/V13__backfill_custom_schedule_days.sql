@@ -0,0 +1,2 @@
+-- CUSTOM habits created before V5 have no schedule: StreakCalculator reads them as every day
+UPDATE habits SET schedule_days = 127 WHERE frequency = 'CUSTOM' AND schedule_days IS NULL;
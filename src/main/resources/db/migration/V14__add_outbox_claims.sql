@@ -0,0 +1,6 @@
+-- OUTBOX CLAIMS
+-- The relay reserves a batch in a short transaction, publishes it outside any transaction, then
+-- marks it published. A batch whose relay died is picked up again once its claim has expired.
+ALTER TABLE outbox_events ADD COLUMN claimed_until TIMESTAMP;
+
+COMMENT ON COLUMN outbox_events.claimed_until IS 'End of the reservation of the event by a relay publishing it';
@@ -0,0 +1,9 @@
+-- OPTIMISTIC LOCKING
+-- Version columns checked by JPA on every entity update of habits and users.
+-- Targeted SQL updates (XP, completions, streaks) bump the version as well,
+-- so a stale entity can never overwrite counters written concurrently.
+ALTER TABLE users ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE habits ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+COMMENT ON COLUMN users.version IS 'Optimistic locking version';
+COMMENT ON COLUMN habits.version IS 'Optimistic locking version';
@@ -0,0 +1,18 @@
+-- LAST COMPLETION ON HABITS
+-- Denormalized from habit_logs so read paths and the streak-decay sweeper
+-- don't need to query the logs of every habit.
+ALTER TABLE habits ADD COLUMN last_completed_at TIMESTAMP;
+
+UPDATE habits h
+SET last_completed_at = l.last_completed_at
+FROM (
+    SELECT habit_id, MAX(completed_at) AS last_completed_at
+    FROM habit_logs
+    GROUP BY habit_id
+) l
+WHERE l.habit_id = h.id;
+
+-- Partial index for the streak-decay sweeper: only habits with a live streak
+CREATE INDEX idx_habits_streak_decay ON habits(frequency, last_completed_at) WHERE current_streak > 0;
+
+COMMENT ON COLUMN habits.last_completed_at IS 'Timestamp of the most recent completion log';
@@ -0,0 +1,8 @@
+-- CUSTOM FREQUENCY SCHEDULE
+-- Days of week a CUSTOM habit is scheduled on, as a bitmask (bit 0 = Monday ... bit 6 = Sunday)
+ALTER TABLE habits ADD COLUMN schedule_days INTEGER;
+
+ALTER TABLE habits ADD CONSTRAINT chk_habits_schedule_days
+    CHECK (schedule_days IS NULL OR (schedule_days > 0 AND schedule_days < 128));
+
+COMMENT ON COLUMN habits.schedule_days IS 'Bitmask of scheduled days for CUSTOM frequency (bit 0 = Monday)';
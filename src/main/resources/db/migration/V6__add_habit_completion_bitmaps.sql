@@ -0,0 +1,14 @@
+-- COMPLETION HISTORY BITMAPS
+-- One serialized RoaringBitmap of epoch days per habit: "was it done on day D" for
+-- streaks, calendars and completion rates without loading habit_logs.
+-- Rows are built lazily from habit_logs on first read, so no backfill is needed.
+CREATE TABLE habit_completion_bitmaps (
+    habit_id UUID PRIMARY KEY REFERENCES habits(id) ON DELETE CASCADE,
+    days BYTEA NOT NULL,
+    cardinality INTEGER NOT NULL DEFAULT 0,
+    version BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+COMMENT ON TABLE habit_completion_bitmaps IS 'Compressed completion history per habit (RoaringBitmap of epoch days)';
+COMMENT ON COLUMN habit_completion_bitmaps.cardinality IS 'Number of completed days in the bitmap';
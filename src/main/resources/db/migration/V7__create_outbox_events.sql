@@ -0,0 +1,19 @@
+-- TRANSACTIONAL OUTBOX
+-- Domain events written in the same transaction as the state change, then published
+-- in id order by the outbox relay (in-process bus + Redis stream).
+CREATE TABLE outbox_events (
+    id BIGSERIAL PRIMARY KEY,
+    user_id UUID NOT NULL,
+    event_type VARCHAR(50) NOT NULL,
+    payload JSONB NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    published_at TIMESTAMP
+);
+
+-- Relay scan: only pending events, in id order
+CREATE INDEX idx_outbox_events_pending ON outbox_events(id) WHERE published_at IS NULL;
+
+-- Purge of published events
+CREATE INDEX idx_outbox_events_published_at ON outbox_events(published_at) WHERE published_at IS NOT NULL;
+
+COMMENT ON TABLE outbox_events IS 'Domain events waiting to be (or already) published by the outbox relay';
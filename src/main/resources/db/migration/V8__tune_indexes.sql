@@ -0,0 +1,69 @@
+-- INDEXES TUNED TO THE REPOSITORY QUERIES
+-- Every read of the repositories is user-, habit- or id-scoped: indexes that no query uses
+-- (or that duplicate a UNIQUE constraint) only cost writes, and are dropped.
+-- IndexUsageTest checks that each repository method is served by an index.
+
+-- USERS: email and username already have the indexes of their UNIQUE constraints
+DROP INDEX idx_users_email;
+DROP INDEX idx_users_username;
+DROP INDEX idx_users_created_at;
+
+-- HABITS
+-- All habits of a user (ids only for the calendar and completion history: index-only scan)
+DROP INDEX idx_habits_user_id;
+DROP INDEX idx_habits_user_active;
+CREATE INDEX idx_habits_user_id ON habits(user_id) INCLUDE (id);
+
+-- Active habits of a user (dashboard, habit list, active count), with the streak read by the
+-- recomputation of the user's current streak (MAX over active habits: index-only scan)
+CREATE INDEX idx_habits_user_active ON habits(user_id) INCLUDE (current_streak) WHERE is_active;
+
+-- Category alone is never queried: per-user category filters go through idx_habits_user_active
+DROP INDEX idx_habits_category;
+
+-- HABIT LOGS
+-- existsForToday and the history reads range on (habit_id, completed_at): idx_habit_logs_habit_id.
+-- Nothing ranges on completed_at alone.
+DROP INDEX idx_habit_logs_completed_at;
+
+-- GITHUB CONNECTIONS
+-- user_id is UNIQUE already; is_active alone is never queried
+DROP INDEX idx_github_connections_user_id;
+DROP INDEX idx_github_connections_active;
+
+-- Webhooks resolve the connection by GitHub user id, and connectGitHub rejects a GitHub
+-- account already connected to another user: one row per GitHub account.
+-- Two concurrent connects of the same account could both pass that check before, and the index
+-- would then fail the migration: keep one row per account (active first, then the most recently
+-- synced or connected) and delete the others, whose users show GitHub as disconnected.
+DELETE FROM github_connections c
+USING (
+    SELECT id, ROW_NUMBER() OVER (
+        PARTITION BY github_user_id
+        ORDER BY is_active IS TRUE DESC, COALESCE(last_synced_at, connected_at) DESC NULLS LAST, connected_at DESC NULLS LAST, id
+    ) AS duplicate_rank
+    FROM github_connections
+) ranked
+WHERE c.id = ranked.id AND ranked.duplicate_rank > 1;
+
+DROP INDEX idx_github_connections_github_user_id;
+CREATE UNIQUE INDEX idx_github_connections_github_user_id ON github_connections(github_user_id);
+
+-- GITHUB EVENTS
+-- event_id lookups use the unique (event_id, event_type) index; type and repository alone are never queried
+DROP INDEX idx_github_events_event_id;
+DROP INDEX idx_github_events_event_type;
+DROP INDEX idx_github_events_repository;
+
+-- Events of a user for one type, newest first
+CREATE INDEX idx_github_events_user_type ON github_events(user_id, event_type, created_at DESC);
+
+-- Events of a habit, newest first (also used by ON DELETE SET NULL)
+DROP INDEX idx_github_events_habit_id;
+CREATE INDEX idx_github_events_habit_id ON github_events(habit_id, created_at DESC);
+
+-- GITHUB REPOSITORIES
+-- user_id lookups use the unique (user_id, github_repo_id) index; tracked repositories are a partial index
+DROP INDEX idx_github_repositories_user_id;
+DROP INDEX idx_github_repositories_tracked;
+CREATE INDEX idx_github_repositories_tracked ON github_repositories(user_id) WHERE is_tracked;
@@ -0,0 +1,77 @@
+package com.devhabits;
+
+import com.devhabits.model.entity.Habit;
+import com.devhabits.model.entity.User;
+import com.devhabits.model.enums.HabitCategory;
+import com.devhabits.repository.HabitRepository;
+import com.devhabits.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Base class for tests that need a real PostgreSQL database and Redis.
+ * Skipped automatically when Docker is not available.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class AbstractIntegrationTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Container
+    @ServiceConnection(name = "redis")
+    static final GenericContainer<?> redis = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    @Autowired
+    protected UserRepository userRepository;
+
+    @Autowired
+    protected HabitRepository habitRepository;
+
+    /**
+     * User with a unique email and username starting with the prefix, the database being shared by the tests
+     */
+    protected User saveUser(String prefix) {
+        return saveUser(prefix, user -> { });
+    }
+
+    protected User saveUser(String prefix, Consumer<User> customizer) {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User user = User.builder()
+                .email(prefix + "-" + suffix + "@example.com")
+                .username(prefix + "-" + suffix)
+                .passwordHash("hashed_password")
+                .build();
+        customizer.accept(user);
+        return userRepository.save(user);
+    }
+
+    /**
+     * Daily CODE habit of the user
+     */
+    protected Habit saveHabit(UUID userId, String name) {
+        return saveHabit(userId, name, habit -> { });
+    }
+
+    protected Habit saveHabit(UUID userId, String name, Consumer<Habit> customizer) {
+        Habit habit = Habit.builder()
+                .userId(userId)
+                .name(name)
+                .category(HabitCategory.CODE)
+                .build();
+        customizer.accept(habit);
+        return habitRepository.save(habit);
+    }
+}
@@ -0,0 +1,84 @@
+package com.devhabits.aspect;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.test.simple.SimpleSpan;
+import io.micrometer.tracing.test.simple.SimpleTracer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.data.repository.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RepositoryTracingAspectTest {
+
+    interface SampleRepository extends Repository<Object, UUID> {
+        Optional<Object> findByName(String name);
+    }
+
+    private final SimpleTracer tracer = new SimpleTracer();
+
+    private SampleRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        SampleRepository target = name -> {
+            if (name == null) {
+                throw new IllegalArgumentException("name is required");
+            }
+            return Optional.empty();
+        };
+
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addInterface(SampleRepository.class);
+        factory.addAspect(new RepositoryTracingAspect(tracer));
+        repository = factory.getProxy();
+    }
+
+    @Test
+    void callInsideATrace_ShouldCreateAChildSpanNamedAfterTheRepository() {
+        Span request = tracer.nextSpan().name("request").start();
+        try (Tracer.SpanInScope ignored = tracer.withSpan(request)) {
+            repository.findByName("octo");
+        } finally {
+            request.end();
+        }
+
+        assertThat(tracer.getSpans()).extracting(SimpleSpan::getName)
+                .containsExactlyInAnyOrder("request", "SampleRepository.findByName");
+        SimpleSpan repositorySpan = findSpan("SampleRepository.findByName");
+        assertThat(repositorySpan.getParentId()).isEqualTo(request.context().spanId());
+        assertThat(repositorySpan.getTags()).containsEntry("component", "repository");
+    }
+
+    @Test
+    void callOutsideATrace_ShouldNotStartOne() {
+        repository.findByName("octo");
+
+        assertThat(tracer.getSpans()).isEmpty();
+    }
+
+    @Test
+    void failingCall_ShouldRecordTheError() {
+        Span request = tracer.nextSpan().name("request").start();
+        try (Tracer.SpanInScope ignored = tracer.withSpan(request)) {
+            assertThatThrownBy(() -> repository.findByName(null)).isInstanceOf(IllegalArgumentException.class);
+        } finally {
+            request.end();
+        }
+
+        assertThat(findSpan("SampleRepository.findByName").getError()).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private SimpleSpan findSpan(String name) {
+        return tracer.getSpans().stream()
+                .filter(span -> span.getName().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+}
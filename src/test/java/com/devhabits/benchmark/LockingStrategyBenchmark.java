@@ -0,0 +1,168 @@
+package com.devhabits.benchmark;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of a contended counter update (the XP / streak write of a check-in) under
+ * optimistic locking with retry, a naive SELECT ... FOR UPDATE, and a plain atomic increment.
+ * optimisticWithRetry also reports its version conflicts per second (retries).
+ * Needs Docker for the PostgreSQL container.
+ *
+ * Run with: ./mvnw -Pbenchmark -DskipTests test -Dbenchmark=LockingStrategyBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(16)
+public class LockingStrategyBenchmark {
+
+    /**
+     * Number of distinct rows updated: 1 is a single hot user, 256 is little contention
+     */
+    @Param({"1", "16", "256"})
+    public int hotRows;
+
+    private PostgreSQLContainer<?> postgres;
+    private HikariDataSource dataSource;
+
+    /**
+     * Version conflicts of optimisticWithRetry, reported by JMH next to the check-ins
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Conflicts {
+        public long retries;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            retries = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+        postgres.start();
+
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(postgres.getJdbcUrl());
+        config.setUsername(postgres.getUsername());
+        config.setPassword(postgres.getPassword());
+        config.setMaximumPoolSize(16);
+        dataSource = new HikariDataSource(config);
+
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE counters (id INT PRIMARY KEY, total_xp INT NOT NULL, version BIGINT NOT NULL)");
+            statement.execute("INSERT INTO counters SELECT g, 0, 0 FROM generate_series(0, " + (hotRows - 1) + ") g");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dataSource.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public void optimisticWithRetry(Conflicts conflicts) throws SQLException {
+        int id = ThreadLocalRandom.current().nextInt(hotRows);
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            while (true) {
+                int totalXp;
+                long version;
+                try (PreparedStatement select = connection.prepareStatement(
+                        "SELECT total_xp, version FROM counters WHERE id = ?")) {
+                    select.setInt(1, id);
+                    try (ResultSet rs = select.executeQuery()) {
+                        rs.next();
+                        totalXp = rs.getInt(1);
+                        version = rs.getLong(2);
+                    }
+                }
+
+                try (PreparedStatement update = connection.prepareStatement(
+                        "UPDATE counters SET total_xp = ?, version = version + 1 WHERE id = ? AND version = ?")) {
+                    update.setInt(1, totalXp + 10);
+                    update.setInt(2, id);
+                    update.setLong(3, version);
+                    if (update.executeUpdate() == 1) {
+                        connection.commit();
+                        return;
+                    }
+                }
+
+                connection.rollback();
+                conflicts.retries++;
+            }
+        }
+    }
+
+    @Benchmark
+    public void pessimisticSelectForUpdate() throws SQLException {
+        int id = ThreadLocalRandom.current().nextInt(hotRows);
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            int totalXp;
+            try (PreparedStatement select = connection.prepareStatement(
+                    "SELECT total_xp FROM counters WHERE id = ? FOR UPDATE")) {
+                select.setInt(1, id);
+                try (ResultSet rs = select.executeQuery()) {
+                    rs.next();
+                    totalXp = rs.getInt(1);
+                }
+            }
+
+            try (PreparedStatement update = connection.prepareStatement(
+                    "UPDATE counters SET total_xp = ? WHERE id = ?")) {
+                update.setInt(1, totalXp + 10);
+                update.setInt(2, id);
+                update.executeUpdate();
+            }
+            connection.commit();
+        }
+    }
+
+    @Benchmark
+    public void atomicIncrement() throws SQLException {
+        int id = ThreadLocalRandom.current().nextInt(hotRows);
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement update = connection.prepareStatement(
+                     "UPDATE counters SET total_xp = total_xp + 10, version = version + 1 WHERE id = ?")) {
+            update.setInt(1, id);
+            update.executeUpdate();
+        }
+    }
+}
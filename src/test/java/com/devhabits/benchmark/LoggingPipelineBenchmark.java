@@ -0,0 +1,143 @@
+package com.devhabits.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import com.devhabits.config.LogSamplingFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logging cost on the request thread of a dashboard-like request: one INFO read log and five
+ * SQL statements with three bound parameters each, written to a temporary file.
+ * SYNC_VERBOSE is the previous configuration (synchronous appender, formatted SQL at DEBUG,
+ * binder TRACE); ASYNC_SAMPLED is logback-spring.xml in prod (SQL off, INFO sampled 1/10,
+ * bounded non-blocking queue). No external dependency.
+ *
+ * Run with: ./mvnw -Pbenchmark -DskipTests test -Dbenchmark=LoggingPipelineBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoggingPipelineBenchmark {
+
+    private static final int STATEMENTS = 5;
+    private static final String SQL = """
+
+                select
+                    h1_0.id,
+                    h1_0.name,
+                    h1_0.category,
+                    h1_0.current_streak
+                from
+                    habits h1_0
+                where
+                    h1_0.user_id=?
+                    and h1_0.is_active=?
+                order by
+                    h1_0.created_at desc""";
+
+    @Param({"SYNC_VERBOSE", "ASYNC_SAMPLED"})
+    public String config;
+
+    private LoggerContext context;
+    private Path logFile;
+    private Logger serviceLog;
+    private Logger sqlLog;
+    private Logger binderLog;
+    private UUID userId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        logFile = Files.createTempFile("logging-benchmark", ".log");
+        context = new LoggerContext();
+        context.setMDCAdapter(new LogbackMDCAdapter());
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd HH:mm:ss} [%thread] %-5level %logger{36} - %msg%n");
+        encoder.start();
+
+        FileAppender<ILoggingEvent> file = new FileAppender<>();
+        file.setContext(context);
+        file.setFile(logFile.toString());
+        file.setEncoder(encoder);
+        file.start();
+
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(ch.qos.logback.classic.Level.INFO);
+        root.addAppender(switch (config) {
+            case "SYNC_VERBOSE" -> file;
+            case "ASYNC_SAMPLED" -> async(file);
+            default -> throw new IllegalArgumentException(config);
+        });
+
+        if (config.equals("SYNC_VERBOSE")) {
+            context.getLogger("org.hibernate.SQL").setLevel(ch.qos.logback.classic.Level.DEBUG);
+            context.getLogger("org.hibernate.orm.jdbc.bind").setLevel(ch.qos.logback.classic.Level.TRACE);
+        } else {
+            LogSamplingFilter sampling = new LogSamplingFilter();
+            sampling.setLoggers("com.devhabits.controller,com.devhabits.service");
+            sampling.setRate(10);
+            sampling.start();
+            context.addTurboFilter(sampling);
+        }
+
+        serviceLog = context.getLogger("com.devhabits.service.DashboardService");
+        sqlLog = context.getLogger("org.hibernate.SQL");
+        binderLog = context.getLogger("org.hibernate.orm.jdbc.bind");
+        userId = UUID.randomUUID();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        context.stop();
+        Files.deleteIfExists(logFile);
+    }
+
+    @Benchmark
+    public void request() {
+        serviceLog.info("Fetching dashboard for user: {}", userId);
+        for (int i = 0; i < STATEMENTS; i++) {
+            sqlLog.debug(SQL);
+            binderLog.trace("binding parameter (1:UUID) <- [{}]", userId);
+            binderLog.trace("binding parameter (2:BOOLEAN) <- [{}]", true);
+            binderLog.trace("binding parameter (3:INTEGER) <- [{}]", i);
+        }
+    }
+
+    private Appender<ILoggingEvent> async(Appender<ILoggingEvent> delegate) {
+        AsyncAppender async = new AsyncAppender();
+        async.setContext(context);
+        async.setQueueSize(8192);
+        async.setNeverBlock(true);
+        async.setIncludeCallerData(false);
+        async.addAppender(delegate);
+        async.start();
+        return async;
+    }
+}
@@ -0,0 +1,92 @@
+package com.devhabits.benchmark;
+
+import com.devhabits.config.RateLimitFilter;
+import com.devhabits.config.RateLimitProperties;
+import com.devhabits.config.RateLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of RateLimitFilter on an authenticated check-in, the controller being a no-op.
+ * DISABLED is the bare filter without rules. NO_RULE goes through the rules without a match;
+ * ALLOWED takes a token from the user's local bucket (the fast path), REJECTED answers 429.
+ * Redis is not involved on these paths: it is only called when the buckets are synced.
+ *
+ * Run with: ./mvnw -Pbenchmark -DskipTests test -Dbenchmark=RateLimitBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RateLimitBenchmark {
+
+    @Param({"DISABLED", "NO_RULE", "ALLOWED", "REJECTED"})
+    public String mode;
+
+    private final FilterChain chain = (request, response) -> { };
+
+    private RateLimitFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        RateLimitProperties.Rule rule = new RateLimitProperties.Rule();
+        rule.setName("check-in");
+        rule.setMethod("POST");
+        rule.setPath("NO_RULE".equals(mode) ? "/api/github/sync-repositories" : "/api/habits/{habitId}/check-in");
+        rule.setCapacity("REJECTED".equals(mode) ? 1 : Integer.MAX_VALUE);
+        rule.setPeriod("REJECTED".equals(mode) ? Duration.ofDays(1) : Duration.ofSeconds(1));
+
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setEnabled(!"DISABLED".equals(mode));
+        properties.setRules(List.of(rule));
+        RateLimiter rateLimiter = new RateLimiter(Mockito.mock(StringRedisTemplate.class), properties);
+        filter = new RateLimitFilter(rateLimiter, new SimpleMeterRegistry(),
+                new ObjectMapper().registerModule(new JavaTimeModule()));
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(UUID.randomUUID().toString(), null, List.of()));
+        request = new MockHttpServletRequest("POST", "/api/habits/" + UUID.randomUUID() + "/check-in");
+        response = new MockHttpServletResponse();
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public int checkIn() throws Exception {
+        response.reset();
+        filter.doFilter(request, response, chain);
+        return response.getStatus();
+    }
+}
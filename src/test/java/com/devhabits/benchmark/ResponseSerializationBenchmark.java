@@ -0,0 +1,139 @@
+package com.devhabits.benchmark;
+
+import com.devhabits.model.dto.response.ApiResponse;
+import com.devhabits.model.dto.response.DashboardResponse;
+import com.devhabits.model.dto.response.DashboardStats;
+import com.devhabits.model.dto.response.HabitResponse;
+import com.devhabits.model.dto.response.UserResponse;
+import com.devhabits.model.enums.HabitCategory;
+import com.devhabits.model.enums.HabitFrequency;
+import com.devhabits.util.SparseFieldsets;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Size and serialization time of a dashboard with 50 habits for each response mode:
+ * JSON as today, JSON with a sparse fieldset, CBOR and Smile (nulls omitted).
+ * The bytes allocated per serialization are reported by the gc profiler. No external dependency.
+ *
+ * Run with: ./mvnw -Pbenchmark -DskipTests test -Dbenchmark=ResponseSerializationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+    private static final int HABITS = 50;
+    private static final String SPARSE_FIELDS = "name,currentStreak,completedToday";
+
+    @Param({"JSON", "JSON_SPARSE", "CBOR", "SMILE"})
+    public String mode;
+
+    private ObjectWriter writer;
+    private ApiResponse<DashboardResponse> response;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        response = ApiResponse.success(dashboard());
+
+        writer = switch (mode) {
+            case "JSON" -> builder().build().writer();
+            case "JSON_SPARSE" -> builder().build().writer(SparseFieldsets.filterFor(SPARSE_FIELDS));
+            case "CBOR" -> builder().serializationInclusion(JsonInclude.Include.NON_NULL)
+                    .factory(new CBORFactory()).build().writer();
+            case "SMILE" -> builder().serializationInclusion(JsonInclude.Include.NON_NULL)
+                    .factory(new SmileFactory()).build().writer();
+            default -> throw new IllegalArgumentException(mode);
+        };
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return writer.writeValueAsBytes(response);
+    }
+
+    /**
+     * Same setup as the application mapper (Java time, ISO dates, sparse fieldset filter)
+     */
+    private static Jackson2ObjectMapperBuilder builder() {
+        return Jackson2ObjectMapperBuilder.json()
+                .mixIn(HabitResponse.class, SparseFieldsets.Filtered.class)
+                .filters(SparseFieldsets.SERIALIZE_ALL);
+    }
+
+    private static DashboardResponse dashboard() {
+        LocalDateTime now = LocalDateTime.of(2025, 1, 15, 9, 30);
+        List<HabitResponse> habits = IntStream.range(0, HABITS)
+                .mapToObj(i -> HabitResponse.builder()
+                        .id(UUID.randomUUID())
+                        .name("Habit number " + i)
+                        .description(i % 3 == 0 ? "Write at least one meaningful commit on a side project" : null)
+                        .category(HabitCategory.values()[i % HabitCategory.values().length])
+                        .frequency(HabitFrequency.DAILY)
+                        .targetCount(1)
+                        .icon(i % 2 == 0 ? "code" : null)
+                        .color("#4F46E5")
+                        .reminderEnabled(i % 4 == 0)
+                        .reminderTime(i % 4 == 0 ? LocalTime.of(20, 0) : null)
+                        .currentStreak(i % 17)
+                        .longestStreak(i % 29)
+                        .totalCompletions(i * 7)
+                        .completedToday(i % 2 == 0)
+                        .lastCompletedAt(now.minusDays(i % 3))
+                        .createdAt(now.minusDays(100 + i))
+                        .build())
+                .toList();
+
+        return DashboardResponse.builder()
+                .user(UserResponse.builder()
+                        .id(UUID.randomUUID())
+                        .email("dev@example.com")
+                        .username("dev")
+                        .timezone("Europe/Paris")
+                        .totalXp(4200)
+                        .level(7)
+                        .currentStreak(16)
+                        .longestStreak(28)
+                        .emailVerified(true)
+                        .createdAt(now.minusYears(1))
+                        .lastLoginAt(now)
+                        .build())
+                .stats(DashboardStats.builder()
+                        .totalHabits(HABITS)
+                        .activeHabits(HABITS)
+                        .completedToday(HABITS / 2)
+                        .totalCompletionsThisWeek(180)
+                        .totalCompletionsThisMonth(720)
+                        .completionRateToday(50.0)
+                        .currentMaxStreak(16)
+                        .build())
+                .todayHabits(habits)
+                .streakAtRiskHabits(habits.stream().filter(habit -> !habit.getCompletedToday()).toList())
+                .build();
+    }
+}
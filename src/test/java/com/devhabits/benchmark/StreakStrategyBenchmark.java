@@ -0,0 +1,83 @@
+package com.devhabits.benchmark;
+
+import com.devhabits.model.entity.HabitLog;
+import com.devhabits.model.enums.HabitFrequency;
+import com.devhabits.util.CompletionHistory;
+import com.devhabits.util.StreakCalculator;
+import com.devhabits.util.streak.ScheduledDaysStreakStrategy;
+import com.devhabits.util.streak.StreakResult;
+import com.devhabits.util.streak.StreakStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Cost of a full streak computation over ten years of history (one completion on ~85% of days)
+ * for each frequency, from sorted epoch days and from the serialized completion bitmap
+ * (what a check-in reads). No external dependency.
+ *
+ * Run with: ./mvnw -Pbenchmark -DskipTests test -Dbenchmark=StreakStrategyBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StreakStrategyBenchmark {
+
+    private static final int HISTORY_DAYS = 3650;
+
+    @Param({"DAILY", "WEEKLY", "CUSTOM"})
+    public HabitFrequency frequency;
+
+    private StreakStrategy strategy;
+    private int[] epochDays;
+    private byte[] bitmap;
+    private LocalDate today;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        today = LocalDate.of(2025, 1, 15);
+        int first = (int) today.minusDays(HISTORY_DAYS).toEpochDay();
+        Random random = new Random(42);
+
+        epochDays = IntStream.range(first, first + HISTORY_DAYS)
+                .filter(day -> random.nextInt(100) < 85)
+                .toArray();
+
+        bitmap = CompletionHistory.fromLogs(IntStream.of(epochDays)
+                .mapToObj(day -> HabitLog.builder().completedAt(LocalDate.ofEpochDay(day).atTime(9, 0)).build())
+                .toList())
+                .toBytes();
+
+        int mask = ScheduledDaysStreakStrategy.toMask(EnumSet.of(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY, DayOfWeek.FRIDAY));
+        strategy = StreakCalculator.strategyFor(frequency, 3, mask);
+    }
+
+    @Benchmark
+    public StreakResult compute() {
+        return strategy.compute(epochDays, today);
+    }
+
+    @Benchmark
+    public StreakResult computeFromBitmap() {
+        return strategy.compute(CompletionHistory.fromBytes(bitmap).epochDays(), today);
+    }
+}
@@ -0,0 +1,79 @@
+package com.devhabits.benchmark;
+
+import com.devhabits.model.dto.github.GitHubWebhookPayload;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Parsing of the webhook fixtures (src/test/resources/github/webhooks): a 1 MB push of 1,000
+ * commits and a pull request opened with its head and base repositories.
+ * TREE materializes the whole document (JsonNode), DATA_BINDING is Jackson's bean deserializer
+ * (previous behaviour), STREAMING the GitHubWebhookPayloadDeserializer. The bytes allocated by
+ * one parse are reported by the gc profiler (gc.alloc.rate.norm). No external dependency.
+ *
+ * Run with: ./mvnw -Pbenchmark -DskipTests test -Dbenchmark=WebhookPayloadBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WebhookPayloadBenchmark {
+
+    @Param({"push-1000-commits.json.gz", "pull_request-opened.json"})
+    public String fixture;
+
+    @Param({"TREE", "DATA_BINDING", "STREAMING"})
+    public String mode;
+
+    private byte[] payload;
+    private ObjectMapper objectMapper;
+    private ObjectReader reader;
+
+    @Setup
+    public void setUp() throws Exception {
+        try (InputStream in = getClass().getResourceAsStream("/github/webhooks/" + fixture)) {
+            payload = (fixture.endsWith(".gz") ? new GZIPInputStream(in) : in).readAllBytes();
+        }
+        objectMapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        reader = switch (mode) {
+            case "TREE", "STREAMING" -> objectMapper.readerFor(GitHubWebhookPayload.class);
+            case "DATA_BINDING" -> objectMapper.copy()
+                    .addMixIn(GitHubWebhookPayload.class, DataBinding.class)
+                    .readerFor(GitHubWebhookPayload.class);
+            default -> throw new IllegalArgumentException(mode);
+        };
+    }
+
+    @Benchmark
+    public Object parse() throws IOException {
+        if ("TREE".equals(mode)) {
+            return objectMapper.readTree(payload);
+        }
+        return reader.readValue(payload);
+    }
+
+    @JsonDeserialize(using = JsonDeserializer.None.class)
+    private interface DataBinding {
+    }
+}
@@ -0,0 +1,196 @@
+package com.devhabits.benchmark;
+
+import com.devhabits.model.dto.github.GitHubWebhookPayload;
+import com.devhabits.model.entity.GitHubRepository;
+import com.devhabits.repository.GitHubRepositoryRepo;
+import com.devhabits.security.TokenVault;
+import com.devhabits.security.TokenVaultProperties;
+import com.devhabits.security.WebhookSecretCache;
+import com.devhabits.security.WebhookSignatureFilter;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a GitHub webhook with a 1 MB push payload, up to the controller.
+ * PARSE_FIRST is the previous behaviour, binding the payload with Jackson before any check.
+ * The other modes go through WebhookSignatureFilter: UNSIGNED and UNKNOWN_REPOSITORY are
+ * rejected from the headers, FORGED and VALID hash the whole body (secret served from the cache).
+ * No external dependency.
+ *
+ * Run with: ./mvnw -Pbenchmark -DskipTests test -Dbenchmark=WebhookSignatureBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WebhookSignatureBenchmark {
+
+    private static final long REPO_ID = 42L;
+    private static final long UNKNOWN_REPO_ID = 43L;
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+
+    @Param({"PARSE_FIRST", "UNSIGNED", "UNKNOWN_REPOSITORY", "FORGED", "VALID"})
+    public String mode;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final FilterChain chain = (request, response) -> { };
+
+    private WebhookSignatureFilter filter;
+    private byte[] payload;
+    private String signature;
+    private long repositoryId;
+
+    @Setup
+    public void setUp() throws Exception {
+        TokenVaultProperties properties = new TokenVaultProperties();
+        properties.setActiveKeyId("k1");
+        properties.setMasterKeys(Map.of("k1", "KsdtaEzY0vjGzhTq0G48KuBjpqofC5XVlTllr2LQWf0="));
+        TokenVault tokenVault = new TokenVault(properties, new SimpleMeterRegistry());
+
+        GitHubRepositoryRepo repositoryRepo = Mockito.mock(GitHubRepositoryRepo.class);
+        Mockito.when(repositoryRepo.findWithWebhookSecretByGithubRepoId(REPO_ID)).thenReturn(List.of(GitHubRepository.builder()
+                .userId(UUID.randomUUID())
+                .githubRepoId(REPO_ID)
+                .webhookSecret(tokenVault.encrypt(SECRET))
+                .build()));
+        Mockito.when(repositoryRepo.findWithWebhookSecretByGithubRepoId(UNKNOWN_REPO_ID)).thenReturn(List.of());
+        WebhookSecretCache secretCache = new WebhookSecretCache(
+                repositoryRepo, tokenVault, null, new SimpleMeterRegistry(), Duration.ofMinutes(10), 1000);
+        filter = new WebhookSignatureFilter(secretCache, new SimpleMeterRegistry(), DataSize.ofMegabytes(25));
+
+        payload = pushPayload();
+        signature = switch (mode) {
+            case "UNSIGNED" -> null;
+            case "FORGED" -> sign("guessed-secret");
+            default -> sign(SECRET);
+        };
+        repositoryId = "UNKNOWN_REPOSITORY".equals(mode) ? UNKNOWN_REPO_ID : REPO_ID;
+    }
+
+    @Benchmark
+    public Object webhook() throws Exception {
+        if ("PARSE_FIRST".equals(mode)) {
+            return objectMapper.readValue(request().getInputStream(), GitHubWebhookPayload.class);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(), response, chain);
+        return response.getStatus();
+    }
+
+    private MockHttpServletRequest request() {
+        MockHttpServletRequest request = new BulkReadRequest();
+        request.addHeader("X-GitHub-Event", "push");
+        request.addHeader(WebhookSignatureFilter.TARGET_TYPE_HEADER, "repository");
+        request.addHeader(WebhookSignatureFilter.TARGET_ID_HEADER, Long.toString(repositoryId));
+        if (signature != null) {
+            request.addHeader(WebhookSignatureFilter.SIGNATURE_HEADER, signature);
+        }
+        request.setContentType("application/json");
+        request.setContent(payload);
+        return request;
+    }
+
+    private String sign(String secret) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return "sha256=" + HexFormat.of().formatHex(mac.doFinal(payload));
+    }
+
+    /**
+     * Reads the body in bulk like the servlet container, the mock input stream reads byte by byte
+     */
+    private static final class BulkReadRequest extends MockHttpServletRequest {
+
+        BulkReadRequest() {
+            super("POST", "/api/github/webhook");
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(getContentAsByteArray());
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+    }
+
+    /**
+     * Push of a large branch: about 1 MB of commits with their messages and changed files
+     */
+    private static byte[] pushPayload() {
+        StringBuilder json = new StringBuilder("""
+                {"ref":"refs/heads/main","before":"%s","after":"%s",
+                 "repository":{"id":%d,"name":"repo","full_name":"octo/repo","private":false},
+                 "sender":{"id":1,"login":"octo","avatar_url":"https://avatars.githubusercontent.com/u/1"},
+                 "head_commit":{"id":"%s","message":"Release"},"commits":[""".formatted(
+                "a".repeat(40), "b".repeat(40), REPO_ID, "b".repeat(40)));
+        for (int i = 0; json.length() < 1024 * 1024; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("""
+                    {"id":"%040x","message":"Refactor module %d: extract the streak calculation and cover it with tests",
+                     "timestamp":"2025-01-15T09:30:00Z","author":{"name":"Octo Cat","email":"octo@example.com"},
+                     "added":["src/main/java/module%d/Added.java"],"removed":[],
+                     "modified":["src/main/java/module%d/Service.java","src/test/java/module%d/ServiceTest.java"]}""".formatted(
+                    i, i, i, i, i));
+        }
+        return json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
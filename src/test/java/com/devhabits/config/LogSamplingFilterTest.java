@@ -0,0 +1,72 @@
+package com.devhabits.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogSamplingFilterTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private final Logger serviceLogger = context.getLogger("com.devhabits.service.HabitService");
+
+    private LogSamplingFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new LogSamplingFilter();
+        filter.setLoggers("com.devhabits.controller, com.devhabits.service");
+        filter.setRate(10);
+    }
+
+    @Test
+    void shouldKeepOneInfoEventPerRate() {
+        assertThat(accepted(serviceLogger, Level.INFO, "Fetching habits for user: {}", 100)).isEqualTo(10);
+    }
+
+    @Test
+    void shouldCountEachMessageTemplateSeparately() {
+        assertThat(decide(serviceLogger, Level.INFO, "Fetching habits for user: {}", null)).isEqualTo(FilterReply.NEUTRAL);
+        assertThat(decide(serviceLogger, Level.INFO, "Habit created: {}", null)).isEqualTo(FilterReply.NEUTRAL);
+        assertThat(decide(serviceLogger, Level.INFO, "Habit created: {}", null)).isEqualTo(FilterReply.DENY);
+    }
+
+    @Test
+    void shouldNeverSampleWarningsOrExceptions() {
+        assertThat(accepted(serviceLogger, Level.WARN, "GitHub sync failed: {}", 20)).isEqualTo(20);
+        assertThat(IntStream.range(0, 20)
+                .mapToObj(i -> decide(serviceLogger, Level.INFO, "Sync failed", new IllegalStateException()))
+                .allMatch(FilterReply.NEUTRAL::equals)).isTrue();
+    }
+
+    @Test
+    void shouldIgnoreOtherLoggers() {
+        Logger security = context.getLogger("com.devhabits.security.JwtAuthenticationFilter");
+
+        assertThat(accepted(security, Level.INFO, "Authenticated user: {}", 20)).isEqualTo(20);
+    }
+
+    @Test
+    void rateOfOne_ShouldKeepEverything() {
+        filter.setRate(1);
+
+        assertThat(accepted(serviceLogger, Level.INFO, "Fetching habits for user: {}", 20)).isEqualTo(20);
+    }
+
+    private long accepted(Logger logger, Level level, String format, int events) {
+        return IntStream.range(0, events)
+                .mapToObj(i -> decide(logger, level, format, null))
+                .filter(FilterReply.NEUTRAL::equals)
+                .count();
+    }
+
+    private FilterReply decide(Logger logger, Level level, String format, Throwable t) {
+        return filter.decide(null, logger, level, format, new Object[]{"id"}, t);
+    }
+}
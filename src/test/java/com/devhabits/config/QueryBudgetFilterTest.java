@@ -0,0 +1,87 @@
+package com.devhabits.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class QueryBudgetFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final QueryCountInspector inspector = new QueryCountInspector();
+    private final QueryBudgetProperties properties = new QueryBudgetProperties();
+
+    private QueryBudgetFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        properties.setDefaultBudget(10);
+        properties.setBudgets(Map.of("GET /api/habits/{habitId}", 2));
+        filter = new QueryBudgetFilter(inspector, properties, meterRegistry);
+    }
+
+    @Test
+    void shouldRecordStatementsPerRoute() throws Exception {
+        run("/api/habits/{habitId}", 2);
+
+        DistributionSummary queries = meterRegistry.find("devhabits.http.queries")
+                .tags("method", "GET", "uri", "/api/habits/{habitId}")
+                .summary();
+        assertThat(queries).isNotNull();
+        assertThat(queries.count()).isEqualTo(1);
+        assertThat(queries.max()).isEqualTo(2);
+    }
+
+    @Test
+    void overBudget_ShouldOnlyLogByDefault() throws Exception {
+        run("/api/habits/{habitId}", 3);
+
+        assertThat(meterRegistry.find("devhabits.http.queries").summary().max()).isEqualTo(3);
+    }
+
+    @Test
+    void overBudget_WhenFailing_ShouldThrow() {
+        properties.setFailOnExceeded(true);
+
+        assertThatThrownBy(() -> run("/api/habits/{habitId}", 3))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("GET /api/habits/{habitId} ran 3 SQL statements, budget is 2");
+    }
+
+    @Test
+    void unknownRoute_ShouldUseTheDefaultBudget() throws Exception {
+        properties.setFailOnExceeded(true);
+
+        run("/api/dashboard", 10);
+    }
+
+    @Test
+    void statementsOutsideARequest_ShouldNotBeCounted() throws Exception {
+        inspector.inspect("select 1");
+
+        run("/api/habits/{habitId}", 1);
+        inspector.inspect("select 1");
+
+        assertThat(meterRegistry.find("devhabits.http.queries").summary().max()).isEqualTo(1);
+    }
+
+    private void run(String route, int statements) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", route);
+        FilterChain controller = (req, res) -> {
+            for (int i = 0; i < statements; i++) {
+                inspector.inspect("select 1");
+            }
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, route);
+        };
+        filter.doFilter(request, new MockHttpServletResponse(), controller);
+    }
+}
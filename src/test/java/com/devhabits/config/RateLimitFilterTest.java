@@ -0,0 +1,154 @@
+package com.devhabits.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class RateLimitFilterTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger controllerCalls = new AtomicInteger();
+    private final FilterChain chain = (request, response) -> controllerCalls.incrementAndGet();
+
+    private RateLimiter rateLimiter;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setRules(List.of(
+                rule("auth", null, "/api/auth/**", RateLimitProperties.Key.IP, 2),
+                rule("check-in", "POST", "/api/habits/{habitId}/check-in", RateLimitProperties.Key.USER, 2)));
+        rateLimiter = new RateLimiter(redisTemplate, properties);
+        filter = new RateLimitFilter(rateLimiter, meterRegistry, new ObjectMapper().registerModule(new JavaTimeModule()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void overTheLimit_ShouldRespond429WithRetryAfter() throws Exception {
+        authenticate(UUID.randomUUID());
+
+        assertThat(checkIn().getStatus()).isEqualTo(200);
+        assertThat(checkIn().getStatus()).isEqualTo(200);
+        MockHttpServletResponse rejected = checkIn();
+
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        // 2 tokens per hour: the next one comes within 30 minutes
+        assertThat(Long.parseLong(rejected.getHeader(HttpHeaders.RETRY_AFTER))).isBetween(1790L, 1800L);
+        assertThat(rejected.getContentAsString()).contains("\"success\":false");
+        assertThat(controllerCalls).hasValue(2);
+        assertThat(meterRegistry.get("devhabits.http.rate-limited").tag("rule", "check-in").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void eachUser_ShouldHaveTheirOwnBucket() throws Exception {
+        authenticate(UUID.randomUUID());
+        checkIn();
+        checkIn();
+        authenticate(UUID.randomUUID());
+
+        assertThat(checkIn().getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void authEndpoints_ShouldBeLimitedByClientAddress() throws Exception {
+        assertThat(login("10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(login("10.0.0.1").getStatus()).isEqualTo(200);
+
+        assertThat(login("10.0.0.1").getStatus()).isEqualTo(429);
+        assertThat(login("10.0.0.2").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void unmatchedOrAnonymousRequests_ShouldNotBeCounted() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            // No rule for this route
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/habits/" + UUID.randomUUID());
+            filter.doFilter(request, new MockHttpServletResponse(), chain);
+            // Per-user route without a user: Spring Security answers 401
+            assertThat(checkIn().getStatus()).isEqualTo(200);
+        }
+
+        assertThat(controllerCalls).hasValue(10);
+    }
+
+    @Test
+    void sync_ShouldAlignTheLocalBucketOnTheSharedOne() throws Exception {
+        authenticate(UUID.randomUUID());
+        assertThat(checkIn().getStatus()).isEqualTo(200);
+
+        // Another node took the last token in the meantime
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(List.of("0"));
+        rateLimiter.sync();
+
+        assertThat(checkIn().getStatus()).isEqualTo(429);
+    }
+
+    private MockHttpServletResponse checkIn() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/habits/" + UUID.randomUUID() + "/check-in");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private MockHttpServletResponse login(String remoteAddress) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setRemoteAddr(remoteAddress);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static void authenticate(UUID userId) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(userId.toString(), null, List.of()));
+    }
+
+    static RateLimitProperties.Rule rule(String name, String method, String path, RateLimitProperties.Key key,
+                                         int capacityPerHour) {
+        RateLimitProperties.Rule rule = new RateLimitProperties.Rule();
+        rule.setName(name);
+        rule.setMethod(method);
+        rule.setPath(path);
+        rule.setKey(key);
+        rule.setCapacity(capacityPerHour);
+        rule.setPeriod(Duration.ofHours(1));
+        return rule;
+    }
+}
@@ -0,0 +1,69 @@
+package com.devhabits.config;
+
+import com.devhabits.AbstractIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two limiters sharing the test Redis, as two nodes would
+ */
+class RateLimiterTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    private RateLimiter node1;
+    private RateLimiter node2;
+    private String userId;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setRules(List.of(RateLimitFilterTest.rule(
+                "check-in", "POST", "/api/habits/{habitId}/check-in", RateLimitProperties.Key.USER, 3)));
+        node1 = new RateLimiter(redisTemplate, properties);
+        node2 = new RateLimiter(redisTemplate, properties);
+        userId = UUID.randomUUID().toString();
+    }
+
+    @Test
+    void newBucket_ShouldAlignOnWhatOtherNodesConsumedAtItsFirstSync() {
+        assertThat(acquire(node1)).isZero();
+        assertThat(acquire(node1)).isZero();
+        node1.sync();
+
+        // Starts full locally, the first request queues it for the next sync
+        assertThat(acquire(node2)).isZero();
+        node2.sync();
+        assertThat(acquire(node2)).isPositive();
+    }
+
+    @Test
+    void sync_ShouldShareTheQuotaAcrossNodes() {
+        assertThat(acquire(node1)).isZero();
+        assertThat(acquire(node2)).isZero();
+        assertThat(acquire(node2)).isZero();
+        node1.sync();
+        node2.sync();
+
+        // 3 requests per hour across both nodes
+        assertThat(acquire(node2)).isPositive();
+        // Node 1 learns what node 2 consumed at its next sync
+        assertThat(acquire(node1)).isZero();
+        node1.sync();
+        assertThat(acquire(node1)).isPositive();
+        assertThat(redisTemplate.getExpire("ratelimit:check-in:" + userId)).isPositive();
+    }
+
+    private long acquire(RateLimiter node) {
+        RateLimiter.Limit limit = node.limitFor("POST", "/api/habits/" + UUID.randomUUID() + "/check-in");
+        return node.tryAcquire(limit, userId);
+    }
+}
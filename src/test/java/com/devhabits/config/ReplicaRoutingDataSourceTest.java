@@ -0,0 +1,150 @@
+package com.devhabits.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ReplicaRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource replica;
+
+    @Mock
+    private JdbcTemplate replicaJdbc;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ReplicaLagMonitor lagMonitor;
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(primary.getConnection()).thenReturn(mock(Connection.class));
+        when(replica.getConnection()).thenReturn(mock(Connection.class));
+
+        lagMonitor = new ReplicaLagMonitor(replicaJdbc, Duration.ofSeconds(2), meterRegistry);
+        dataSource = new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primary, replica, lagMonitor));
+        // The proxy reads the default auto-commit and isolation once, from a primary connection
+        dataSource.getConnection().close();
+        clearInvocations(primary);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        ReplicaRoutingDataSource.clearPin();
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldUseTheReplica() throws SQLException {
+        replicaLag(0.4);
+
+        runQuery(true);
+
+        verify(replica).getConnection();
+        verify(primary, never()).getConnection();
+        assertThat(meterRegistry.get("devhabits.datasource.replica.lag").gauge().value()).isEqualTo(0.4);
+    }
+
+    @Test
+    void writeTransaction_ShouldUseThePrimary() throws SQLException {
+        replicaLag(0);
+
+        runQuery(false);
+
+        verify(primary).getConnection();
+        verify(replica, never()).getConnection();
+    }
+
+    @Test
+    void laggingReplica_ShouldFallBackToThePrimary() throws SQLException {
+        replicaLag(5);
+
+        runQuery(true);
+
+        verify(primary).getConnection();
+        verify(replica, never()).getConnection();
+        assertThat(meterRegistry.get("devhabits.datasource.replica.usable").gauge().value()).isZero();
+    }
+
+    @Test
+    void unreachableReplica_ShouldFallBackToThePrimary() throws SQLException {
+        replicaLag(0);
+        when(replicaJdbc.queryForObject(anyString(), eq(Double.class)))
+                .thenThrow(new IllegalStateException("Connection refused"));
+        lagMonitor.check();
+
+        runQuery(true);
+
+        verify(primary).getConnection();
+        assertThat(lagMonitor.isReplicaUsable()).isFalse();
+    }
+
+    @Test
+    void threadPinnedAfterAWrite_ShouldReadFromThePrimary() throws SQLException {
+        replicaLag(0);
+        ReplicaRoutingDataSource.pinToPrimary();
+
+        runQuery(true);
+
+        verify(primary).getConnection();
+        verify(replica, never()).getConnection();
+
+        ReplicaRoutingDataSource.clearPin();
+        runQuery(true);
+
+        verify(replica).getConnection();
+    }
+
+    @Test
+    void replicaShouldBeUnusableBeforeTheFirstCheck() throws SQLException {
+        runQuery(true);
+
+        verify(primary).getConnection();
+        verify(replica, never()).getConnection();
+    }
+
+    private void replicaLag(double seconds) {
+        when(replicaJdbc.queryForObject(anyString(), eq(Double.class))).thenReturn(seconds);
+        lagMonitor.check();
+    }
+
+    /**
+     * The transaction manager gets the connection before marking the transaction read-only:
+     * the target is only chosen on the first statement
+     */
+    private void runQuery(boolean readOnly) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+            connection.createStatement();
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.devhabits.config;
+
+import com.devhabits.service.UserDataVersionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ResponseCacheFilterTest {
+
+    private static final String BODY = "{\"success\":true,\"data\":{\"habits\":[" + "{\"name\":\"Daily commit\"},".repeat(50) + "{}]}}";
+
+    @Mock
+    private UserDataVersionService userDataVersionService;
+
+    @Mock
+    private RedisTemplate<String, byte[]> redisTemplate;
+
+    @Mock
+    private ValueOperations<String, byte[]> valueOperations;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Map<String, byte[]> redis = new HashMap<>();
+    private final AtomicInteger controllerCalls = new AtomicInteger();
+    private final UUID userId = UUID.randomUUID();
+
+    private ResponseCacheFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(anyString())).thenAnswer(invocation -> redis.get(invocation.<String>getArgument(0)));
+        doAnswer(invocation -> redis.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(valueOperations).set(anyString(), any(byte[].class), any(Duration.class));
+        when(userDataVersionService.eTag(eq(userId), any(WebRequest.class))).thenReturn("W/\"1-20000\"");
+
+        filter = new ResponseCacheFilter(userDataVersionService, redisTemplate, meterRegistry,
+                List.of("/api/dashboard"), Duration.ofMinutes(10), DataSize.ofMegabytes(1));
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(userId.toString(), null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void firstRequest_ShouldCacheAndServeCompressedBody() throws Exception {
+        MockHttpServletResponse response = get(true);
+
+        assertThat(controllerCalls).hasValue(1);
+        assertThat(redis).hasSize(1);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(gunzip(response.getContentAsByteArray())).isEqualTo(BODY);
+    }
+
+    @Test
+    void cacheHit_ShouldSkipTheControllerAndWriteStoredBytes() throws Exception {
+        get(true);
+        MockHttpServletResponse response = get(true);
+
+        assertThat(controllerCalls).hasValue(1);
+        assertThat(cacheRequests("hit")).isEqualTo(1);
+        assertThat(cacheRequests("miss")).isEqualTo(1);
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(response.getContentType()).startsWith(MediaType.APPLICATION_JSON_VALUE);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo("W/\"1-20000\"");
+        assertThat(gunzip(response.getContentAsByteArray())).isEqualTo(BODY);
+    }
+
+    @Test
+    void cacheHit_WithoutGzipSupport_ShouldServePlainBody() throws Exception {
+        get(true);
+        MockHttpServletResponse response = get(false);
+
+        assertThat(controllerCalls).hasValue(1);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(response.getContentAsString()).isEqualTo(BODY);
+    }
+
+    @Test
+    void newVersion_ShouldMissTheCache() throws Exception {
+        get(true);
+        when(userDataVersionService.eTag(eq(userId), any(WebRequest.class))).thenReturn("W/\"2-20000\"");
+
+        get(true);
+
+        assertThat(controllerCalls).hasValue(2);
+        assertThat(redis).hasSize(2);
+    }
+
+    @Test
+    void redisUnavailable_ShouldPassThrough() throws Exception {
+        when(userDataVersionService.eTag(eq(userId), any(WebRequest.class))).thenReturn(null);
+
+        MockHttpServletResponse response = get(true);
+
+        assertThat(controllerCalls).hasValue(1);
+        assertThat(redis).isEmpty();
+        assertThat(response.getContentAsString()).isEqualTo(BODY);
+    }
+
+    private MockHttpServletResponse get(boolean acceptsGzip) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/dashboard");
+        request.addHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE);
+        if (acceptsGzip) {
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br");
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        FilterChain controller = (req, res) -> {
+            controllerCalls.incrementAndGet();
+            res.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            res.getOutputStream().write(BODY.getBytes(StandardCharsets.UTF_8));
+        };
+        filter.doFilter(request, response, controller);
+        return response;
+    }
+
+    private double cacheRequests(String result) {
+        return meterRegistry.counter("devhabits.cache.requests", "cache", "response", "result", result).count();
+    }
+
+    private static String gunzip(byte[] bytes) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package com.devhabits.controller;
+
+import com.devhabits.AbstractIntegrationTest;
+import com.devhabits.config.QueryBudgetProperties;
+import com.devhabits.model.entity.GitHubConnection;
+import com.devhabits.model.entity.GitHubRepository;
+import com.devhabits.model.entity.Habit;
+import com.devhabits.model.entity.HabitLog;
+import com.devhabits.model.entity.User;
+import com.devhabits.model.enums.GitHubEventType;
+import com.devhabits.repository.GitHubConnectionRepository;
+import com.devhabits.repository.GitHubRepositoryRepo;
+import com.devhabits.repository.HabitLogRepository;
+import com.devhabits.security.JwtTokenProvider;
+import com.devhabits.security.TokenVault;
+import com.devhabits.security.WebhookSignatureFilter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.client.RestTemplate;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * SQL statement budget of every endpoint, on a user with several habits and logs so that a
+ * query per habit shows up. Requests over budget also fail in the filter (test profile).
+ * POST /api/github/connect is left out: it calls GitHub before touching the database.
+ */
+@AutoConfigureMockMvc
+class QueryBudgetTest extends AbstractIntegrationTest {
+
+    private static final String PASSWORD = "Password123";
+    private static final int HABIT_COUNT = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private QueryBudgetProperties queryBudgetProperties;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private TokenVault tokenVault;
+
+    @Autowired
+    private HabitLogRepository habitLogRepository;
+
+    @Autowired
+    private GitHubConnectionRepository connectionRepository;
+
+    @Autowired
+    private GitHubRepositoryRepo repositoryRepo;
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    private User user;
+    private String token;
+    private long githubUserId;
+    private final List<Habit> habits = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        user = saveUser("budget", user -> user.setPasswordHash(passwordEncoder.encode(PASSWORD)));
+        token = jwtTokenProvider.generateAccessToken(user.getId(), user.getEmail());
+
+        for (int i = 0; i < HABIT_COUNT; i++) {
+            boolean tracksCommits = i == 0;
+            Habit habit = saveHabit(user.getId(), "Habit " + i, tracked -> {
+                tracked.setGithubAutoTrack(tracksCommits);
+                tracked.setGithubEventType(tracksCommits ? GitHubEventType.COMMIT : null);
+            });
+            for (int day = 1; day <= 3; day++) {
+                habitLogRepository.save(HabitLog.builder()
+                        .habitId(habit.getId())
+                        .userId(user.getId())
+                        .completedAt(LocalDate.now().minusDays(day).atTime(9, 0))
+                        .build());
+            }
+            habits.add(habit);
+        }
+
+        githubUserId = Math.abs(UUID.randomUUID().getMostSignificantBits() % 1_000_000_000L);
+        connectionRepository.save(GitHubConnection.builder()
+                .userId(user.getId())
+                .githubUserId(githubUserId)
+                .githubUsername(user.getUsername())
+                .accessToken("gho_test")
+                .build());
+        for (int i = 0; i < HABIT_COUNT; i++) {
+            repositoryRepo.save(GitHubRepository.builder()
+                    .userId(user.getId())
+                    .githubRepoId(githubUserId * 10 + i)
+                    .repositoryName("repo-" + i)
+                    .repositoryFullName(user.getUsername() + "/repo-" + i)
+                    .build());
+        }
+    }
+
+    // --- Auth ---
+
+    @Test
+    void register() throws Exception {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        assertWithinBudget("POST", "/api/auth/register", post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"email":"new-%s@example.com","username":"new-%s","password":"%s"}
+                        """.formatted(suffix, suffix, PASSWORD)));
+    }
+
+    @Test
+    void login() throws Exception {
+        assertWithinBudget("POST", "/api/auth/login", post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"emailOrUsername":"%s","password":"%s"}
+                        """.formatted(user.getEmail(), PASSWORD)));
+    }
+
+    @Test
+    void refreshToken() throws Exception {
+        assertWithinBudget("POST", "/api/auth/refresh", post("/api/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"refreshToken":"%s"}
+                        """.formatted(jwtTokenProvider.generateRefreshToken(user.getId()))));
+    }
+
+    @Test
+    void health() throws Exception {
+        assertWithinBudget("GET", "/api/auth/health", get("/api/auth/health"));
+    }
+
+    // --- Dashboard ---
+
+    @Test
+    void getDashboard() throws Exception {
+        assertWithinBudget("GET", "/api/dashboard", authenticated(get("/api/dashboard")));
+    }
+
+    // --- Habits ---
+
+    @Test
+    void createHabit() throws Exception {
+        assertWithinBudget("POST", "/api/habits", authenticated(post("/api/habits"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"name":"Read docs","category":"LEARN","frequency":"DAILY"}
+                        """));
+    }
+
+    @Test
+    void getUserHabits() throws Exception {
+        assertWithinBudget("GET", "/api/habits", authenticated(get("/api/habits")));
+        assertWithinBudget("GET", "/api/habits", authenticated(get("/api/habits").param("includeArchived", "true")));
+    }
+
+    @Test
+    void getHabitById() throws Exception {
+        assertWithinBudget("GET", "/api/habits/{habitId}", authenticated(get("/api/habits/{id}", habitId())));
+    }
+
+    @Test
+    void updateHabit() throws Exception {
+        assertWithinBudget("PUT", "/api/habits/{habitId}", authenticated(put("/api/habits/{id}", habitId()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"name":"Renamed","frequency":"WEEKLY"}
+                        """));
+    }
+
+    @Test
+    void deleteAndRestoreHabit() throws Exception {
+        assertWithinBudget("DELETE", "/api/habits/{habitId}", authenticated(delete("/api/habits/{id}", habitId())));
+        assertWithinBudget("PATCH", "/api/habits/{habitId}/restore",
+                authenticated(patch("/api/habits/{id}/restore", habitId())));
+    }
+
+    @Test
+    void checkInHabit() throws Exception {
+        assertWithinBudget("POST", "/api/habits/{habitId}/check-in",
+                authenticated(post("/api/habits/{id}/check-in", habitId()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"));
+    }
+
+    @Test
+    void getHabitCalendar() throws Exception {
+        assertWithinBudget("GET", "/api/habits/{habitId}/calendar",
+                authenticated(get("/api/habits/{id}/calendar", habitId())));
+    }
+
+    @Test
+    void getUserCalendar() throws Exception {
+        assertWithinBudget("GET", "/api/habits/calendar", authenticated(get("/api/habits/calendar")));
+    }
+
+    // --- GitHub ---
+
+    @Test
+    void getConnection() throws Exception {
+        assertWithinBudget("GET", "/api/github/connection", authenticated(get("/api/github/connection")));
+    }
+
+    @Test
+    void disconnectGitHub() throws Exception {
+        assertWithinBudget("DELETE", "/api/github/disconnect", authenticated(delete("/api/github/disconnect")));
+    }
+
+    @Test
+    void getRepositories() throws Exception {
+        assertWithinBudget("GET", "/api/github/repositories", authenticated(get("/api/github/repositories")));
+    }
+
+    @Test
+    void toggleRepositoryTracking() throws Exception {
+        UUID repoId = repositoryRepo.findByUserId(user.getId()).get(0).getId();
+        assertWithinBudget("PATCH", "/api/github/repositories/{repoId}/toggle-tracking",
+                authenticated(patch("/api/github/repositories/{id}/toggle-tracking", repoId)));
+    }
+
+    @Test
+    void getRecentEvents() throws Exception {
+        assertWithinBudget("GET", "/api/github/events", authenticated(get("/api/github/events")));
+    }
+
+    @Test
+    @DirtiesContext
+    void syncRepositories() throws Exception {
+        // GitHub stand-in listing the user's repositories: the client keeps it, the context is dropped after
+        MockRestServiceServer github = MockRestServiceServer.bindTo(restTemplate).build();
+        StringJoiner repos = new StringJoiner(",", "[", "]");
+        for (int i = 0; i < HABIT_COUNT; i++) {
+            repos.add("{\"id\":%d,\"name\":\"repo-%d\",\"full_name\":\"octo/repo-%d\"}"
+                    .formatted(githubUserId * 10 + i, i, i));
+        }
+        github.expect(requestTo("https://api.github.com/user/repos?per_page=100&sort=updated"))
+                .andRespond(withSuccess(repos.toString(), MediaType.APPLICATION_JSON));
+
+        assertWithinBudget("POST", "/api/github/sync-repositories", authenticated(post("/api/github/sync-repositories")));
+        github.verify();
+    }
+
+    @Test
+    void webhook() throws Exception {
+        // Secret lookup included: the first webhook of the repository misses the cache
+        long githubRepoId = githubUserId * 10;
+        GitHubRepository repository = repositoryRepo.findByUserIdAndGithubRepoId(user.getId(), githubRepoId).orElseThrow();
+        repository.setWebhookSecret(tokenVault.encrypt("webhook-secret"));
+        repositoryRepo.save(repository);
+
+        // The commit set and stats are written in one statement, whatever the number of commits
+        StringJoiner commits = new StringJoiner(",");
+        String sha = null;
+        for (int i = 0; i < 50; i++) {
+            sha = (UUID.randomUUID().toString() + UUID.randomUUID()).replace("-", "").substring(0, 40);
+            commits.add("{\"id\":\"%s\",\"timestamp\":\"2025-01-15T10:00:00+01:00\"}".formatted(sha));
+        }
+        String payload = """
+                {"repository":{"id":%d,"name":"repo-0","full_name":"octo/repo-0"},
+                 "sender":{"id":%d,"login":"octo"},
+                 "commits":[%s],
+                 "head_commit":{"id":"%s","message":"Fix"}}
+                """.formatted(githubRepoId, githubUserId, commits, sha);
+        assertWithinBudget("POST", "/api/github/webhook", post("/api/github/webhook")
+                .header("X-GitHub-Event", "push")
+                .header(WebhookSignatureFilter.TARGET_TYPE_HEADER, "repository")
+                .header(WebhookSignatureFilter.TARGET_ID_HEADER, githubRepoId)
+                .header(WebhookSignatureFilter.SIGNATURE_HEADER, sign("webhook-secret", payload))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(payload));
+    }
+
+    private static String sign(String secret, String payload) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return "sha256=" + HexFormat.of().formatHex(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private UUID habitId() {
+        return habits.get(0).getId();
+    }
+
+    private MockHttpServletRequestBuilder authenticated(MockHttpServletRequestBuilder request) {
+        return request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+    }
+
+    private void assertWithinBudget(String method, String route, MockHttpServletRequestBuilder request) throws Exception {
+        mockMvc.perform(request).andExpect(status().is2xxSuccessful());
+
+        DistributionSummary queries = meterRegistry.find("devhabits.http.queries")
+                .tags("method", method, "uri", route)
+                .summary();
+        assertThat(queries).as("query count of %s %s", method, route).isNotNull();
+        assertThat(queries.max()).isLessThanOrEqualTo(queryBudgetProperties.budgetFor(method + " " + route));
+    }
+}
@@ -0,0 +1,100 @@
+package com.devhabits.model.dto.github;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class GitHubWebhookPayloadDeserializerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @Test
+    void push_ShouldReadTheHeadCommitAndThePushedCommitIds() throws IOException {
+        GitHubWebhookPayload payload = objectMapper.readValue(fixture("push-1000-commits.json.gz"), GitHubWebhookPayload.class);
+
+        assertThat(payload.getAction()).isNull();
+        assertThat(payload.getRepository().getId()).isEqualTo(812345678L);
+        assertThat(payload.getRepository().getFullName()).isEqualTo("octo-org/devhabits-web");
+        assertThat(payload.getSender().getId()).isEqualTo(583231L);
+        assertThat(payload.getSender().getLogin()).isEqualTo("octocat");
+        assertThat(payload.getHeadCommit().getId()).hasSize(40);
+        assertThat(payload.getHeadCommit().getMessage()).isNotBlank();
+        assertThat(payload.getHeadCommit().getAuthor().getUsername()).isEqualTo("octocat");
+        assertThat(payload.getCommits()).hasSize(1000);
+        assertThat(payload.getCommits().get(999).getId()).isEqualTo(payload.getHeadCommit().getId());
+        assertThat(payload.getCommits().get(0).getTimestamp()).isNotNull();
+        assertThat(payload.getCommits().get(0).getMessage()).isNull();
+        assertThat(payload.getPullRequest()).isNull();
+        assertThat(payload.getIssue()).isNull();
+    }
+
+    @Test
+    void pullRequest_ShouldReadNumberAndTitle() throws IOException {
+        GitHubWebhookPayload payload = objectMapper.readValue(fixture("pull_request-opened.json"), GitHubWebhookPayload.class);
+
+        assertThat(payload.getAction()).isEqualTo("opened");
+        assertThat(payload.getPullRequest().getNumber()).isEqualTo(1347);
+        assertThat(payload.getPullRequest().getTitle()).isEqualTo("Add weekly streak view to the dashboard");
+        assertThat(payload.getPullRequest().getUser().getLogin()).isEqualTo("octocat");
+        assertThat(payload.getRepository().getName()).isEqualTo("devhabits-web");
+        assertThat(payload.getHeadCommit()).isNull();
+    }
+
+    @Test
+    void readFields_ShouldMatchDataBinding() throws IOException {
+        ObjectMapper dataBinding = objectMapper.copy().addMixIn(GitHubWebhookPayload.class, DataBinding.class);
+
+        for (String fixture : new String[]{"push-1000-commits.json.gz", "issues-opened.json"}) {
+            GitHubWebhookPayload streamed = objectMapper.readValue(fixture(fixture), GitHubWebhookPayload.class);
+            GitHubWebhookPayload bound = dataBinding.readValue(fixture(fixture), GitHubWebhookPayload.class);
+
+            // Pushed commits are read partially: compared on the fields read
+            if (bound.getCommits() != null) {
+                assertThat(streamed.getCommits()).extracting(GitHubWebhookPayload.Commit::getId, GitHubWebhookPayload.Commit::getTimestamp)
+                        .isEqualTo(bound.getCommits().stream().map(c -> tuple(c.getId(), c.getTimestamp())).toList());
+                streamed.setCommits(null);
+                bound.setCommits(null);
+            }
+            assertThat(streamed).as(fixture).isEqualTo(bound);
+        }
+    }
+
+    @Test
+    void nullsAndUnexpectedTypes_ShouldBeSkipped() throws IOException {
+        GitHubWebhookPayload payload = objectMapper.readValue("""
+                {"action":null,"head_commit":null,"sender":[1,2],
+                 "repository":{"id":"812345678","owner":{"id":1,"login":"octo-org"},"name":"repo","topics":["a"]},
+                 "issue":{"number":7,"user":null,"labels":[{"name":"bug"}]}}
+                """, GitHubWebhookPayload.class);
+
+        assertThat(payload.getAction()).isNull();
+        assertThat(payload.getHeadCommit()).isNull();
+        assertThat(payload.getSender()).isNull();
+        assertThat(payload.getRepository().getId()).isNull();
+        assertThat(payload.getRepository().getName()).isEqualTo("repo");
+        assertThat(payload.getIssue().getNumber()).isEqualTo(7);
+        assertThat(payload.getIssue().getUser()).isNull();
+    }
+
+    private InputStream fixture(String name) throws IOException {
+        InputStream in = getClass().getResourceAsStream("/github/webhooks/" + name);
+        return name.endsWith(".gz") ? new GZIPInputStream(in) : in;
+    }
+
+    /**
+     * Jackson's bean deserializer, as before the streaming reader
+     */
+    @JsonDeserialize(using = JsonDeserializer.None.class)
+    private interface DataBinding {
+    }
+}
@@ -0,0 +1,203 @@
+package com.devhabits.repository;
+
+import com.devhabits.AbstractIntegrationTest;
+import com.devhabits.config.QueryCountInspector;
+import com.devhabits.model.enums.GitHubEventType;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Every statement of the repository methods must be served by an index. The SQL Hibernate prepares
+ * is captured, then planned generically (parameters unknown) with sequential scans disabled: the
+ * planner still picks a Seq Scan when no index can serve the query, whatever the table size.
+ */
+class IndexUsageTest extends AbstractIntegrationTest {
+
+    @MockitoSpyBean
+    private QueryCountInspector queryCountInspector;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private HabitRepository habitRepository;
+
+    @Autowired
+    private HabitLogRepository habitLogRepository;
+
+    @Autowired
+    private GitHubConnectionRepository connectionRepository;
+
+    @Autowired
+    private GitHubEventRepository eventRepository;
+
+    @Autowired
+    private GitHubRepositoryRepo repositoryRepo;
+
+    @Autowired
+    private GitHubBackfillRepository backfillRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    private final UUID userId = UUID.randomUUID();
+    private final UUID habitId = UUID.randomUUID();
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @Test
+    void userRepository() {
+        assertUsesIndex(() -> userRepository.findByEmail("octo@example.com"));
+        assertUsesIndex(() -> userRepository.findByUsername("octo"));
+        assertUsesIndex(() -> userRepository.findByEmailOrUsername("octo", "octo"));
+        assertUsesIndex(() -> userRepository.existsByEmail("octo@example.com"));
+        assertUsesIndex(() -> userRepository.existsByUsername("octo"));
+        assertUsesIndex(() -> userRepository.addXp(userId, 10));
+        assertUsesIndex(() -> userRepository.raiseStreaks(userId, 3, 5));
+        assertUsesIndex(() -> userRepository.recomputeCurrentStreakIfMax(userId, 3, 5));
+        assertUsesIndex(() -> userRepository.recomputeCurrentStreaks(List.of(userId, UUID.randomUUID())));
+    }
+
+    @Test
+    void habitRepository() {
+        assertUsesIndex(() -> habitRepository.findByUserIdAndIsActiveTrue(userId));
+        assertUsesIndex(() -> habitRepository.findByUserId(userId));
+        assertUsesIndex(() -> habitRepository.findIdsByUserId(userId));
+        assertUsesIndex(() -> habitRepository.existsByIdAndUserId(habitId, userId));
+        assertUsesIndex(() -> habitRepository.findByIdAndUserId(habitId, userId));
+        assertUsesIndex(() -> habitRepository.countByUserIdAndIsActiveTrue(userId));
+        assertUsesIndex(() -> habitRepository.recordCompletion(habitId, 1, 1, now));
+        assertUsesIndex(() -> habitRepository.findScheduleDaysWithActiveStreaks());
+        assertUsesIndex(() -> habitRepository.findWeeklyTargetsWithActiveStreaks());
+        assertUsesIndex(() -> habitRepository.lockExpiredStreaks("DAILY", 1, 0, now, now.minusWeeks(1), now, 1, 0, 500));
+        assertUsesIndex(() -> habitRepository.resetExpiredStreaks(List.of(habitId), now));
+        assertUsesIndex(() -> habitRepository.applyRecomputedStreaks(habitId, 1, 1));
+    }
+
+    @Test
+    void habitLogRepository() {
+        assertUsesIndex(() -> habitLogRepository.findByHabitIdOrderByCompletedAtDesc(habitId));
+        assertUsesIndex(() -> habitLogRepository.findByHabitIdIn(List.of(habitId, UUID.randomUUID())));
+        assertUsesIndex(() -> habitLogRepository.findByHabitIdAndCompletedAtBetweenOrderByCompletedAtDesc(
+                habitId, now.minusDays(30), now));
+        assertUsesIndex(() -> habitLogRepository.existsForToday(habitId, now.toLocalDate().atStartOfDay(),
+                now.toLocalDate().plusDays(1).atStartOfDay()));
+        assertUsesIndex(() -> habitLogRepository.countByHabitId(habitId));
+        assertUsesIndex(() -> habitLogRepository.findFirstByHabitIdOrderByCompletedAtDesc(habitId));
+    }
+
+    @Test
+    void gitHubConnectionRepository() {
+        assertUsesIndex(() -> connectionRepository.findByUserId(userId));
+        assertUsesIndex(() -> connectionRepository.findByUserIdAndIsActiveTrue(userId));
+        assertUsesIndex(() -> connectionRepository.findByGithubUserId(42L));
+        assertUsesIndex(() -> connectionRepository.existsByUserId(userId));
+        assertUsesIndex(() -> connectionRepository.existsByUserIdAndIsActiveTrue(userId));
+    }
+
+    @Test
+    void gitHubEventRepository() {
+        assertUsesIndex(() -> eventRepository.findByUserIdOrderByCreatedAtDesc(userId));
+        assertUsesIndex(() -> eventRepository.findByHabitIdOrderByCreatedAtDesc(habitId));
+        assertUsesIndex(() -> eventRepository.findByEventIdAndEventType("abc123", GitHubEventType.COMMIT));
+        assertUsesIndex(() -> eventRepository.existsByEventIdAndEventType("abc123", GitHubEventType.COMMIT));
+        assertUsesIndex(() -> eventRepository.findRecentEventsByUser(userId, now.minusDays(7)));
+        assertUsesIndex(() -> eventRepository.findByUserIdAndEventType(userId, GitHubEventType.PULL_REQUEST));
+        assertUsesIndex(() -> eventRepository.countByUserIdAndCreatedAtAfter(userId, now.minusDays(7)));
+        assertUsesIndex(() -> eventRepository.recordCommits(userId, "octo/repo", "0123456789abcdef0123456789abcdef01234567", "2025-01-15"));
+    }
+
+    @Test
+    void gitHubRepositoryRepo() {
+        assertUsesIndex(() -> repositoryRepo.findByUserId(userId));
+        assertUsesIndex(() -> repositoryRepo.findByUserIdAndIsTrackedTrue(userId));
+        assertUsesIndex(() -> repositoryRepo.findByUserIdAndGithubRepoId(userId, 42L));
+        assertUsesIndex(() -> repositoryRepo.findByUserIdAndRepositoryFullName(userId, "octo/repo"));
+        assertUsesIndex(() -> repositoryRepo.existsByUserIdAndGithubRepoId(userId, 42L));
+        assertUsesIndex(() -> repositoryRepo.findWithWebhookSecretByGithubRepoId(42L));
+    }
+
+    @Test
+    void gitHubBackfillRepository() {
+        assertUsesIndex(() -> backfillRepository.findById(userId));
+        assertUsesIndex(() -> backfillRepository.findDueUserIds(now, 10));
+        assertUsesIndex(() -> backfillRepository.claim(userId, now, now.plusMinutes(10)));
+        assertUsesIndex(() -> backfillRepository.release(userId));
+    }
+
+    @Test
+    void outboxEventRepository() {
+        assertUsesIndex(() -> outboxEventRepository.hasClaimedBatch(now));
+        assertUsesIndex(() -> outboxEventRepository.lockPendingBatch(now, now.minusSeconds(1), 200));
+        assertUsesIndex(() -> outboxEventRepository.claim(List.of(1L, 2L), now.plusMinutes(1)));
+        assertUsesIndex(() -> outboxEventRepository.markPublished(List.of(1L, 2L), now));
+        assertUsesIndex(() -> outboxEventRepository.deletePublishedBefore(now.minusDays(7)));
+    }
+
+    private void assertUsesIndex(Runnable repositoryCall) {
+        clearInvocations(queryCountInspector);
+        transactionTemplate.executeWithoutResult(status -> {
+            repositoryCall.run();
+            status.setRollbackOnly();
+        });
+
+        ArgumentCaptor<String> statements = ArgumentCaptor.forClass(String.class);
+        verify(queryCountInspector, atLeastOnce()).inspect(statements.capture());
+        for (String sql : statements.getAllValues()) {
+            assertThat(genericPlan(sql))
+                    .as("plan of %s", sql)
+                    .doesNotContain("Seq Scan")
+                    .contains("Index");
+        }
+    }
+
+    /**
+     * EXPLAIN of the statement prepared with unknown parameters ($1, $2...) and a forced generic plan
+     */
+    private String genericPlan(String sql) {
+        StringBuilder prepared = new StringBuilder();
+        int parameters = 0;
+        boolean inLiteral = false;
+        for (char c : sql.toCharArray()) {
+            if (c == '\'') {
+                inLiteral = !inLiteral;
+            }
+            if (c == '?' && !inLiteral) {
+                prepared.append('$').append(++parameters);
+            } else {
+                prepared.append(c);
+            }
+        }
+        String arguments = parameters == 0 ? "" : "(" + String.join(", ", Collections.nCopies(parameters, "NULL")) + ")";
+
+        return transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+            jdbcTemplate.execute("SET LOCAL plan_cache_mode = force_generic_plan");
+            jdbcTemplate.execute("PREPARE index_usage AS " + prepared);
+            try {
+                return String.join("\n", jdbcTemplate.queryForList("EXPLAIN EXECUTE index_usage" + arguments, String.class));
+            } finally {
+                jdbcTemplate.execute("DEALLOCATE index_usage");
+            }
+        });
+    }
+}
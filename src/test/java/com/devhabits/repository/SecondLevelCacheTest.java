@@ -0,0 +1,101 @@
+package com.devhabits.repository;
+
+import com.devhabits.AbstractIntegrationTest;
+import com.devhabits.config.QueryCountInspector;
+import com.devhabits.config.SecondLevelCacheInvalidator;
+import com.devhabits.model.entity.GitHubConnection;
+import com.devhabits.model.entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.DefaultMessage;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SecondLevelCacheTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private GitHubConnectionRepository connectionRepository;
+
+    @Autowired
+    private QueryCountInspector queryCountInspector;
+
+    @Autowired
+    private SecondLevelCacheInvalidator invalidator;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private GitHubConnection connection;
+    private long githubUserId;
+
+    @BeforeEach
+    void setUp() {
+        User user = saveUser("cache");
+
+        githubUserId = Math.abs(UUID.randomUUID().getMostSignificantBits() % 1_000_000_000L);
+        connection = connectionRepository.save(GitHubConnection.builder()
+                .userId(user.getId())
+                .githubUserId(githubUserId)
+                .githubUsername(user.getUsername())
+                .accessToken("gho_test")
+                .build());
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findByGithubUserId_SecondCallInABurst_ShouldHitTheCache() {
+        assertThat(connectionRepository.findByGithubUserId(githubUserId)).isPresent();
+
+        queryCountInspector.start();
+        GitHubConnection cached = connectionRepository.findByGithubUserId(githubUserId).orElseThrow();
+        int statements = queryCountInspector.stop();
+
+        assertThat(cached.getId()).isEqualTo(connection.getId());
+        assertThat(statements).isZero();
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getSecondLevelCacheHitCount()).isPositive();
+    }
+
+    @Test
+    void update_ShouldBeVisibleOnTheNextRead() {
+        connectionRepository.findByGithubUserId(githubUserId);
+
+        connection.setGithubUsername("renamed");
+        connectionRepository.save(connection);
+
+        assertThat(connectionRepository.findByGithubUserId(githubUserId).orElseThrow().getGithubUsername())
+                .isEqualTo("renamed");
+    }
+
+    @Test
+    void invalidationFromAnotherNode_ShouldEvictTheEntity() {
+        connectionRepository.findByGithubUserId(githubUserId);
+        assertThat(entityManagerFactory.getCache().contains(GitHubConnection.class, connection.getId())).isTrue();
+
+        invalidator.onMessage(message("""
+                {"node":"other-node","entity":"%s","id":"%s"}
+                """.formatted(GitHubConnection.class.getName(), connection.getId())), null);
+
+        assertThat(entityManagerFactory.getCache().contains(GitHubConnection.class, connection.getId())).isFalse();
+
+        queryCountInspector.start();
+        connectionRepository.findByGithubUserId(githubUserId);
+        assertThat(queryCountInspector.stop()).isPositive();
+    }
+
+    private DefaultMessage message(String body) {
+        return new DefaultMessage(
+                SecondLevelCacheInvalidator.CHANNEL.getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+}
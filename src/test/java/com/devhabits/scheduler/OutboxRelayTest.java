@@ -0,0 +1,65 @@
+package com.devhabits.scheduler;
+
+import com.devhabits.AbstractIntegrationTest;
+import com.devhabits.model.dto.request.CheckInRequest;
+import com.devhabits.model.entity.Habit;
+import com.devhabits.model.entity.OutboxEvent;
+import com.devhabits.model.entity.User;
+import com.devhabits.model.enums.DomainEventType;
+import com.devhabits.repository.OutboxEventRepository;
+import com.devhabits.service.HabitService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OutboxRelayTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private HabitService habitService;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    private User user;
+    private Habit habit;
+
+    @BeforeEach
+    void setUp() {
+        user = saveUser("outbox");
+        habit = saveHabit(user.getId(), "Daily commit");
+    }
+
+    @Test
+    void checkIn_ShouldWriteOutboxEventPublishedByTheRelay() {
+        habitService.checkInHabit(user.getId(), habit.getId(), new CheckInRequest());
+
+        OutboxEvent pending = outboxEventRepository.findAll().stream()
+                .filter(event -> event.getUserId().equals(user.getId()))
+                .findFirst()
+                .orElseThrow();
+        assertThat(pending.getEventType()).isEqualTo(DomainEventType.HABIT_COMPLETED);
+        assertThat(pending.getPublishedAt()).isNull();
+
+        outboxRelay.relay();
+
+        assertThat(outboxEventRepository.findById(pending.getId()).orElseThrow().getPublishedAt()).isNotNull();
+
+        List<MapRecord<String, Object, Object>> stream = redisTemplate.opsForStream()
+                .read(StreamOffset.fromStart(OutboxRelay.STREAM_KEY));
+        assertThat(stream).anySatisfy(record ->
+                assertThat(record.getValue()).containsEntry("id", String.valueOf(pending.getId())));
+    }
+}
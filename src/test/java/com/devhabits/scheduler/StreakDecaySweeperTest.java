@@ -0,0 +1,115 @@
+package com.devhabits.scheduler;
+
+import com.devhabits.AbstractIntegrationTest;
+import com.devhabits.model.entity.Habit;
+import com.devhabits.model.entity.HabitLog;
+import com.devhabits.model.entity.User;
+import com.devhabits.model.enums.HabitFrequency;
+import com.devhabits.repository.HabitLogRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreakDecaySweeperTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private StreakDecaySweeper sweeper;
+
+    @Autowired
+    private HabitLogRepository habitLogRepository;
+
+    @Test
+    void sweep_ShouldResetOnlyExpiredStreaks_AndRecomputeUserStreak() {
+        LocalDate today = LocalDate.now();
+        UUID userId = saveUser("sweeper", user -> {
+            user.setCurrentStreak(4);
+            user.setLongestStreak(4);
+        }).getId();
+
+        Habit abandoned = saveHabit(userId, HabitFrequency.DAILY, 4, today.minusDays(3).atTime(9, 0));
+        Habit doneYesterday = saveHabit(userId, HabitFrequency.DAILY, 2, today.minusDays(1).atTime(21, 0));
+        Habit weekly = saveHabit(userId, HabitFrequency.WEEKLY, 3, today.minusDays(3).atTime(9, 0));
+
+        sweeper.sweep(today);
+
+        assertThat(habitRepository.findById(abandoned.getId()).orElseThrow().getCurrentStreak()).isZero();
+        assertThat(habitRepository.findById(doneYesterday.getId()).orElseThrow().getCurrentStreak()).isEqualTo(2);
+        assertThat(habitRepository.findById(weekly.getId()).orElseThrow().getCurrentStreak()).isEqualTo(3);
+
+        User user = userRepository.findById(userId).orElseThrow();
+        assertThat(user.getCurrentStreak()).isEqualTo(3);
+        assertThat(user.getLongestStreak()).isEqualTo(4);
+    }
+
+    @Test
+    void sweep_ShouldUseTheWeeklyTargetAndTreatCustomHabitsWithoutScheduleAsDaily() {
+        LocalDate today = LocalDate.now();
+        LocalDate lastMonday = today.with(DayOfWeek.MONDAY).minusWeeks(1);
+        UUID userId = saveUser("sweeper").getId();
+
+        Habit weeklyTarget = saveHabit(userId, HabitFrequency.WEEKLY, 2, lastMonday.atTime(9, 0), 3);
+        Habit unscheduled = saveHabit(userId, HabitFrequency.CUSTOM, 5, today.minusDays(3).atTime(9, 0));
+
+        sweeper.sweep(today);
+
+        // A single completion last Monday cannot have reached 3 that week
+        assertThat(habitRepository.findById(weeklyTarget.getId()).orElseThrow().getCurrentStreak()).isZero();
+        assertThat(habitRepository.findById(unscheduled.getId()).orElseThrow().getCurrentStreak()).isZero();
+    }
+
+    @Test
+    void sweep_WhenALateCompletionDidNotReachLastWeeksTarget_ShouldResetTheWeeklyStreak() {
+        LocalDate today = LocalDate.now();
+        LocalDate lastMonday = today.with(DayOfWeek.MONDAY).minusWeeks(1);
+        LocalDate lastSunday = lastMonday.plusDays(6);
+        UUID userId = saveUser("sweeper").getId();
+
+        Habit missed = saveHabit(userId, HabitFrequency.WEEKLY, 2, lastSunday.atTime(20, 0), 3);
+        saveLog(missed, lastMonday.minusWeeks(1));
+        saveLog(missed, lastMonday.minusWeeks(1).plusDays(1));
+        saveLog(missed, lastMonday.minusWeeks(1).plusDays(2));
+        Habit met = saveHabit(userId, HabitFrequency.WEEKLY, 2, lastSunday.atTime(20, 0), 3);
+        saveLog(met, lastSunday.minusDays(2));
+        saveLog(met, lastSunday.minusDays(1));
+
+        sweeper.sweep(today);
+
+        // Sunday is past the date cutoff, but it was the only completion of last week: 1 of 3
+        assertThat(habitRepository.findById(missed.getId()).orElseThrow().getCurrentStreak()).isZero();
+        assertThat(habitRepository.findById(met.getId()).orElseThrow().getCurrentStreak()).isEqualTo(2);
+    }
+
+    private Habit saveHabit(UUID userId, HabitFrequency frequency, int streak, LocalDateTime lastCompletedAt) {
+        return saveHabit(userId, frequency, streak, lastCompletedAt, 1);
+    }
+
+    /**
+     * Habit with its last completion logged, weekly streaks are checked against the logs
+     */
+    private Habit saveHabit(UUID userId, HabitFrequency frequency, int streak, LocalDateTime lastCompletedAt,
+                            int targetCount) {
+        Habit saved = saveHabit(userId, frequency + " habit", habit -> {
+            habit.setFrequency(frequency);
+            habit.setTargetCount(targetCount);
+            habit.setCurrentStreak(streak);
+            habit.setLongestStreak(streak);
+            habit.setLastCompletedAt(lastCompletedAt);
+        });
+        saveLog(saved, lastCompletedAt.toLocalDate());
+        return saved;
+    }
+
+    private void saveLog(Habit habit, LocalDate day) {
+        habitLogRepository.save(HabitLog.builder()
+                .habitId(habit.getId())
+                .userId(habit.getUserId())
+                .completedAt(day.atTime(9, 0))
+                .build());
+    }
+}
@@ -0,0 +1,100 @@
+package com.devhabits.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenVaultTest {
+
+    private static final String KEY_1 = "KsdtaEzY0vjGzhTq0G48KuBjpqofC5XVlTllr2LQWf0=";
+    private static final String KEY_2 = "3q2+7wABAgMEBQYHCAkKCwwNDg8QERITFBUWFxgZGhs=";
+
+    private TokenVault vault;
+
+    @BeforeEach
+    void setUp() {
+        vault = vault("k1", Map.of("k1", KEY_1));
+    }
+
+    @Test
+    void encrypt_ShouldRoundTripWithAFreshCiphertextEachTime() {
+        String first = vault.encrypt("gho_secret");
+        String second = vault.encrypt("gho_secret");
+
+        assertThat(first).startsWith("v1:k1:").doesNotContain("gho_secret");
+        assertThat(first).isNotEqualTo(second);
+        assertThat(vault.decrypt(first)).isEqualTo("gho_secret");
+        assertThat(vault.decrypt(second)).isEqualTo("gho_secret");
+    }
+
+    @Test
+    void decrypt_PlaintextFromBeforeEncryption_ShouldBeReturnedAsIs() {
+        assertThat(vault.decrypt("gho_legacy")).isEqualTo("gho_legacy");
+    }
+
+    @Test
+    void decrypt_TamperedCiphertext_ShouldFail() {
+        String stored = vault.encrypt("gho_secret");
+        String[] parts = stored.split(":");
+        int middle = parts[3].length() / 2;
+        char flipped = parts[3].charAt(middle) == 'A' ? 'B' : 'A';
+        parts[3] = parts[3].substring(0, middle) + flipped + parts[3].substring(middle + 1);
+
+        assertThatThrownBy(() -> vault.decrypt(String.join(":", parts)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("decryption failed");
+        // The master key id is authenticated too
+        assertThatThrownBy(() -> vault("k2", Map.of("k1", KEY_1, "k2", KEY_1)).decrypt(stored.replace(":k1:", ":k2:")))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void decrypt_AfterMasterKeyRotation_ShouldStillReadOlderTokens() {
+        String beforeRotation = vault.encrypt("gho_old");
+
+        TokenVault rotated = vault("k2", Map.of("k1", KEY_1, "k2", KEY_2));
+
+        assertThat(rotated.encrypt("gho_new")).startsWith("v1:k2:");
+        assertThat(rotated.decrypt(beforeRotation)).isEqualTo("gho_old");
+        assertThatThrownBy(() -> vault("k2", Map.of("k2", KEY_2)).decrypt(beforeRotation))
+                .hasMessageContaining("Unknown token vault master key 'k1'");
+    }
+
+    @Test
+    void evict_ShouldZeroTheCachedToken() {
+        String stored = vault.encrypt("gho_secret");
+        vault.decrypt(stored);
+        TokenVault.DecryptedToken cached = vault.cached(stored);
+        assertThat(cached.reveal()).isEqualTo("gho_secret");
+
+        vault.evict(stored);
+
+        assertThat(cached.isDestroyed()).isTrue();
+        assertThat(cached.reveal()).isNull();
+        assertThat(vault.cached(stored)).isNull();
+        assertThat(vault.decrypt(stored)).isEqualTo("gho_secret");
+    }
+
+    @Test
+    void constructor_WithoutUsableActiveKey_ShouldFail() {
+        assertThatThrownBy(() -> vault("k1", Map.of()))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> vault("k1", Map.of("k1", "dG9vLXNob3J0")))
+                .hasMessageContaining("256-bit");
+        // TOKEN_VAULT_MASTER_KEY not set: the placeholder is bound as is
+        assertThatThrownBy(() -> vault("k1", Map.of("k1", "${TOKEN_VAULT_MASTER_KEY}")))
+                .hasMessageContaining("256-bit");
+    }
+
+    private static TokenVault vault(String activeKeyId, Map<String, String> masterKeys) {
+        TokenVaultProperties properties = new TokenVaultProperties();
+        properties.setActiveKeyId(activeKeyId);
+        properties.setMasterKeys(masterKeys);
+        return new TokenVault(properties, new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,220 @@
+package com.devhabits.security;
+
+import com.devhabits.model.entity.GitHubRepository;
+import com.devhabits.repository.GitHubRepositoryRepo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.unit.DataSize;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WebhookSignatureFilterTest {
+
+    private static final long REPO_ID = 42L;
+    private static final String SECRET = "webhook-secret";
+    private static final UUID OWNER = UUID.randomUUID();
+    private static final String PAYLOAD = "{\"ref\":\"refs/heads/main\",\"sender\":{\"id\":1,\"login\":\"octo\"}}";
+
+    @Mock
+    private GitHubRepositoryRepo repositoryRepo;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private WebhookSignatureFilter filter;
+    private TokenVault tokenVault;
+    private byte[] forwardedBody;
+
+    @BeforeEach
+    void setUp() {
+        TokenVaultProperties properties = new TokenVaultProperties();
+        properties.setActiveKeyId("k1");
+        properties.setMasterKeys(Map.of("k1", "KsdtaEzY0vjGzhTq0G48KuBjpqofC5XVlTllr2LQWf0="));
+        tokenVault = new TokenVault(properties, meterRegistry);
+        WebhookSecretCache secretCache = new WebhookSecretCache(
+                repositoryRepo, tokenVault, redisTemplate, meterRegistry, Duration.ofMinutes(10), 1000);
+        filter = new WebhookSignatureFilter(secretCache, meterRegistry, DataSize.ofKilobytes(64));
+    }
+
+    @Test
+    void validSignature_ShouldForwardTheSameBody() throws Exception {
+        when(repositoryRepo.findWithWebhookSecretByGithubRepoId(REPO_ID)).thenReturn(List.of(configured(OWNER, SECRET)));
+
+        MockHttpServletRequest request = webhook(PAYLOAD, sign(SECRET, PAYLOAD));
+        MockHttpServletResponse response = filter(request);
+
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(new String(forwardedBody, StandardCharsets.UTF_8)).isEqualTo(PAYLOAD);
+        assertThat(request.getAttribute(WebhookSignatureFilter.OWNER_ATTRIBUTE)).isEqualTo(OWNER);
+        assertThat(request.getAttribute(WebhookSignatureFilter.REPOSITORY_ATTRIBUTE)).isEqualTo(REPO_ID);
+    }
+
+    @Test
+    void anyOfTheRepositorySecrets_ShouldBeAccepted() throws Exception {
+        UUID otherUser = UUID.randomUUID();
+        when(repositoryRepo.findWithWebhookSecretByGithubRepoId(REPO_ID))
+                .thenReturn(List.of(configured(otherUser, "other-user-secret"), configured(OWNER, SECRET)));
+
+        MockHttpServletRequest request = webhook(PAYLOAD, sign(SECRET, PAYLOAD));
+        assertThat(filter(request).getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        // Processed for the user whose secret signed it, whoever the sender is
+        assertThat(request.getAttribute(WebhookSignatureFilter.OWNER_ATTRIBUTE)).isEqualTo(OWNER);
+    }
+
+    @Test
+    void verifiedBody_ShouldBeReadableAsynchronously() throws Exception {
+        when(repositoryRepo.findWithWebhookSecretByGithubRepoId(REPO_ID)).thenReturn(List.of(configured(OWNER, SECRET)));
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        AtomicBoolean allRead = new AtomicBoolean();
+
+        filter.doFilter(webhook(PAYLOAD, sign(SECRET, PAYLOAD)), new MockHttpServletResponse(), (req, res) -> {
+            ServletInputStream in = req.getInputStream();
+            in.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    byte[] chunk = new byte[16];
+                    while (in.isReady() && !in.isFinished()) {
+                        read.write(chunk, 0, in.read(chunk));
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    allRead.set(true);
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    throw new AssertionError(t);
+                }
+            });
+        });
+
+        assertThat(allRead).isTrue();
+        assertThat(read.toString(StandardCharsets.UTF_8)).isEqualTo(PAYLOAD);
+    }
+
+    @Test
+    void forgedSignature_ShouldBeRejected() throws Exception {
+        when(repositoryRepo.findWithWebhookSecretByGithubRepoId(REPO_ID)).thenReturn(List.of(configured(OWNER, SECRET)));
+
+        MockHttpServletResponse response = filter(webhook(PAYLOAD, sign("guessed", PAYLOAD)));
+
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_UNAUTHORIZED);
+        assertThat(forwardedBody).isNull();
+        assertThat(rejected("invalid_signature")).isEqualTo(1);
+    }
+
+    @Test
+    void missingOrMalformedSignature_ShouldBeRejectedWithoutSecretLookup() throws Exception {
+        assertThat(filter(webhook(PAYLOAD, null)).getStatus()).isEqualTo(HttpServletResponse.SC_UNAUTHORIZED);
+        assertThat(filter(webhook(PAYLOAD, "sha1=abc")).getStatus()).isEqualTo(HttpServletResponse.SC_UNAUTHORIZED);
+        assertThat(filter(webhook(PAYLOAD, "sha256=" + "zz".repeat(32))).getStatus()).isEqualTo(HttpServletResponse.SC_UNAUTHORIZED);
+
+        assertThat(rejected("missing_signature")).isEqualTo(3);
+        verify(repositoryRepo, never()).findWithWebhookSecretByGithubRepoId(anyLong());
+    }
+
+    @Test
+    void repositoryWithoutSecret_ShouldBeRejectedWithOneLookup() throws Exception {
+        when(repositoryRepo.findWithWebhookSecretByGithubRepoId(REPO_ID)).thenReturn(List.of());
+
+        filter(webhook(PAYLOAD, sign(SECRET, PAYLOAD)));
+        MockHttpServletResponse response = filter(webhook(PAYLOAD, sign(SECRET, PAYLOAD)));
+
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_UNAUTHORIZED);
+        assertThat(rejected("unknown_repository")).isEqualTo(2);
+        verify(repositoryRepo, times(1)).findWithWebhookSecretByGithubRepoId(REPO_ID);
+    }
+
+    @Test
+    void payloadSpanningSeveralChunks_ShouldBeForwardedIntact() throws Exception {
+        when(repositoryRepo.findWithWebhookSecretByGithubRepoId(REPO_ID)).thenReturn(List.of(configured(OWNER, SECRET)));
+        String payload = "{\"commits\":\"" + "y".repeat(40 * 1024) + "\"}";
+
+        MockHttpServletResponse response = filter(webhook(payload, sign(SECRET, payload)));
+
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(new String(forwardedBody, StandardCharsets.UTF_8)).isEqualTo(payload);
+    }
+
+    @Test
+    void oversizedPayload_ShouldBeRejected() throws Exception {
+        String payload = "x".repeat(65 * 1024);
+
+        MockHttpServletResponse response = filter(webhook(payload, sign(SECRET, payload)));
+
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+        verify(repositoryRepo, never()).findWithWebhookSecretByGithubRepoId(anyLong());
+    }
+
+    private GitHubRepository configured(UUID userId, String secret) {
+        return GitHubRepository.builder()
+                .userId(userId)
+                .githubRepoId(REPO_ID)
+                .webhookSecret(tokenVault.encrypt(secret))
+                .build();
+    }
+
+    private MockHttpServletResponse filter(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (req, res) -> forwardedBody = StreamUtils.copyToByteArray(((HttpServletRequest) req).getInputStream());
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private double rejected(String reason) {
+        return meterRegistry.counter("devhabits.github.webhook.rejected", "reason", reason).count();
+    }
+
+    private static MockHttpServletRequest webhook(String payload, String signature) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/github/webhook");
+        request.addHeader("X-GitHub-Event", "push");
+        request.addHeader(WebhookSignatureFilter.TARGET_TYPE_HEADER, "repository");
+        request.addHeader(WebhookSignatureFilter.TARGET_ID_HEADER, Long.toString(REPO_ID));
+        if (signature != null) {
+            request.addHeader(WebhookSignatureFilter.SIGNATURE_HEADER, signature);
+        }
+        request.setContentType("application/json");
+        request.setContent(payload.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private static String sign(String secret, String payload) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return "sha256=" + HexFormat.of().formatHex(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -38,6 +38,9 @@ class AuthServiceTest {
     @Mock
     private AuthenticationManager authenticationManager;
 
+    @Mock
+    private UserDataVersionService userDataVersionService;
+
     @InjectMocks
     private AuthService authService;
 
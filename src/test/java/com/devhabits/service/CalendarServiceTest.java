@@ -0,0 +1,80 @@
+package com.devhabits.service;
+
+import com.devhabits.AbstractIntegrationTest;
+import com.devhabits.exception.ResourceNotFoundException;
+import com.devhabits.model.dto.response.CalendarResponse;
+import com.devhabits.model.entity.Habit;
+import com.devhabits.model.entity.HabitLog;
+import com.devhabits.model.entity.User;
+import com.devhabits.repository.HabitLogRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CalendarServiceTest extends AbstractIntegrationTest {
+
+    private static final int YEAR = 2024;
+
+    @Autowired
+    private CalendarService calendarService;
+
+    @Autowired
+    private HabitLogRepository habitLogRepository;
+
+    private User user;
+    private Habit reading;
+    private Habit coding;
+
+    @BeforeEach
+    void setUp() {
+        user = saveUser("calendar");
+        reading = saveHabit(user.getId(), "Reading");
+        coding = saveHabit(user.getId(), "Coding");
+
+        saveLog(reading, LocalDate.of(YEAR, 3, 1));
+        saveLog(reading, LocalDate.of(YEAR, 3, 2));
+        saveLog(coding, LocalDate.of(YEAR, 3, 2));
+        saveLog(coding, LocalDate.of(YEAR - 1, 12, 31));
+    }
+
+    @Test
+    void getHabitCalendar_ShouldReturnCompletedDaysOfTheYear() {
+        CalendarResponse calendar = calendarService.getHabitCalendar(user.getId(), coding.getId(), YEAR);
+
+        assertThat(calendar.getDays()).containsExactlyEntriesOf(Map.of(LocalDate.of(YEAR, 3, 2), 1));
+        assertThat(calendar.getTotalCompletions()).isEqualTo(1);
+    }
+
+    @Test
+    void getUserCalendar_ShouldSumCompletionsOverHabits() {
+        CalendarResponse calendar = calendarService.getUserCalendar(user.getId(), YEAR);
+
+        assertThat(calendar.getDays())
+                .containsEntry(LocalDate.of(YEAR, 3, 1), 1)
+                .containsEntry(LocalDate.of(YEAR, 3, 2), 2)
+                .hasSize(2);
+        assertThat(calendar.getTotalCompletions()).isEqualTo(3);
+        assertThat(calendar.getActiveDays()).isEqualTo(2);
+    }
+
+    @Test
+    void getHabitCalendar_WhenHabitOfAnotherUser_ShouldThrow() {
+        assertThatThrownBy(() -> calendarService.getHabitCalendar(UUID.randomUUID(), coding.getId(), YEAR))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    private void saveLog(Habit habit, LocalDate day) {
+        habitLogRepository.save(HabitLog.builder()
+                .habitId(habit.getId())
+                .userId(user.getId())
+                .completedAt(day.atTime(9, 0))
+                .build());
+    }
+}
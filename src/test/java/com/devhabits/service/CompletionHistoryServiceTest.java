@@ -0,0 +1,91 @@
+package com.devhabits.service;
+
+import com.devhabits.AbstractIntegrationTest;
+import com.devhabits.model.entity.Habit;
+import com.devhabits.model.entity.HabitLog;
+import com.devhabits.repository.HabitCompletionBitmapRepository;
+import com.devhabits.repository.HabitLogRepository;
+import com.devhabits.util.CompletionHistory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompletionHistoryServiceTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private CompletionHistoryService completionHistoryService;
+
+    @Autowired
+    private HabitCompletionBitmapRepository bitmapRepository;
+
+    @Autowired
+    private HabitLogRepository habitLogRepository;
+
+    @Autowired
+    private RedisTemplate<String, byte[]> byteArrayRedisTemplate;
+
+    private Habit habit;
+
+    @BeforeEach
+    void setUp() {
+        habit = saveHabit(saveUser("history").getId(), "Daily commit");
+    }
+
+    @Test
+    void getHistory_WhenNoBitmapStored_ShouldBuildItFromLogs() {
+        LocalDate today = LocalDate.now();
+        saveLog(today.minusDays(2));
+        saveLog(today.minusDays(1));
+
+        CompletionHistory history = completionHistoryService.getHistory(habit.getId());
+
+        assertThat(history.size()).isEqualTo(2);
+        assertThat(history.isCompletedOn(today.minusDays(1))).isTrue();
+        assertThat(bitmapRepository.findById(habit.getId())).hasValueSatisfying(bitmap ->
+                assertThat(bitmap.getCardinality()).isEqualTo(2));
+    }
+
+    @Test
+    void recordCompletion_ShouldUpdateStoredBitmapAndCachedCopy() {
+        LocalDate today = LocalDate.now();
+        saveLog(today.minusDays(1));
+        completionHistoryService.getHistory(habit.getId());
+
+        completionHistoryService.recordCompletion(habit.getId(), today);
+
+        assertThat(completionHistoryService.getHistory(habit.getId()).isCompletedOn(today)).isTrue();
+        assertThat(bitmapRepository.findById(habit.getId())).hasValueSatisfying(bitmap ->
+                assertThat(bitmap.getCardinality()).isEqualTo(2));
+    }
+
+    @Test
+    void recordCompletion_ShouldBumpTheCacheVersionSoOlderReadsAreNotStored() {
+        LocalDate today = LocalDate.now();
+        saveLog(today.minusDays(1));
+        completionHistoryService.getHistory(habit.getId());
+
+        completionHistoryService.recordCompletion(habit.getId(), today);
+
+        assertThat(byteArrayRedisTemplate.opsForValue().get("habit:history:version:" + habit.getId()))
+                .asString(StandardCharsets.UTF_8).isEqualTo("1");
+        assertThat(byteArrayRedisTemplate.hasKey("habit:history:" + habit.getId())).isFalse();
+        // The next read stores the new bitmap under the new version
+        assertThat(completionHistoryService.getHistory(habit.getId()).isCompletedOn(today)).isTrue();
+        assertThat(byteArrayRedisTemplate.hasKey("habit:history:" + habit.getId())).isTrue();
+    }
+
+    private void saveLog(LocalDate day) {
+        habitLogRepository.save(HabitLog.builder()
+                .habitId(habit.getId())
+                .userId(habit.getUserId())
+                .completedAt(day.atTime(9, 0))
+                .xpEarned(10)
+                .build());
+    }
+}
@@ -0,0 +1,118 @@
+package com.devhabits.service;
+
+import com.devhabits.model.dto.response.DashboardEvent;
+import com.devhabits.model.enums.DashboardEventType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+class DashboardStreamServiceTest {
+
+    private final DashboardStreamService streamService =
+            new DashboardStreamService(new ObjectMapper(), Duration.ofMinutes(1), Duration.ofSeconds(10), 2, 2);
+
+    @AfterEach
+    void tearDown() {
+        streamService.shutdown();
+    }
+
+    @Test
+    void connect_WhenTooManyStreamsForUser_ShouldCloseTheOldest() throws IOException {
+        UUID userId = UUID.randomUUID();
+
+        connect(userId);
+        connect(userId);
+        connect(userId);
+        connect(UUID.randomUUID());
+
+        assertThat(streamService.getConnectionCount()).isEqualTo(3);
+    }
+
+    @Test
+    void dispatch_WhenUserHasNoStream_ShouldDoNothing() {
+        DashboardEvent event = DashboardEvent.builder().type(DashboardEventType.XP_GAINED).xp(10).build();
+
+        assertThatCode(() -> streamService.dispatch(UUID.randomUUID(), List.of(event))).doesNotThrowAnyException();
+        assertThat(streamService.getConnectionCount()).isZero();
+    }
+
+    @Test
+    void dispatch_WhenAClientIsSlow_ShouldNotHoldUpTheOthersAndCloseItOnceItsBufferIsFull() throws IOException {
+        UUID userId = UUID.randomUUID();
+        SocketStream slow = connect(userId);
+        SocketStream fast = connect(userId);
+        slow.ready = false;
+        DashboardEvent event = DashboardEvent.builder().type(DashboardEventType.XP_GAINED).xp(10).build();
+
+        streamService.dispatch(userId, List.of(event, event));
+
+        assertThat(fast.written()).contains("retry:5000").contains("event:xp_gained\ndata:{");
+        assertThat(slow.written()).doesNotContain("event:");
+        assertThat(streamService.getConnectionCount()).isEqualTo(2);
+
+        // Buffer of 2 frames: the third one drops the slow client, the other one still gets it
+        streamService.dispatch(userId, List.of(event));
+
+        assertThat(streamService.getConnectionCount()).isEqualTo(1);
+        assertThat(fast.written().split("event:xp_gained", -1)).hasSize(4);
+    }
+
+    private SocketStream connect(UUID userId) throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/dashboard/stream");
+        request.setAsyncSupported(true);
+        SocketStream stream = new SocketStream();
+        MockHttpServletResponse response = new MockHttpServletResponse() {
+            @Override
+            public ServletOutputStream getOutputStream() {
+                return stream;
+            }
+        };
+        streamService.connect(userId, request, response);
+        return stream;
+    }
+
+    /**
+     * Client socket: takes data only while ready, as a servlet container reports it
+     */
+    private static final class SocketStream extends ServletOutputStream {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private boolean ready = true;
+
+        @Override
+        public boolean isReady() {
+            return ready;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            try {
+                writeListener.onWritePossible();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public void write(int b) {
+            bytes.write(b);
+        }
+
+        private String written() {
+            return bytes.toString(StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.devhabits.service;
+
+import com.devhabits.model.enums.GitHubEventType;
+import com.devhabits.service.GitHubActivityClient.ActivityItem;
+import com.devhabits.service.GitHubActivityClient.ActivityPage;
+import com.devhabits.service.GitHubActivityClient.RateLimitedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class GitHubActivityClientTest {
+
+    private static final String API_URL = "http://github.local";
+    private static final LocalDate SINCE = LocalDate.of(2025, 1, 1);
+    private static final String SOURCE = GitHubActivityClient.commitsSource("octo/repo");
+
+    private MockRestServiceServer github;
+    private GitHubActivityClient client;
+
+    @BeforeEach
+    void setUp() {
+        RestTemplate restTemplate = new RestTemplate();
+        github = MockRestServiceServer.bindTo(restTemplate).build();
+        client = new GitHubActivityClient(restTemplate, API_URL);
+    }
+
+    @Test
+    void commits_ShouldFollowTheNextLinkAndReportTheRateLimit() {
+        String firstPage = client.firstPage(SOURCE, "octocat", SINCE);
+        assertThat(firstPage).isEqualTo(API_URL + "/repos/octo/repo/commits?author=octocat&since=2025-01-01T00:00:00Z&per_page=100");
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.LINK, "<" + API_URL + "/repositories/1/commits?page=2>; rel=\"next\", "
+                + "<" + API_URL + "/repositories/1/commits?page=9>; rel=\"last\"");
+        headers.add("X-RateLimit-Remaining", "4321");
+        headers.add("X-RateLimit-Reset", "1767225600");
+        github.expect(requestTo(firstPage))
+                .andExpect(header(HttpHeaders.AUTHORIZATION, "Bearer gho_token"))
+                .andRespond(withSuccess("""
+                        [{"sha":"0123456789abcdef0123456789abcdef01234567",
+                          "commit":{"message":"Fix \\"quoted\\" bug","author":{"date":"2025-03-04T10:00:00Z"}}}]
+                        """, MediaType.APPLICATION_JSON).headers(headers));
+
+        ActivityPage page = client.fetch(SOURCE, firstPage, "gho_token", SINCE);
+
+        assertThat(page.items()).containsExactly(new ActivityItem(GitHubEventType.COMMIT,
+                "0123456789abcdef0123456789abcdef01234567", "octo/repo", "0123456789abcdef0123456789abcdef01234567",
+                "Fix \"quoted\" bug", null, page.items().get(0).occurredAt()));
+        assertThat(page.nextUrl()).isEqualTo(API_URL + "/repositories/1/commits?page=2");
+        assertThat(page.rateLimit().remaining()).isEqualTo(4321);
+        assertThat(page.rateLimit().reset()).isEqualTo(Instant.ofEpochSecond(1767225600));
+        github.verify();
+    }
+
+    @Test
+    void events_ShouldKeepTrackedTypesWithWebhookIdsAndStopAtTheWindow() {
+        String firstPage = client.firstPage(GitHubActivityClient.EVENTS_SOURCE, "octocat", SINCE);
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.LINK, "<" + API_URL + "/user/1/events?page=2>; rel=\"next\"");
+        github.expect(requestTo(firstPage)).andRespond(withSuccess("""
+                [{"type":"PullRequestEvent","repo":{"name":"octo/repo"},"created_at":"2025-03-04T10:00:00Z",
+                  "payload":{"action":"opened","pull_request":{"number":12,"title":"Add streaks"}}},
+                 {"type":"PullRequestEvent","repo":{"name":"octo/repo"},"created_at":"2025-03-03T10:00:00Z",
+                  "payload":{"action":"closed","pull_request":{"number":11,"title":"Old"}}},
+                 {"type":"IssuesEvent","repo":{"name":"octo/repo"},"created_at":"2025-03-02T10:00:00Z",
+                  "payload":{"action":"opened","issue":{"number":7,"title":"Crash"}}},
+                 {"type":"WatchEvent","repo":{"name":"octo/repo"},"created_at":"2025-03-01T10:00:00Z","payload":{}},
+                 {"type":"PullRequestReviewEvent","repo":{"name":"octo/repo"},"created_at":"2024-12-01T10:00:00Z",
+                  "payload":{"pull_request":{"number":3,"title":"Too old"}}}]
+                """, MediaType.APPLICATION_JSON).headers(headers));
+
+        ActivityPage page = client.fetch(GitHubActivityClient.EVENTS_SOURCE, firstPage, "gho_token", SINCE);
+
+        assertThat(page.items()).extracting(ActivityItem::type, ActivityItem::eventId, ActivityItem::title)
+                .containsExactly(
+                        tuple(GitHubEventType.PULL_REQUEST, "pr-octo/repo-12", "Add streaks"),
+                        tuple(GitHubEventType.ISSUE, "issue-octo/repo-7", "Crash"));
+        // The window was reached on this page: no need to read further
+        assertThat(page.nextUrl()).isNull();
+    }
+
+    @Test
+    void nextLinkOutsideTheApi_ShouldNotBeFollowed() {
+        String firstPage = client.firstPage(SOURCE, "octocat", SINCE);
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.LINK, "<http://elsewhere.example/steal?page=2>; rel=\"next\"");
+        github.expect(requestTo(firstPage)).andRespond(withSuccess("[]", MediaType.APPLICATION_JSON).headers(headers));
+
+        assertThat(client.fetch(SOURCE, firstPage, "gho_token", SINCE).nextUrl()).isNull();
+    }
+
+    @Test
+    void rateLimited_ShouldThrowWithTheResetTime() {
+        String firstPage = client.firstPage(SOURCE, "octocat", SINCE);
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("X-RateLimit-Remaining", "0");
+        headers.add("X-RateLimit-Reset", "1767225600");
+        github.expect(requestTo(firstPage)).andRespond(withStatus(HttpStatus.FORBIDDEN).headers(headers));
+
+        assertThatThrownBy(() -> client.fetch(SOURCE, firstPage, "gho_token", SINCE))
+                .isInstanceOfSatisfying(RateLimitedException.class,
+                        e -> assertThat(e.getResumeAt()).isEqualTo(Instant.ofEpochSecond(1767225600)));
+    }
+
+    @Test
+    void emptyOrDeletedRepository_ShouldGiveAnEmptyLastPage() {
+        String firstPage = client.firstPage(SOURCE, "octocat", SINCE);
+        github.expect(requestTo(firstPage)).andRespond(withStatus(HttpStatus.CONFLICT));
+
+        ActivityPage page = client.fetch(SOURCE, firstPage, "gho_token", SINCE);
+
+        assertThat(page.items()).isEmpty();
+        assertThat(page.nextUrl()).isNull();
+    }
+}
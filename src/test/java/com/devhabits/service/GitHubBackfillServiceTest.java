@@ -0,0 +1,195 @@
+package com.devhabits.service;
+
+import com.devhabits.AbstractIntegrationTest;
+import com.devhabits.model.entity.GitHubBackfill;
+import com.devhabits.model.entity.GitHubConnection;
+import com.devhabits.model.entity.GitHubRepository;
+import com.devhabits.model.entity.Habit;
+import com.devhabits.model.entity.User;
+import com.devhabits.model.enums.GitHubBackfillStatus;
+import com.devhabits.model.enums.GitHubEventType;
+import com.devhabits.repository.GitHubBackfillRepository;
+import com.devhabits.repository.GitHubConnectionRepository;
+import com.devhabits.repository.GitHubEventRepository;
+import com.devhabits.repository.GitHubRepositoryRepo;
+import com.devhabits.repository.HabitLogRepository;
+import com.devhabits.security.TokenVault;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+@DirtiesContext
+class GitHubBackfillServiceTest extends AbstractIntegrationTest {
+
+    private static final String API_URL = "https://api.github.com";
+
+    @Autowired
+    private GitHubBackfillService backfillService;
+
+    @Autowired
+    private GitHubBackfillRepository backfillRepository;
+
+    @Autowired
+    private GitHubConnectionRepository connectionRepository;
+
+    @Autowired
+    private GitHubRepositoryRepo repositoryRepo;
+
+    @Autowired
+    private GitHubEventRepository eventRepository;
+
+    @Autowired
+    private HabitLogRepository habitLogRepository;
+
+    @Autowired
+    private TokenVault tokenVault;
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    private MockRestServiceServer github;
+    private User user;
+    private String login;
+    private Habit commitHabit;
+
+    @BeforeEach
+    void setUp() {
+        // GitHub stand-in: the client keeps it, the context is dropped after this class
+        github = MockRestServiceServer.bindTo(restTemplate).build();
+
+        user = saveUser("backfill");
+        login = user.getUsername();
+        connectionRepository.save(GitHubConnection.builder()
+                .userId(user.getId())
+                .githubUserId(ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE))
+                .githubUsername(login)
+                .accessToken(tokenVault.encrypt("gho_token"))
+                .build());
+        repositoryRepo.save(GitHubRepository.builder()
+                .userId(user.getId())
+                .githubRepoId(ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE))
+                .repositoryName("repo")
+                .repositoryFullName(login + "/repo")
+                .build());
+
+        commitHabit = saveHabit(user.getId(), "Commit daily", habit -> {
+            habit.setGithubAutoTrack(true);
+            habit.setGithubEventType(GitHubEventType.COMMIT);
+        });
+        saveHabit(user.getId(), "Open a PR", habit -> {
+            habit.setGithubAutoTrack(true);
+            habit.setGithubEventType(GitHubEventType.PULL_REQUEST);
+        });
+    }
+
+    @Test
+    void run_ShouldResumeFromTheCheckpointAndRecomputeStreaksOnce() {
+        LocalDate today = LocalDate.now();
+        String commitsPage2 = API_URL + "/repositories/1/commits?page=2";
+        backfillService.schedule(user.getId());
+
+        // First run: page 1 imported, page 2 fails
+        HttpHeaders next = new HttpHeaders();
+        next.add(HttpHeaders.LINK, "<" + commitsPage2 + ">; rel=\"next\"");
+        github.expect(requestTo(firstCommitsPage())).andRespond(withSuccess(
+                "[" + commit(today.minusDays(1)) + "," + commit(today.minusDays(2)) + "]",
+                MediaType.APPLICATION_JSON).headers(next));
+        github.expect(requestTo(commitsPage2)).andRespond(withStatus(HttpStatus.BAD_GATEWAY));
+
+        assertThat(backfillService.run(user.getId())).isTrue();
+
+        GitHubBackfill backfill = backfillRepository.findById(user.getId()).orElseThrow();
+        assertThat(backfill.getStatus()).isEqualTo(GitHubBackfillStatus.RUNNING);
+        assertThat(backfill.getNextUrl()).isEqualTo(commitsPage2);
+        assertThat(backfill.getImportedLogs()).isEqualTo(2);
+        assertThat(backfill.getAttempts()).isEqualTo(1);
+        assertThat(backfill.getResumeAt()).isAfter(LocalDateTime.now());
+        // Streaks wait for the end of the import
+        assertThat(habitRepository.findById(commitHabit.getId()).orElseThrow().getCurrentStreak()).isZero();
+
+        // Second run, as after a restart: page 2, then the events feed
+        github.reset();
+        github.expect(requestTo(commitsPage2)).andRespond(withSuccess(
+                "[" + commit(today.minusDays(2)) + "," + commit(today) + "]", MediaType.APPLICATION_JSON));
+        github.expect(requestTo(API_URL + "/users/" + login + "/events?per_page=100")).andRespond(withSuccess("""
+                [{"type":"PullRequestEvent","repo":{"name":"%s/repo"},"created_at":"%s",
+                  "payload":{"action":"opened","pull_request":{"number":12,"title":"Add streaks"}}}]
+                """.formatted(login, timestamp(today)), MediaType.APPLICATION_JSON));
+
+        assertThat(backfillService.run(user.getId())).isTrue();
+        github.verify();
+
+        backfill = backfillRepository.findById(user.getId()).orElseThrow();
+        assertThat(backfill.getStatus()).isEqualTo(GitHubBackfillStatus.COMPLETED);
+        // The second commit of a day adds an event but no log
+        assertThat(backfill.getImportedLogs()).isEqualTo(4);
+        assertThat(backfill.getImportedEvents()).isEqualTo(5);
+
+        Habit habit = habitRepository.findById(commitHabit.getId()).orElseThrow();
+        assertThat(habit.getCurrentStreak()).isEqualTo(3);
+        assertThat(habit.getTotalCompletions()).isEqualTo(3);
+        assertThat(habitLogRepository.countByHabitId(habit.getId())).isEqualTo(3);
+
+        User updated = userRepository.findById(user.getId()).orElseThrow();
+        assertThat(updated.getCurrentStreak()).isEqualTo(3);
+        assertThat(updated.getTotalXp()).isEqualTo(4 * HabitService.XP_PER_COMPLETION);
+        assertThat(eventRepository.findByUserIdAndEventType(user.getId(), GitHubEventType.PULL_REQUEST))
+                .singleElement()
+                .satisfies(event -> assertThat(event.getEventId()).isEqualTo("pr-" + login + "/repo-12"));
+    }
+
+    @Test
+    void scheduleAgain_ShouldImportNothingTwice() {
+        String commits = "[" + commit(LocalDate.now()) + "]";
+        for (int i = 0; i < 2; i++) {
+            backfillService.schedule(user.getId());
+            github.reset();
+            github.expect(requestTo(firstCommitsPage()))
+                    .andRespond(withSuccess(commits, MediaType.APPLICATION_JSON));
+            github.expect(requestTo(API_URL + "/users/" + login + "/events?per_page=100"))
+                    .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+            backfillService.run(user.getId());
+        }
+
+        GitHubBackfill backfill = backfillRepository.findById(user.getId()).orElseThrow();
+        assertThat(backfill.getStatus()).isEqualTo(GitHubBackfillStatus.COMPLETED);
+        assertThat(backfill.getImportedLogs()).isZero();
+        assertThat(backfill.getImportedEvents()).isZero();
+        assertThat(habitLogRepository.countByHabitId(commitHabit.getId())).isEqualTo(1);
+        assertThat(userRepository.findById(user.getId()).orElseThrow().getTotalXp())
+                .isEqualTo(HabitService.XP_PER_COMPLETION);
+    }
+
+    private String firstCommitsPage() {
+        return API_URL + "/repos/" + login + "/repo/commits?author=" + login
+                + "&since=" + LocalDate.now().minusDays(365) + "T00:00:00Z&per_page=100";
+    }
+
+    private static String commit(LocalDate day) {
+        String sha = (UUID.randomUUID().toString() + UUID.randomUUID()).replace("-", "").substring(0, 40);
+        return """
+                {"sha":"%s","commit":{"message":"Work of %s","author":{"date":"%s"}}}
+                """.formatted(sha, day, timestamp(day));
+    }
+
+    private static String timestamp(LocalDate day) {
+        return day.atTime(12, 0).atZone(ZoneId.systemDefault()).toOffsetDateTime().toString();
+    }
+}
@@ -0,0 +1,112 @@
+package com.devhabits.service;
+
+import com.devhabits.AbstractIntegrationTest;
+import com.devhabits.model.dto.github.GitHubWebhookPayload;
+import com.devhabits.model.entity.GitHubConnection;
+import com.devhabits.model.entity.User;
+import com.devhabits.model.enums.GitHubEventType;
+import com.devhabits.repository.GitHubConnectionRepository;
+import com.devhabits.repository.GitHubEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GitHubServiceCommitsTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private GitHubService gitHubService;
+
+    @Autowired
+    private GitHubConnectionRepository connectionRepository;
+
+    @Autowired
+    private GitHubEventRepository eventRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+    private long githubUserId;
+
+    @BeforeEach
+    void setUp() {
+        user = saveUser("commits");
+
+        githubUserId = ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE);
+        connectionRepository.save(GitHubConnection.builder()
+                .userId(user.getId())
+                .githubUserId(githubUserId)
+                .githubUsername(user.getUsername())
+                .accessToken("gho_token")
+                .build());
+
+        // Pushes only record an event when a habit tracks commits
+        saveHabit(user.getId(), "Commit daily", habit -> {
+            habit.setGithubAutoTrack(true);
+            habit.setGithubEventType(GitHubEventType.COMMIT);
+        });
+    }
+
+    @Test
+    void push_ShouldCountEachCommitOnceAcrossRedeliveriesAndBranches() {
+        String first = sha();
+        String second = sha();
+        String third = sha();
+
+        gitHubService.processWebhookEvent(user.getId(), "push", push(first, second, third));
+        // Redelivery of the same push
+        gitHubService.processWebhookEvent(user.getId(), "push", push(first, second, third));
+        // Same commits merged into another branch, with one new merge commit
+        String merge = sha();
+        gitHubService.processWebhookEvent(user.getId(), "push", push(first, second, third, merge));
+
+        assertThat(commitStats()).isEqualTo(4);
+        assertThat(eventRepository.findByUserIdAndEventType(user.getId(), GitHubEventType.COMMIT))
+                .extracting(event -> event.getEventId())
+                .containsExactlyInAnyOrder(third, merge);
+    }
+
+    @Test
+    void push_ShouldGroupCommitsByDayOfTheirTimestamp() {
+        GitHubWebhookPayload payload = push(sha(), sha());
+        payload.getCommits().get(0).setTimestamp("2025-01-14T23:30:00-05:00");
+        payload.getCommits().get(1).setTimestamp("2025-01-15T08:00:00+02:00");
+
+        gitHubService.processWebhookEvent(user.getId(), "push", payload);
+
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT CAST(day AS varchar) FROM github_commit_stats WHERE user_id = ? ORDER BY day",
+                String.class, user.getId()))
+                .containsExactly("2025-01-14", "2025-01-15");
+    }
+
+    private long commitStats() {
+        return jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(commit_count), 0) FROM github_commit_stats WHERE user_id = ?",
+                Long.class, user.getId());
+    }
+
+    private GitHubWebhookPayload push(String... shas) {
+        List<GitHubWebhookPayload.Commit> commits = Arrays.stream(shas)
+                .map(sha -> GitHubWebhookPayload.Commit.builder().id(sha).timestamp("2025-01-15T10:00:00+01:00").build())
+                .toList();
+        return GitHubWebhookPayload.builder()
+                .repository(GitHubWebhookPayload.Repository.builder().id(42L).name("repo").fullName("octo/repo").build())
+                .sender(GitHubWebhookPayload.Sender.builder().id(githubUserId).login("octo").build())
+                .commits(commits)
+                .headCommit(GitHubWebhookPayload.Commit.builder().id(shas[shas.length - 1]).message("Fix").build())
+                .build();
+    }
+
+    private static String sha() {
+        return (UUID.randomUUID().toString() + UUID.randomUUID()).replace("-", "").substring(0, 40);
+    }
+}
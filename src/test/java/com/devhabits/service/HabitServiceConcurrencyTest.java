@@ -0,0 +1,74 @@
+package com.devhabits.service;
+
+import com.devhabits.AbstractIntegrationTest;
+import com.devhabits.model.dto.request.CheckInRequest;
+import com.devhabits.model.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HabitServiceConcurrencyTest extends AbstractIntegrationTest {
+
+    private static final int PARALLEL_CHECK_INS = 64;
+
+    @Autowired
+    private HabitService habitService;
+
+    private User user;
+    private List<UUID> habitIds;
+
+    @BeforeEach
+    void setUp() {
+        user = saveUser("concurrency");
+
+        habitIds = new ArrayList<>();
+        for (int i = 0; i < PARALLEL_CHECK_INS; i++) {
+            habitIds.add(saveHabit(user.getId(), "Habit " + i).getId());
+        }
+    }
+
+    @Test
+    void checkInHabit_WhenRunInParallel_ShouldNotLoseXpOrCompletions() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(PARALLEL_CHECK_INS);
+        CountDownLatch start = new CountDownLatch(1);
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (UUID habitId : habitIds) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return habitService.checkInHabit(user.getId(), habitId, new CheckInRequest());
+                }));
+            }
+
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        User reloaded = userRepository.findById(user.getId()).orElseThrow();
+        assertThat(reloaded.getTotalXp()).isEqualTo(PARALLEL_CHECK_INS * 10);
+        assertThat(reloaded.getLevel()).isEqualTo((int) Math.floor(Math.sqrt(PARALLEL_CHECK_INS * 10 / 100.0)) + 1);
+        assertThat(reloaded.getCurrentStreak()).isEqualTo(1);
+
+        assertThat(habitRepository.findAllById(habitIds))
+                .hasSize(PARALLEL_CHECK_INS)
+                .allSatisfy(habit -> {
+                    assertThat(habit.getTotalCompletions()).isEqualTo(1);
+                    assertThat(habit.getCurrentStreak()).isEqualTo(1);
+                });
+    }
+}
@@ -0,0 +1,85 @@
+package com.devhabits.service;
+
+import com.devhabits.AbstractIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserDataVersionServiceTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private UserDataVersionService userDataVersionService;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Test
+    void eTag_ShouldBeStableUntilBumped() {
+        UUID userId = UUID.randomUUID();
+
+        String first = userDataVersionService.eTag(userId);
+        assertThat(first).startsWith("W/\"");
+        assertThat(userDataVersionService.eTag(userId)).isEqualTo(first);
+
+        userDataVersionService.bumpAfterCommit(userId);
+
+        assertThat(userDataVersionService.eTag(userId)).isNotEqualTo(first);
+    }
+
+    @Test
+    void eTag_WhenCounterLost_ShouldNotReuseAnEarlierVersion() {
+        UUID userId = UUID.randomUUID();
+        String before = userDataVersionService.eTag(userId);
+        userDataVersionService.bumpAfterCommit(userId);
+        String bumped = userDataVersionService.eTag(userId);
+
+        redisTemplate.delete("user:version:" + userId);
+
+        assertThat(userDataVersionService.eTag(userId)).isNotIn(before, bumped);
+    }
+
+    @Test
+    void eTag_ShouldDifferPerRepresentationAndVaryByAccept() {
+        UUID userId = UUID.randomUUID();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        String json = userDataVersionService.eTag(userId, request("application/json", null, response));
+        String cbor = userDataVersionService.eTag(userId, request("application/cbor", null, response));
+        String sparse = userDataVersionService.eTag(userId, request("application/json", "name", response));
+
+        assertThat(json).isNotEqualTo(cbor).isNotEqualTo(sparse).startsWith("W/\"").endsWith("\"");
+        assertThat(cbor).isNotEqualTo(sparse);
+        assertThat(response.getHeaders(HttpHeaders.VARY)).containsExactly(HttpHeaders.ACCEPT);
+    }
+
+    @Test
+    void eTag_ShouldBeReadFromRedisOncePerRequest() {
+        UUID userId = UUID.randomUUID();
+        ServletWebRequest request = request("application/json", null, new MockHttpServletResponse());
+        String first = userDataVersionService.eTag(userId, request);
+
+        // ResponseCacheFilter then the controller: the second call does not go back to Redis
+        redisTemplate.opsForValue().set("user:version:" + userId, "1");
+
+        assertThat(userDataVersionService.eTag(userId, request)).isEqualTo(first);
+        assertThat(userDataVersionService.eTag(userId, request("application/json", null, new MockHttpServletResponse())))
+                .isNotEqualTo(first);
+    }
+
+    private static ServletWebRequest request(String accept, String fields, MockHttpServletResponse response) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/dashboard");
+        request.addHeader(HttpHeaders.ACCEPT, accept);
+        if (fields != null) {
+            request.setParameter("fields", fields);
+        }
+        return new ServletWebRequest(request, response);
+    }
+}
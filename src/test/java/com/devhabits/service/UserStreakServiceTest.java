@@ -0,0 +1,112 @@
+package com.devhabits.service;
+
+import com.devhabits.AbstractIntegrationTest;
+import com.devhabits.model.entity.Habit;
+import com.devhabits.model.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserStreakServiceTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private UserStreakService userStreakService;
+
+    private UUID userId;
+    private Habit habitA;
+    private Habit habitB;
+
+    @BeforeEach
+    void setUp() {
+        userId = saveUser("streak", user -> {
+            user.setCurrentStreak(5);
+            user.setLongestStreak(5);
+        }).getId();
+
+        habitA = saveHabit("Habit A", 5);
+        habitB = saveHabit("Habit B", 3);
+    }
+
+    @Test
+    void onHabitStreakChanged_WhenNonMaxHabitGrows_ShouldKeepMax() {
+        updateStreak(habitB, 4);
+        userStreakService.onHabitStreakChanged(userId, 3, 4, 4);
+
+        assertUserStreaks(5, 5);
+    }
+
+    @Test
+    void onHabitStreakChanged_WhenHabitExceedsMax_ShouldRaiseCurrentAndLongest() {
+        updateStreak(habitA, 6);
+        userStreakService.onHabitStreakChanged(userId, 5, 6, 6);
+
+        assertUserStreaks(6, 6);
+    }
+
+    @Test
+    void onHabitStreakChanged_WhenMaxHabitStreakBreaks_ShouldRecomputeFromActiveHabits() {
+        updateStreak(habitA, 1);
+        userStreakService.onHabitStreakChanged(userId, 5, 1, 5);
+
+        assertUserStreaks(3, 5);
+    }
+
+    @Test
+    void onHabitStreakChanged_WhenNonMaxHabitStreakBreaks_ShouldKeepMax() {
+        updateStreak(habitB, 1);
+        userStreakService.onHabitStreakChanged(userId, 3, 1, 3);
+
+        assertUserStreaks(5, 5);
+    }
+
+    @Test
+    void onHabitArchived_WhenMaxHabitArchived_ShouldFallBackToNextHabit_AndRestoreShouldRaiseAgain() {
+        Habit archived = habitRepository.findById(habitA.getId()).orElseThrow();
+        archived.archive();
+        habitRepository.save(archived);
+        userStreakService.onHabitArchived(userId, 5);
+
+        assertUserStreaks(3, 5);
+
+        Habit restored = habitRepository.findById(habitA.getId()).orElseThrow();
+        restored.restore();
+        habitRepository.save(restored);
+        userStreakService.onHabitRestored(userId, 5, 5);
+
+        assertUserStreaks(5, 5);
+    }
+
+    @Test
+    void onHabitArchived_WhenAllHabitsArchived_ShouldResetCurrentStreak() {
+        for (Habit habit : habitRepository.findByUserIdAndIsActiveTrue(userId)) {
+            habit.archive();
+            habitRepository.save(habit);
+            userStreakService.onHabitArchived(userId, habit.getCurrentStreak());
+        }
+
+        assertUserStreaks(0, 5);
+    }
+
+    private Habit saveHabit(String name, int streak) {
+        return saveHabit(userId, name, habit -> {
+            habit.setCurrentStreak(streak);
+            habit.setLongestStreak(streak);
+        });
+    }
+
+    private void updateStreak(Habit habit, int currentStreak) {
+        Habit reloaded = habitRepository.findById(habit.getId()).orElseThrow();
+        reloaded.updateStreak(currentStreak);
+        habitRepository.save(reloaded);
+    }
+
+    private void assertUserStreaks(int currentStreak, int longestStreak) {
+        User user = userRepository.findById(userId).orElseThrow();
+        assertThat(user.getCurrentStreak()).isEqualTo(currentStreak);
+        assertThat(user.getLongestStreak()).isEqualTo(longestStreak);
+    }
+}
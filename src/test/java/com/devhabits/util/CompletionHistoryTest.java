@@ -0,0 +1,53 @@
+package com.devhabits.util;
+
+import com.devhabits.model.entity.HabitLog;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompletionHistoryTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 1, 15);
+
+    @Test
+    void tenYearDailyHabit_fitsInAFewHundredBytes() {
+        CompletionHistory history = CompletionHistory.fromLogs(IntStream.range(0, 3650)
+                .mapToObj(i -> log(TODAY.minusDays(i)))
+                .toList());
+
+        byte[] bytes = history.toBytes();
+
+        assertThat(history.size()).isEqualTo(3650);
+        assertThat(bytes.length).isLessThan(500);
+        assertThat(CompletionHistory.fromBytes(bytes).epochDays()).isEqualTo(history.epochDays());
+    }
+
+    @Test
+    void countsAndRatesUseInclusiveRanges() {
+        CompletionHistory history = CompletionHistory.fromLogs(List.of(
+                log(TODAY), log(TODAY.minusDays(1)), log(TODAY.minusDays(3)), log(TODAY.minusDays(10))));
+
+        assertThat(history.countBetween(TODAY.minusDays(3), TODAY)).isEqualTo(3);
+        assertThat(history.completionRate(TODAY, 4)).isEqualTo(0.75);
+        assertThat(history.epochDaysBetween(TODAY.minusDays(10), TODAY.minusDays(2)))
+                .containsExactly((int) TODAY.minusDays(10).toEpochDay(), (int) TODAY.minusDays(3).toEpochDay());
+    }
+
+    @Test
+    void add_isIdempotentPerDay() {
+        CompletionHistory history = CompletionHistory.empty();
+
+        assertThat(history.add(TODAY)).isTrue();
+        assertThat(history.add(TODAY)).isFalse();
+        assertThat(history.isCompletedOn(TODAY)).isTrue();
+        assertThat(history.size()).isEqualTo(1);
+    }
+
+    private static HabitLog log(LocalDate day) {
+        return HabitLog.builder().completedAt(day.atTime(9, 0)).build();
+    }
+}
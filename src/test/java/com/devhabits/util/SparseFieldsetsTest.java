@@ -0,0 +1,55 @@
+package com.devhabits.util;
+
+import com.devhabits.model.dto.response.ApiResponse;
+import com.devhabits.model.dto.response.HabitResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SparseFieldsetsTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .mixIn(HabitResponse.class, SparseFieldsets.Filtered.class)
+            .filters(SparseFieldsets.SERIALIZE_ALL)
+            .build();
+
+    private final HabitResponse habit = HabitResponse.builder()
+            .id(UUID.randomUUID())
+            .name("Daily commit")
+            .description("Push something every day")
+            .currentStreak(4)
+            .build();
+
+    @Test
+    void withoutFieldset_ShouldWriteEveryProperty() {
+        JsonNode json = objectMapper.valueToTree(habit);
+
+        assertThat(json.has("description")).isTrue();
+        assertThat(json.has("longestStreak")).isTrue();
+    }
+
+    @Test
+    void withFieldset_ShouldKeepRequestedPropertiesAndId() throws Exception {
+        String json = objectMapper.writer(SparseFieldsets.filterFor("name, currentStreak"))
+                .writeValueAsString(ApiResponse.success(List.of(habit)));
+
+        JsonNode written = objectMapper.readTree(json).get("data").get(0);
+        assertThat(written.fieldNames()).toIterable().containsExactlyInAnyOrder("id", "name", "currentStreak");
+        // Non-habit objects are untouched
+        assertThat(objectMapper.readTree(json).has("success")).isTrue();
+    }
+
+    @Test
+    void plainMapper_ShouldWriteEveryPropertyWithoutTheFilter() {
+        JsonNode json = new ObjectMapper().findAndRegisterModules().valueToTree(habit);
+
+        assertThat(json.has("description")).isTrue();
+        assertThat(json.get("currentStreak").asInt()).isEqualTo(4);
+    }
+}
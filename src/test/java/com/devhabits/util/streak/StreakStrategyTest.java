@@ -0,0 +1,109 @@
+package com.devhabits.util.streak;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreakStrategyTest {
+
+    // Wednesday
+    private static final LocalDate TODAY = LocalDate.of(2025, 1, 15);
+
+    @Test
+    void daily_currentStreakStaysAliveUntilADayIsMissed() {
+        int[] days = days(TODAY.minusDays(5), TODAY.minusDays(3), TODAY.minusDays(2), TODAY.minusDays(1));
+
+        assertThat(DailyStreakStrategy.INSTANCE.compute(days, TODAY)).isEqualTo(new StreakResult(3, 3));
+        assertThat(DailyStreakStrategy.INSTANCE.compute(days, TODAY.plusDays(1))).isEqualTo(new StreakResult(0, 3));
+    }
+
+    @Test
+    void weekly_countsConsecutiveWeeksReachingTheTarget() {
+        LocalDate monday = TODAY.with(DayOfWeek.MONDAY);
+        int[] days = days(
+                monday.minusWeeks(3), monday.minusWeeks(3).plusDays(2),
+                monday.minusWeeks(2), monday.minusWeeks(2).plusDays(4),
+                monday.minusWeeks(1).plusDays(1), monday.minusWeeks(1).plusDays(6));
+
+        WeeklyStreakStrategy strategy = new WeeklyStreakStrategy(2);
+
+        // Current week is still in progress: the streak survives it
+        assertThat(strategy.compute(days, TODAY)).isEqualTo(new StreakResult(3, 3));
+        assertThat(strategy.compute(days, TODAY.plusWeeks(1))).isEqualTo(new StreakResult(0, 3));
+    }
+
+    @Test
+    void weekly_weekBelowTargetBreaksTheStreak() {
+        LocalDate monday = TODAY.with(DayOfWeek.MONDAY);
+        int[] days = days(
+                monday.minusWeeks(2), monday.minusWeeks(2).plusDays(1),
+                monday.minusWeeks(1),
+                monday, monday.plusDays(1));
+
+        assertThat(new WeeklyStreakStrategy(2).compute(days, TODAY)).isEqualTo(new StreakResult(1, 1));
+    }
+
+    @Test
+    void weekly_cutoffLeavesRoomForTheTargetLastWeek() {
+        LocalDate lastMonday = TODAY.with(DayOfWeek.MONDAY).minusWeeks(1);
+
+        assertThat(new WeeklyStreakStrategy(1).streakCutoff(TODAY)).isEqualTo(lastMonday);
+        // 3 completions last week: the last one was on Wednesday at the earliest
+        assertThat(new WeeklyStreakStrategy(3).streakCutoff(TODAY)).isEqualTo(lastMonday.plusDays(2));
+    }
+
+    @Test
+    void scheduledDays_ignoresUnscheduledDays() {
+        int mask = ScheduledDaysStreakStrategy.toMask(EnumSet.of(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY, DayOfWeek.FRIDAY));
+        LocalDate monday = TODAY.with(DayOfWeek.MONDAY);
+        int[] days = days(
+                monday.minusWeeks(1),              // Mon
+                monday.minusWeeks(1).plusDays(1),  // Tue, not scheduled
+                monday.minusWeeks(1).plusDays(2),  // Wed
+                monday.minusWeeks(1).plusDays(4),  // Fri
+                monday);                           // Mon
+
+        ScheduledDaysStreakStrategy strategy = new ScheduledDaysStreakStrategy(mask);
+
+        // Today (Wed) is not over yet
+        assertThat(strategy.compute(days, TODAY)).isEqualTo(new StreakResult(4, 4));
+        // Wednesday missed
+        assertThat(strategy.compute(days, TODAY.plusDays(1))).isEqualTo(new StreakResult(0, 4));
+    }
+
+    @Test
+    void scheduledDays_cutoffIsLastScheduledDayBeforeToday() {
+        int mask = ScheduledDaysStreakStrategy.toMask(EnumSet.of(DayOfWeek.MONDAY, DayOfWeek.FRIDAY));
+        ScheduledDaysStreakStrategy strategy = new ScheduledDaysStreakStrategy(mask);
+
+        assertThat(strategy.streakCutoff(TODAY)).isEqualTo(TODAY.with(DayOfWeek.MONDAY));
+        assertThat(strategy.streakCutoff(TODAY.with(DayOfWeek.MONDAY)))
+                .isEqualTo(TODAY.with(DayOfWeek.MONDAY).minusDays(3));
+    }
+
+    @Test
+    void scheduledDays_maskRoundTrips() {
+        EnumSet<DayOfWeek> days = EnumSet.of(DayOfWeek.TUESDAY, DayOfWeek.SATURDAY, DayOfWeek.SUNDAY);
+
+        assertThat(ScheduledDaysStreakStrategy.toDays(ScheduledDaysStreakStrategy.toMask(days))).isEqualTo(days);
+    }
+
+    @Test
+    void dayOfWeekIndex_matchesJavaTime() {
+        IntStream.range(-10, 30).forEach(offset -> {
+            LocalDate day = TODAY.plusDays(offset);
+            assertThat(StreakStrategy.dayOfWeekIndex((int) day.toEpochDay()))
+                    .isEqualTo(day.getDayOfWeek().getValue() - 1);
+        });
+    }
+
+    private static int[] days(LocalDate... dates) {
+        return Stream.of(dates).mapToInt(date -> (int) date.toEpochDay()).sorted().distinct().toArray();
+    }
+}